@@ -0,0 +1,79 @@
+package com.budget.api.benchmark;
+
+import com.budget.api.service.CsvService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lector secuencial (CSVReader sobre un InputStream) frente al lector paralelo sobre el archivo
+ * mapeado. Ambos entregan las filas a un Blackhole, sin tocar la base de datos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvParserBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int rows;
+
+    @Param({"4"})
+    private int threads;
+
+    private Path file;
+    private CsvService csvService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        file = Files.createTempFile("csv-benchmark", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("Fecha,Descripción,Monto,Tipo,Categoría,Notas\n");
+            for (int i = 0; i < rows; i++) {
+                writer.write(String.format("2026-%02d-%02d,\"Compra %d, supermercado\",%d.%02d,%s,Comida,%s\n",
+                        i % 12 + 1, i % 28 + 1, i, i % 100000, i % 100,
+                        i % 10 == 0 ? "INCOME" : "EXPENSE", i % 3 == 0 ? "nota" : ""));
+            }
+        }
+        csvService = new CsvService(threads, DataSize.ofMegabytes(1));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        csvService.shutdown();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void sequentialReader(Blackhole blackhole) throws Exception {
+        try (InputStream in = Files.newInputStream(file)) {
+            csvService.readTransactions(in, 1L, blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public void mappedParallelReader(Blackhole blackhole) throws Exception {
+        csvService.readTransactions(file, 1L, blackhole::consume);
+    }
+}
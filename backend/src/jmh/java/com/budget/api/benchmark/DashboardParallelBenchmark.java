@@ -0,0 +1,148 @@
+package com.budget.api.benchmark;
+
+import com.budget.api.cache.DashboardCache;
+import com.budget.api.entity.Budget;
+import com.budget.api.enums.BudgetPeriod;
+import com.budget.api.enums.ExpenseType;
+import com.budget.api.enums.TransactionType;
+import com.budget.api.repository.BudgetRepository;
+import com.budget.api.repository.MonthlyRollupRepository;
+import com.budget.api.repository.TransactionRepository;
+import com.budget.api.service.DashboardSectionRunner;
+import com.budget.api.service.DashboardService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Dashboard sin caché en modo secuencial frente a paralelo (app.dashboard.parallel.enabled).
+ * Los repositorios devuelven filas fijas (30 días × 10 categorías, seis meses de rollups, 3
+ * presupuestos) tras esperar {@code roundTripMicros}, que hace las veces de la ida y vuelta a
+ * PostgreSQL más la ejecución de la consulta. Con un presupuesto del mes en curso el dashboard
+ * lanza cinco consultas: presupuestos, rollups, rango diario, el tramo inicial de la ventana de
+ * seis meses y los totales por presupuesto.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="DashboardParallelBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DashboardParallelBenchmark {
+
+    private static final int CATEGORIES = 10;
+
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    @Param({"0", "500", "2000"})
+    private long roundTripMicros;
+
+    private DashboardSectionRunner sectionRunner;
+    private DashboardService dashboardService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LocalDate today = LocalDate.now();
+        YearMonth currentMonth = YearMonth.from(today);
+
+        List<Budget> budgets = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            budgets.add(Budget.builder().id(id).name("Presupuesto " + id)
+                    .totalAmount(new BigDecimal("3000000")).period(BudgetPeriod.MONTHLY)
+                    .startDate(currentMonth.atDay(1)).endDate(currentMonth.atEndOfMonth()).build());
+        }
+
+        List<Object[]> dailyRows = new ArrayList<>();
+        for (LocalDate date = currentMonth.atDay(1); !date.isAfter(currentMonth.atEndOfMonth()); date = date.plusDays(1)) {
+            dailyRows.add(new Object[]{date, TransactionType.INCOME, null, null, new BigDecimal("150000.00")});
+            for (int c = 0; c < CATEGORIES; c++) {
+                dailyRows.add(new Object[]{date, TransactionType.EXPENSE, "Categoría " + c,
+                        c % 3 == 0 ? ExpenseType.FIXED : ExpenseType.VARIABLE, new BigDecimal("12500.00")});
+            }
+        }
+
+        List<Object[]> rollupRows = new ArrayList<>();
+        for (int m = 0; m < 6; m++) {
+            LocalDate month = currentMonth.minusMonths(m).atDay(1);
+            rollupRows.add(new Object[]{month, TransactionType.INCOME, null, new BigDecimal("4500000.00")});
+            rollupRows.add(new Object[]{month, TransactionType.EXPENSE, ExpenseType.FIXED, new BigDecimal("1200000.00")});
+            rollupRows.add(new Object[]{month, TransactionType.EXPENSE, ExpenseType.VARIABLE, new BigDecimal("2400000.00")});
+        }
+
+        List<Object[]> budgetTotals = new ArrayList<>();
+        for (Budget budget : budgets) {
+            budgetTotals.add(new Object[]{budget.getId(), TransactionType.EXPENSE, new BigDecimal("1250000.00")});
+            budgetTotals.add(new Object[]{budget.getId(), TransactionType.INCOME, new BigDecimal("1500000.00")});
+        }
+
+        TransactionRepository transactions = repository(TransactionRepository.class, method -> switch (method) {
+            case "sumByDateTypeAndCategory" -> dailyRows;
+            case "sumByUserIdAndTypeAndDateRange" -> new BigDecimal("310000.00");
+            default -> throw new UnsupportedOperationException(method);
+        });
+        BudgetRepository budgetRepository = repository(BudgetRepository.class, method -> switch (method) {
+            case "findActiveBudgetsByDate" -> budgets;
+            default -> throw new UnsupportedOperationException(method);
+        });
+        MonthlyRollupRepository rollups = repository(MonthlyRollupRepository.class, method -> switch (method) {
+            case "sumByMonthTypeAndExpenseType" -> rollupRows;
+            case "sumByBudgetIdsGroupByType" -> budgetTotals;
+            default -> throw new UnsupportedOperationException(method);
+        });
+
+        // max-size 0: nunca se guarda, cada llamada calcula el dashboard completo
+        DashboardCache cache = new DashboardCache(new SimpleMeterRegistry(), 0, Duration.ZERO);
+        sectionRunner = new DashboardSectionRunner(parallel, 8, Duration.ofSeconds(5));
+        dashboardService = new DashboardService(transactions, budgetRepository, rollups, cache, sectionRunner);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sectionRunner.shutdown();
+    }
+
+    @Benchmark
+    public void dashboard(Blackhole blackhole) {
+        blackhole.consume(dashboardService.getDashboardMetrics(1L, null, null));
+    }
+
+    private <T> T repository(Class<T> type, Function<String, Object> answers) {
+        long roundTripNanos = TimeUnit.MICROSECONDS.toNanos(roundTripMicros);
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    Object answer = answers.apply(method.getName());
+                    if (roundTripNanos > 0) {
+                        LockSupport.parkNanos(roundTripNanos);
+                    }
+                    return answer;
+                }));
+    }
+}
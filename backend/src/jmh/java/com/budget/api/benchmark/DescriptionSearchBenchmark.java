@@ -0,0 +1,104 @@
+package com.budget.api.benchmark;
+
+import com.budget.api.service.DescriptionNgramIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsqueda por subcadena en la descripción sobre un millón de transacciones de un usuario: el
+ * filtro actual ({@code lower(description) LIKE '%término%'} en H2, sin índice posible) frente al
+ * índice de trigramas en memoria. Términos selectivos y poco selectivos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class DescriptionSearchBenchmark {
+
+    private static final String[] MERCHANTS = {"Supermercado", "Farmacia", "Restaurante", "Gasolinera",
+            "Panadería", "Librería", "Ferretería", "Cafetería", "Peluquería", "Lavandería"};
+    private static final String[] CITIES = {"Bogotá", "Medellín", "Cali", "Barranquilla", "Cartagena",
+            "Bucaramanga", "Pereira", "Manizales"};
+
+    @Param({"1000000"})
+    private int rows;
+
+    @Param({"ferreter", "tienda 4242"})
+    private String term;
+
+    private Connection connection;
+    private PreparedStatement like;
+    private DescriptionNgramIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        connection = DriverManager.getConnection("jdbc:h2:mem:search-benchmark", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE transactions (id BIGINT PRIMARY KEY, user_id BIGINT, "
+                    + "description VARCHAR(200), deleted BOOLEAN)");
+            statement.execute("CREATE INDEX idx_transaction_user ON transactions (user_id, deleted)");
+        }
+        index = new DescriptionNgramIndex();
+        Random random = new Random(42);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO transactions VALUES (?, 1, ?, false)")) {
+            for (int i = 0; i < rows; i++) {
+                String description = MERCHANTS[random.nextInt(MERCHANTS.length)] + " "
+                        + CITIES[random.nextInt(CITIES.length)] + " tienda " + random.nextInt(10_000);
+                insert.setLong(1, i);
+                insert.setString(2, description);
+                insert.addBatch();
+                if (i % 10_000 == 9_999) {
+                    insert.executeBatch();
+                }
+                index.put(i, description);
+            }
+            insert.executeBatch();
+        }
+        like = connection.prepareStatement("SELECT id FROM transactions "
+                + "WHERE user_id = 1 AND deleted = false AND lower(description) LIKE ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        like.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public void likeScan(Blackhole blackhole) throws Exception {
+        like.setString(1, "%" + term + "%");
+        try (ResultSet rs = like.executeQuery()) {
+            while (rs.next()) {
+                blackhole.consume(rs.getLong(1));
+            }
+        }
+    }
+
+    @Benchmark
+    public long[] ngramIndex() {
+        return index.search(term, Integer.MAX_VALUE - 1);
+    }
+}
@@ -0,0 +1,101 @@
+package com.budget.api.benchmark;
+
+import com.budget.api.enums.TransactionType;
+import com.budget.api.repository.TransactionRepository;
+import com.budget.api.service.TransactionSuggestionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Autocompletado de descripciones (TransactionSuggestionService.suggest) sobre el historial de un
+ * usuario ya cargado, con prefijos aleatorios de una a tres letras. Mode.SampleTime reporta los
+ * percentiles (p50, p99, p99.9) de cada consulta.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="DescriptionSuggestionsBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DescriptionSuggestionsBenchmark {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 3, 1);
+    private static final int PREFIXES = 4096;
+
+    // Descripciones distintas del usuario
+    @Param({"50000"})
+    private int descriptions;
+
+    private TransactionSuggestionService suggestionService;
+    private String[] prefixes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(11);
+        List<Object[]> rows = new ArrayList<>(descriptions);
+        for (int i = 0; i < descriptions; i++) {
+            rows.add(new Object[]{randomWord(random) + " " + i, TransactionType.EXPENSE, (long) random.nextInt(20),
+                    "Categoría", BigDecimal.valueOf(random.nextInt(100_000)), 1L + random.nextInt(50), DATE});
+        }
+        TransactionRepository transactions = (TransactionRepository) Proxy.newProxyInstance(
+                TransactionRepository.class.getClassLoader(), new Class<?>[]{TransactionRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "streamDescriptionUsage" -> rows.stream();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        // La carga corre dentro de una transacción; aquí no hay base de datos detrás
+        PlatformTransactionManager transactionManager = (PlatformTransactionManager) Proxy.newProxyInstance(
+                PlatformTransactionManager.class.getClassLoader(), new Class<?>[]{PlatformTransactionManager.class},
+                (proxy, method, args) -> method.getName().equals("getTransaction") ? new SimpleTransactionStatus() : null);
+        suggestionService = new TransactionSuggestionService(transactions, new TransactionTemplate(transactionManager),
+                1, Duration.ofHours(1));
+
+        prefixes = new String[PREFIXES];
+        for (int i = 0; i < PREFIXES; i++) {
+            prefixes[i] = randomWord(random).substring(0, 1 + random.nextInt(3));
+        }
+        // Primera consulta: carga el historial fuera de la medición
+        suggestionService.suggest(1L, "", 10);
+    }
+
+    @Benchmark
+    public Object suggest() {
+        next = (next + 1) & (PREFIXES - 1);
+        return suggestionService.suggest(1L, prefixes[next], 10);
+    }
+
+    private static String randomWord(Random random) {
+        char[] chars = new char[3 + random.nextInt(6)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+}
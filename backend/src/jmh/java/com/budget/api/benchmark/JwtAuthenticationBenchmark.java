@@ -0,0 +1,159 @@
+package com.budget.api.benchmark;
+
+import com.budget.api.repository.RevokedTokenRepository;
+import com.budget.api.repository.UserRepository;
+import com.budget.api.security.JwtAuthenticationFilter;
+import com.budget.api.security.JwtTokenProvider;
+import com.budget.api.security.UserIdentityCache;
+import com.budget.api.service.TokenRevocationService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.crypto.SecretKey;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste por petición de la autenticación JWT.
+ * <ul>
+ *   <li>{@code previous}: el filtro anterior. Construye dos parsers y verifica la firma dos veces
+ *   (validateToken y getEmailFromToken). Hace dos búsquedas del usuario por email:
+ *   loadUserByUsername y SecurityUtils. Las búsquedas van contra H2 en memoria, así que el coste
+ *   real con PostgreSQL por red es mayor.</li>
+ *   <li>{@code filterVerifying}: el filtro actual con la caché de tokens desactivada. Hace una sola
+ *   verificación con el parser reutilizado, y la caché de ids acierta.</li>
+ *   <li>{@code filterCached}: el filtro actual con el token ya verificado en la caché.</li>
+ *   <li>{@code revocationLookup}: la consulta de revocación que hace el filtro por token (id y
+ *   familia no revocados, con 100.000 ids revocados en memoria).</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    private static final String SECRET = "dGVzdFNlY3JldEtleUZvclVuaXRUZXN0c09ubHlEb05vdFVzZUluUHJvZHVjdGlvbg==";
+    private static final String EMAIL = "benchmark@example.com";
+
+    private SecretKey key;
+    private String token;
+    private Connection connection;
+    private PreparedStatement findByEmail;
+    private JwtAuthenticationFilter verifyingFilter;
+    private JwtAuthenticationFilter cachedFilter;
+    private TokenRevocationService revocations;
+    private String tokenId;
+    private String family;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        key = Keys.hmacShaKeyFor(Base64.getDecoder().decode(SECRET));
+        connection = DriverManager.getConnection("jdbc:h2:mem:jwt-benchmark", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, email VARCHAR(100) UNIQUE, "
+                    + "password VARCHAR(255), active BOOLEAN)");
+            statement.execute("INSERT INTO users VALUES (1, '" + EMAIL + "', 'secret', true)");
+        }
+        findByEmail = connection.prepareStatement("SELECT id, email, password, active FROM users WHERE email = ?");
+
+        // La caché de ids siempre acierta: el repositorio solo responde la primera vez
+        UserRepository users = (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class}, (proxy, method, args) -> Optional.of(1L));
+        UserIdentityCache identities = new UserIdentityCache(users, 1000, Duration.ofHours(1));
+        RevokedTokenRepository revokedTokens = (RevokedTokenRepository) Proxy.newProxyInstance(
+                RevokedTokenRepository.class.getClassLoader(), new Class<?>[]{RevokedTokenRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "deleteExpired" -> 0;
+                    case "findByExpiresAtAfter" -> List.of();
+                    default -> args != null && args.length > 0 ? args[0] : null;
+                });
+        revocations = new TokenRevocationService(revokedTokens, 100_000);
+        LocalDateTime expiresAt = LocalDateTime.now().plusHours(1);
+        for (int i = 0; i < 100_000; i++) {
+            revocations.revoke(UUID.randomUUID().toString(), expiresAt);
+        }
+        JwtTokenProvider verifying = new JwtTokenProvider(SECRET, 3_600_000, 7_200_000, 0, Duration.ZERO);
+        JwtTokenProvider cached = new JwtTokenProvider(SECRET, 3_600_000, 7_200_000, 1000, Duration.ofHours(1));
+        verifyingFilter = new JwtAuthenticationFilter(verifying, identities, revocations);
+        cachedFilter = new JwtAuthenticationFilter(cached, identities, revocations);
+        family = UUID.randomUUID().toString();
+        token = cached.generateToken(1L, EMAIL, family);
+        tokenId = cached.parseToken(token).orElseThrow().getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        findByEmail.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public void previous(Blackhole blackhole) throws Exception {
+        // validateToken + getEmailFromToken, cada uno con su parser
+        Jwts.parser().verifyWith(key).build().parseSignedClaims(token);
+        String email = Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload().getSubject();
+        // loadUserByUsername en el filtro y findByEmail en SecurityUtils
+        for (int i = 0; i < 2; i++) {
+            findByEmail.setString(1, email);
+            try (ResultSet rs = findByEmail.executeQuery()) {
+                rs.next();
+                blackhole.consume(rs.getLong(1));
+            }
+        }
+    }
+
+    @Benchmark
+    public Object filterVerifying() throws Exception {
+        return filter(verifyingFilter);
+    }
+
+    @Benchmark
+    public Object filterCached() throws Exception {
+        return filter(cachedFilter);
+    }
+
+    @Benchmark
+    public boolean revocationLookup() {
+        return revocations.isRevoked(tokenId) || revocations.isRevoked(family);
+    }
+
+    private Object filter(JwtAuthenticationFilter filter) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/transactions");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+}
@@ -0,0 +1,191 @@
+package com.budget.api.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tabla única frente a particiones mensuales en PostgreSQL, con las consultas de
+ * sumByUserIdAndTypeAndDateRange (un mes) y sumByDateTypeAndCategory (un trimestre, la consulta del
+ * dashboard) sobre varios años de transacciones sintéticas. Necesita una base PostgreSQL vacía o de pruebas: crea y borra el
+ * esquema partition_benchmark.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="TransactionPartitionBenchmark -p url=jdbc:postgresql://localhost:5432/budget_db -p user=postgres -p password=postgres"
+ * </pre>
+ *
+ * Antes de medir imprime, para cada consulta y tabla, las particiones recorridas y los bloques
+ * leídos según EXPLAIN (ANALYZE, BUFFERS).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionPartitionBenchmark {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2021, 1, 1);
+    private static final String SUM_BY_TYPE_AND_RANGE = "SELECT COALESCE(SUM(amount), 0) FROM %s "
+            + "WHERE user_id = ? AND type = 'EXPENSE' AND deleted = false AND transaction_date BETWEEN ? AND ?";
+    private static final String SUM_BY_DATE_TYPE_AND_CATEGORY = "SELECT t.transaction_date, t.type, c.name, "
+            + "c.expense_type, COALESCE(SUM(t.amount), 0) FROM %s t LEFT JOIN categories c ON c.id = t.category_id "
+            + "WHERE t.user_id = ? AND t.deleted = false AND t.transaction_date BETWEEN ? AND ? "
+            + "GROUP BY t.transaction_date, t.type, c.name, c.expense_type";
+    private static final int CATEGORIES = 20;
+
+    @Param({"jdbc:postgresql://localhost:5432/budget_db"})
+    private String url;
+
+    @Param({"postgres"})
+    private String user;
+
+    @Param({"postgres"})
+    private String password;
+
+    @Param({"5000000"})
+    private int rows;
+
+    // Seis años de datos
+    @Param({"72"})
+    private int months;
+
+    @Param({"1000"})
+    private int users;
+
+    @Param({"heap_transactions", "partitioned_transactions"})
+    private String table;
+
+    private Connection connection;
+    private PreparedStatement sumByTypeAndRange;
+    private PreparedStatement sumByDateTypeAndCategory;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        connection = DriverManager.getConnection(url, user, password);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS partition_benchmark CASCADE");
+            statement.execute("CREATE SCHEMA partition_benchmark");
+            statement.execute("SET search_path TO partition_benchmark");
+            statement.execute("CREATE TABLE categories (id BIGINT PRIMARY KEY, name VARCHAR(100) NOT NULL, "
+                    + "expense_type VARCHAR(20) NOT NULL)");
+            statement.execute(String.format("INSERT INTO categories SELECT g, 'Categoría ' || g, "
+                    + "CASE WHEN g %% 3 = 0 THEN 'FIXED' ELSE 'VARIABLE' END FROM generate_series(1, %d) g", CATEGORIES));
+            String columns = "(id BIGINT NOT NULL, user_id BIGINT NOT NULL, amount NUMERIC(15, 2) NOT NULL, "
+                    + "type VARCHAR(10) NOT NULL, transaction_date DATE NOT NULL, category_id BIGINT, "
+                    + "deleted BOOLEAN NOT NULL)";
+            statement.execute("CREATE TABLE heap_transactions " + columns);
+            statement.execute("CREATE TABLE partitioned_transactions " + columns
+                    + " PARTITION BY RANGE (transaction_date)");
+            for (int i = 0; i < months; i++) {
+                LocalDate start = FIRST_DAY.plusMonths(i);
+                statement.execute(String.format("CREATE TABLE partitioned_transactions_%d PARTITION OF "
+                        + "partitioned_transactions FOR VALUES FROM ('%s') TO ('%s')", i, start, start.plusMonths(1)));
+            }
+            String generate = "SELECT g, 1 + g %% %d, round((random() * 500000)::numeric, 2), "
+                    + "CASE WHEN g %% 5 = 0 THEN 'INCOME' ELSE 'EXPENSE' END, "
+                    + "DATE '%s' + (random() * (DATE '%s' - DATE '%s'))::int, "
+                    + "CASE WHEN g %% 10 = 0 THEN NULL ELSE 1 + g %% %d END, g %% 50 = 0 "
+                    + "FROM generate_series(1, %d) g";
+            String data = String.format(generate, users, FIRST_DAY, FIRST_DAY.plusMonths(months).minusDays(1),
+                    FIRST_DAY, CATEGORIES, rows);
+            statement.execute("INSERT INTO heap_transactions " + data);
+            statement.execute("INSERT INTO partitioned_transactions SELECT * FROM heap_transactions");
+            for (String name : new String[]{"heap_transactions", "partitioned_transactions"}) {
+                statement.execute("ALTER TABLE " + name + " ADD PRIMARY KEY (id, transaction_date)");
+                statement.execute("CREATE INDEX ON " + name + " (user_id, transaction_date, type) "
+                        + "INCLUDE (amount) WHERE deleted = false");
+                statement.execute("VACUUM ANALYZE " + name);
+            }
+        }
+        sumByTypeAndRange = connection.prepareStatement(String.format(SUM_BY_TYPE_AND_RANGE, table));
+        sumByDateTypeAndCategory = connection.prepareStatement(String.format(SUM_BY_DATE_TYPE_AND_CATEGORY, table));
+        random = new Random(42);
+
+        LocalDate month = FIRST_DAY.plusMonths(months / 2);
+        explain(String.format(SUM_BY_TYPE_AND_RANGE, table), month, month.plusMonths(1).minusDays(1));
+        explain(String.format(SUM_BY_DATE_TYPE_AND_CATEGORY, table), month, month.plusMonths(3).minusDays(1));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        sumByTypeAndRange.close();
+        sumByDateTypeAndCategory.close();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA partition_benchmark CASCADE");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void sumByUserIdAndTypeAndDateRange(Blackhole blackhole) throws Exception {
+        LocalDate month = FIRST_DAY.plusMonths(random.nextInt(months));
+        bind(sumByTypeAndRange, month, month.plusMonths(1).minusDays(1));
+        try (ResultSet rs = sumByTypeAndRange.executeQuery()) {
+            rs.next();
+            blackhole.consume(rs.getBigDecimal(1));
+        }
+    }
+
+    @Benchmark
+    public void sumByDateTypeAndCategory(Blackhole blackhole) throws Exception {
+        LocalDate month = FIRST_DAY.plusMonths(random.nextInt(months - 2));
+        bind(sumByDateTypeAndCategory, month, month.plusMonths(3).minusDays(1));
+        try (ResultSet rs = sumByDateTypeAndCategory.executeQuery()) {
+            while (rs.next()) {
+                blackhole.consume(rs.getBigDecimal(5));
+            }
+        }
+    }
+
+    private void bind(PreparedStatement statement, LocalDate start, LocalDate end) throws Exception {
+        statement.setLong(1, 1 + random.nextInt(users));
+        statement.setDate(2, Date.valueOf(start));
+        statement.setDate(3, Date.valueOf(end));
+    }
+
+    private void explain(String query, LocalDate start, LocalDate end) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + query)) {
+            statement.setLong(1, 1);
+            statement.setDate(2, Date.valueOf(start));
+            statement.setDate(3, Date.valueOf(end));
+            long scans = 0;
+            StringBuilder buffers = new StringBuilder();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    String line = rs.getString(1);
+                    if (line.contains(" Scan ")) {
+                        scans++;
+                    }
+                    if (buffers.isEmpty() && line.contains("Buffers:")) {
+                        buffers.append(line.strip());
+                    }
+                }
+            }
+            System.out.printf("%s | %s: %d nodos de lectura, %s%n", table,
+                    query.substring(0, Math.min(60, query.length())), scans, buffers);
+        }
+    }
+}
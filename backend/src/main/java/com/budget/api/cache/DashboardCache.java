@@ -0,0 +1,98 @@
+package com.budget.api.cache;
+
+import com.budget.api.dto.response.DashboardResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+@Component
+@Slf4j
+public class DashboardCache {
+
+    /**
+     * Rango tal como lo pide el cliente más la fecha actual: los valores por defecto se resuelven
+     * desde los presupuestos del usuario, y cualquier cambio en ellos invalida sus entradas.
+     */
+    public record Key(Long userId, LocalDate startDate, LocalDate endDate, LocalDate today) {
+    }
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final BoundedCache<Key, DashboardResponse> cache;
+    // Generación por usuario (a rayas) para no guardar resultados calculados antes de una invalidación
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public DashboardCache(MeterRegistry meterRegistry,
+                          @Value("${app.dashboard.cache.max-size:1000}") int maxSize,
+                          @Value("${app.dashboard.cache.ttl:5m}") Duration ttl) {
+        this.cache = new BoundedCache<>(maxSize, ttl);
+
+        FunctionCounter.builder("dashboard.cache.requests", cache, BoundedCache::hitCount)
+                .tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("dashboard.cache.requests", cache, BoundedCache::missCount)
+                .tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("dashboard.cache.evictions", cache, BoundedCache::evictionCount)
+                .register(meterRegistry);
+        FunctionCounter.builder("dashboard.cache.invalidations", cache, BoundedCache::invalidationCount)
+                .register(meterRegistry);
+        Gauge.builder("dashboard.cache.size", cache, BoundedCache::size)
+                .register(meterRegistry);
+    }
+
+    public DashboardResponse getOrCompute(Key key, Supplier<DashboardResponse> loader) {
+        DashboardResponse cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        int stripe = stripe(key.userId());
+        long generation = generations.get(stripe);
+        DashboardResponse response = loader.get();
+        synchronized (this) {
+            if (generations.get(stripe) == generation) {
+                cache.put(key, response);
+            }
+        }
+        return response;
+    }
+
+    // Invalida ya y de nuevo al terminar la transacción en curso, para descartar lecturas previas al commit
+    public void invalidateUser(Long userId) {
+        evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(userId);
+                }
+            });
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+        cache.invalidateAll();
+    }
+
+    private synchronized void evict(Long userId) {
+        generations.incrementAndGet(stripe(userId));
+        int removed = cache.invalidateIf(key -> key.userId().equals(userId));
+        log.debug("Caché del dashboard invalidada para usuario {}: {} entradas", userId, removed);
+    }
+
+    private static int stripe(Long userId) {
+        return Math.floorMod(userId.hashCode(), GENERATION_STRIPES);
+    }
+}
@@ -0,0 +1,42 @@
+package com.budget.api.config;
+
+import com.budget.api.service.MonthlyRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Mantenimiento de monthly_rollups al arrancar, por ejemplo:
+ * {@code java -jar app.jar --app.rollups.rebuild=true --app.rollups.verify=true}
+ */
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class RollupMaintenanceConfig {
+
+    private final MonthlyRollupService monthlyRollupService;
+
+    @Bean
+    public CommandLineRunner rollupMaintenance(
+            @Value("${app.rollups.rebuild:false}") boolean rebuild,
+            @Value("${app.rollups.verify:false}") boolean verify) {
+        return args -> {
+            if (rebuild) {
+                monthlyRollupService.rebuild(null);
+            }
+            if (verify) {
+                List<String> mismatches = monthlyRollupService.verify(null);
+                if (mismatches.isEmpty()) {
+                    log.info("Rollups mensuales consistentes con la tabla de transacciones");
+                } else {
+                    log.warn("Rollups mensuales inconsistentes: {} diferencias", mismatches.size());
+                }
+            }
+        };
+    }
+}
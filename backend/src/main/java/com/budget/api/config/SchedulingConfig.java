@@ -0,0 +1,25 @@
+package com.budget.api.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Tareas programadas (reconciliación de contadores de presupuestos). Se desactivan todas con
+ * {@code app.scheduling.enabled=false}.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "app.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+
+    /**
+     * Milisegundos de una duración en cualquiera de los formatos de application.yml ("1m", "PT1M").
+     * fixedDelayString solo acepta ISO-8601, así que los intervalos pasan por aquí:
+     * {@code fixedDelayString = "#{T(com.budget.api.config.SchedulingConfig).millis('${propiedad:1m}')}"}.
+     */
+    public static long millis(String duration) {
+        return DurationStyle.detectAndParse(duration).toMillis();
+    }
+}
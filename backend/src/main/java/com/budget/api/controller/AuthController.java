@@ -1,12 +1,14 @@
 package com.budget.api.controller;
 
 import com.budget.api.dto.request.LoginRequest;
+import com.budget.api.dto.request.RefreshTokenRequest;
 import com.budget.api.dto.request.RegisterRequest;
 import com.budget.api.dto.response.ApiResponse;
 import com.budget.api.dto.response.AuthResponse;
 import com.budget.api.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -23,15 +25,32 @@ public class AuthController {
 
     @PostMapping("/register")
     @Operation(summary = "Registrar nuevo usuario")
-    public ResponseEntity<ApiResponse<AuthResponse>> register(@Valid @RequestBody RegisterRequest request) {
-        AuthResponse response = authService.register(request);
+    public ResponseEntity<ApiResponse<AuthResponse>> register(@Valid @RequestBody RegisterRequest request,
+                                                              HttpServletRequest httpRequest) {
+        AuthResponse response = authService.register(request, httpRequest.getRemoteAddr());
         return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.ok("Usuario registrado", response));
     }
 
     @PostMapping("/login")
     @Operation(summary = "Iniciar sesión")
-    public ResponseEntity<ApiResponse<AuthResponse>> login(@Valid @RequestBody LoginRequest request) {
-        AuthResponse response = authService.login(request);
+    public ResponseEntity<ApiResponse<AuthResponse>> login(@Valid @RequestBody LoginRequest request,
+                                                           HttpServletRequest httpRequest) {
+        AuthResponse response = authService.login(request, httpRequest.getRemoteAddr());
         return ResponseEntity.ok(ApiResponse.ok("Login exitoso", response));
     }
+
+    @PostMapping("/refresh")
+    @Operation(summary = "Renovar tokens (el refresh token usado deja de valer)")
+    public ResponseEntity<ApiResponse<AuthResponse>> refresh(@Valid @RequestBody RefreshTokenRequest request,
+                                                             HttpServletRequest httpRequest) {
+        AuthResponse response = authService.refresh(request, httpRequest.getRemoteAddr());
+        return ResponseEntity.ok(ApiResponse.ok("Tokens renovados", response));
+    }
+
+    @PostMapping("/logout")
+    @Operation(summary = "Cerrar sesión (revoca los tokens emitidos desde ese login)")
+    public ResponseEntity<ApiResponse<Void>> logout(@Valid @RequestBody RefreshTokenRequest request) {
+        authService.logout(request);
+        return ResponseEntity.ok(ApiResponse.ok("Sesión cerrada", null));
+    }
 }
@@ -3,11 +3,18 @@ package com.budget.api.controller;
 import com.budget.api.dto.request.TransactionFilterRequest;
 import com.budget.api.dto.request.TransactionRequest;
 import com.budget.api.dto.response.ApiResponse;
+import com.budget.api.dto.response.CursorPageResponse;
+import com.budget.api.dto.response.ImportJobResponse;
+import com.budget.api.dto.response.ImportResultResponse;
+import com.budget.api.dto.response.SuggestionResponse;
+import com.budget.api.dto.response.TransactionBatchResponse;
 import com.budget.api.dto.response.TransactionResponse;
-import com.budget.api.entity.Transaction;
 import com.budget.api.security.SecurityUtils;
-import com.budget.api.service.CsvService;
+import com.budget.api.service.ImportJobService;
+import com.budget.api.service.TransactionBatchService;
+import com.budget.api.service.TransactionImportService;
 import com.budget.api.service.TransactionService;
+import com.budget.api.service.TransactionSuggestionService;
 import com.opencsv.exceptions.CsvValidationException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -22,9 +29,14 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/transactions")
@@ -33,18 +45,32 @@ import java.util.List;
 public class TransactionController {
 
     private final TransactionService transactionService;
-    private final CsvService csvService;
+    private final TransactionSuggestionService transactionSuggestionService;
+    private final TransactionBatchService transactionBatchService;
+    private final TransactionImportService transactionImportService;
+    private final ImportJobService importJobService;
     private final SecurityUtils securityUtils;
 
     @PostMapping
-    @Operation(summary = "Registrar transacción (ingreso o gasto)")
+    @Operation(summary = "Registrar transacción (ingreso o gasto); Idempotency-Key opcional para reintentos")
     public ResponseEntity<ApiResponse<TransactionResponse>> create(
-            @Valid @RequestBody TransactionRequest request) {
+            @Valid @RequestBody TransactionRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         Long userId = securityUtils.getCurrentUserId();
-        TransactionResponse response = transactionService.create(userId, request);
+        TransactionResponse response = transactionService.create(userId, request, idempotencyKey);
         return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.ok(response));
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Registrar varias transacciones en una sola petición (resultado por elemento)")
+    public ResponseEntity<ApiResponse<TransactionBatchResponse>> createBatch(
+            @RequestBody List<TransactionRequest> requests) {
+        Long userId = securityUtils.getCurrentUserId();
+        TransactionBatchResponse result = transactionBatchService.createAll(userId, requests);
+        return ResponseEntity.ok(ApiResponse.ok(
+                "Transacciones creadas: " + result.getCreated() + " de " + requests.size(), result));
+    }
+
     @GetMapping
     @Operation(summary = "Listar transacciones con filtros y paginación")
     public ResponseEntity<ApiResponse<Page<TransactionResponse>>> findAll(
@@ -54,6 +80,27 @@ public class TransactionController {
         return ResponseEntity.ok(ApiResponse.ok(transactionService.findAll(userId, filter, pageable)));
     }
 
+    @GetMapping("/cursor")
+    @Operation(summary = "Listar transacciones con filtros y paginación por cursor (más recientes primero)")
+    public ResponseEntity<ApiResponse<CursorPageResponse<TransactionResponse>>> findAllByCursor(
+            TransactionFilterRequest filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        Long userId = securityUtils.getCurrentUserId();
+        return ResponseEntity.ok(ApiResponse.ok(
+                transactionService.findAllByCursor(userId, filter, cursor, size, includeTotal)));
+    }
+
+    @GetMapping("/suggestions")
+    @Operation(summary = "Autocompletar descripciones con las más usadas, su categoría e importe habituales")
+    public ResponseEntity<ApiResponse<List<SuggestionResponse>>> suggest(
+            @RequestParam(defaultValue = "") String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        Long userId = securityUtils.getCurrentUserId();
+        return ResponseEntity.ok(ApiResponse.ok(transactionSuggestionService.suggest(userId, prefix, limit)));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Obtener transacción por ID")
     public ResponseEntity<ApiResponse<TransactionResponse>> findById(@PathVariable Long id) {
@@ -77,32 +124,114 @@ public class TransactionController {
         return ResponseEntity.ok(ApiResponse.ok("Transacción eliminada", null));
     }
 
+    @PostMapping("/{id}/restore")
+    @Operation(summary = "Restaurar una transacción eliminada (también si ya se archivó)")
+    public ResponseEntity<ApiResponse<TransactionResponse>> restore(@PathVariable Long id) {
+        Long userId = securityUtils.getCurrentUserId();
+        return ResponseEntity.ok(ApiResponse.ok("Transacción restaurada", transactionService.restore(userId, id)));
+    }
+
     @GetMapping("/export/{budgetId}")
-    @Operation(summary = "Exportar transacciones a CSV")
-    public ResponseEntity<byte[]> exportCsv(@PathVariable Long budgetId) throws IOException {
-        List<Transaction> transactions = transactionService.findByBudgetForExport(budgetId);
-        byte[] csv = csvService.exportTransactions(transactions);
+    @Operation(summary = "Exportar transacciones a CSV (gzip si el cliente lo acepta)")
+    public ResponseEntity<StreamingResponseBody> exportCsv(
+            @PathVariable Long budgetId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        Long userId = securityUtils.getCurrentUserId();
+        transactionService.checkBudgetAccess(userId, budgetId);
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 8192);
+                transactionService.exportCsv(userId, budgetId, compressed);
+                compressed.finish();
+            } else {
+                transactionService.exportCsv(userId, budgetId, out);
+            }
+        };
 
-        return ResponseEntity.ok()
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=transacciones.csv")
-                .contentType(MediaType.parseMediaType("text/csv"))
-                .body(csv);
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8));
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
 
     @PostMapping("/import/{budgetId}")
-    @Operation(summary = "Importar transacciones desde CSV")
-    public ResponseEntity<ApiResponse<Integer>> importCsv(
+    @Operation(summary = "Importar transacciones desde CSV (informe de errores por fila; skipDuplicates omite "
+            + "las filas con la misma fecha, monto y descripción que una transacción existente)")
+    public ResponseEntity<ApiResponse<ImportResultResponse>> importCsv(
+            @PathVariable Long budgetId,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "false") boolean skipDuplicates) throws IOException, CsvValidationException {
+        Long userId = securityUtils.getCurrentUserId();
+        ImportResultResponse result;
+        try (InputStream in = file.getInputStream()) {
+            result = transactionImportService.importCsv(userId, budgetId, in, skipDuplicates);
+        }
+        return ResponseEntity.ok(ApiResponse.ok("Transacciones importadas: " + result.getImported(), result));
+    }
+
+    @PostMapping("/import/{budgetId}/jobs")
+    @Operation(summary = "Importar transacciones desde CSV en segundo plano")
+    public ResponseEntity<ApiResponse<ImportJobResponse>> submitImportJob(
             @PathVariable Long budgetId,
-            @RequestParam("file") MultipartFile file) throws IOException, CsvValidationException {
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "false") boolean skipDuplicates) throws IOException {
+        Long userId = securityUtils.getCurrentUserId();
+        transactionService.checkBudgetAccess(userId, budgetId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(ApiResponse.ok("Importación encolada",
+                importJobService.submit(userId, budgetId, file, skipDuplicates)));
+    }
+
+    @GetMapping("/import/jobs/{jobId}")
+    @Operation(summary = "Consultar el progreso de una importación")
+    public ResponseEntity<ApiResponse<ImportJobResponse>> getImportJob(@PathVariable String jobId) {
+        Long userId = securityUtils.getCurrentUserId();
+        return ResponseEntity.ok(ApiResponse.ok(importJobService.getStatus(userId, jobId)));
+    }
+
+    @DeleteMapping("/import/jobs/{jobId}")
+    @Operation(summary = "Cancelar una importación (los bloques ya confirmados se conservan)")
+    public ResponseEntity<ApiResponse<ImportJobResponse>> cancelImportJob(@PathVariable String jobId) {
         Long userId = securityUtils.getCurrentUserId();
-        List<TransactionRequest> requests = csvService.importTransactions(file.getInputStream(), budgetId);
+        return ResponseEntity.ok(ApiResponse.ok(importJobService.cancel(userId, jobId)));
+    }
 
-        int imported = 0;
-        for (TransactionRequest req : requests) {
-            transactionService.create(userId, req);
-            imported++;
+    // gzip si el cliente lo acepta con q > 0, por nombre o con "*"; "gzip;q=0" lo rechaza (RFC 9110, 12.5.3)
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double wildcard = 0;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].strip().toLowerCase(Locale.ROOT);
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                return quality(parts) > 0;
+            }
+            if (name.equals("*")) {
+                wildcard = quality(parts);
+            }
         }
+        return wildcard > 0;
+    }
 
-        return ResponseEntity.ok(ApiResponse.ok("Transacciones importadas: " + imported, imported));
+    // Sin q vale 1; un q mal formado cuenta como 0 y se responde sin comprimir
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].strip();
+            if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).strip());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
     }
 }
@@ -6,10 +6,12 @@ import com.budget.api.entity.User;
 import com.budget.api.exception.ResourceNotFoundException;
 import com.budget.api.repository.UserRepository;
 import com.budget.api.security.SecurityUtils;
+import com.budget.api.security.UserIdentityCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
@@ -22,6 +24,7 @@ public class UserController {
 
     private final UserRepository userRepository;
     private final SecurityUtils securityUtils;
+    private final UserIdentityCache userIdentityCache;
 
     @GetMapping("/me")
     @Operation(summary = "Obtener perfil del usuario autenticado")
@@ -67,4 +70,23 @@ public class UserController {
 
         return ResponseEntity.ok(ApiResponse.ok("Configuración actualizada", response));
     }
+
+    // Solo con token: sin él la petición se atribuye al usuario por defecto
+    @DeleteMapping("/me")
+    @Operation(summary = "Desactivar la cuenta del usuario autenticado")
+    public ResponseEntity<ApiResponse<Void>> deactivate() {
+        if (!securityUtils.isAuthenticated()) {
+            throw new BadCredentialsException("Se requiere autenticación");
+        }
+        Long userId = securityUtils.getCurrentUserId();
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
+
+        user.setActive(false);
+        userRepository.save(user);
+        // Sus tokens dejan de autenticar aquí en la siguiente petición; en otras instancias, tras el ttl de la caché
+        userIdentityCache.evict(user.getEmail());
+
+        return ResponseEntity.ok(ApiResponse.ok("Cuenta desactivada", null));
+    }
 }
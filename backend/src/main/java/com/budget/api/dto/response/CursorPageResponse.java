@@ -0,0 +1,20 @@
+package com.budget.api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    // Token opaco para pedir la siguiente página; null en la última
+    private String nextCursor;
+    // Solo se calcula si se pide explícitamente (consulta COUNT adicional)
+    private Long totalElements;
+}
@@ -0,0 +1,27 @@
+package com.budget.api.dto.response;
+
+import com.budget.api.enums.ImportJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class ImportJobResponse {
+    private String id;
+    private Long budgetId;
+    private ImportJobStatus status;
+    private long rowsParsed;
+    private long rowsInserted;
+    private long rowsRejected;
+    private double rowsPerSecond;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String message;
+    // Informe final (errores por fila); solo cuando el job terminó
+    private ImportResultResponse result;
+}
@@ -0,0 +1,28 @@
+package com.budget.api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class ImportResultResponse {
+    private long imported;
+    private long failed;
+    // Filas omitidas por repetir una transacción existente (solo con skipDuplicates)
+    private long duplicates;
+    private List<RowError> errors;
+    // true si hubo más errores de los que se devuelven
+    private boolean errorsTruncated;
+    private boolean cancelled;
+
+    @Data
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String message;
+    }
+}
@@ -0,0 +1,20 @@
+package com.budget.api.dto.response;
+
+import com.budget.api.enums.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class SuggestionResponse {
+    private String description;
+    private long occurrences;
+    private TransactionType type;
+    private Long categoryId;
+    private String categoryName;
+    private BigDecimal amount;
+}
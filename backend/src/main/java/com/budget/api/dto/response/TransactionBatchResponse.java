@@ -0,0 +1,26 @@
+package com.budget.api.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class TransactionBatchResponse {
+    private int created;
+    private int failed;
+    // Un resultado por elemento, en el mismo orden de la petición
+    private List<ItemResult> results;
+
+    @Data
+    @AllArgsConstructor
+    public static class ItemResult {
+        private int index;
+        private boolean success;
+        private TransactionResponse transaction;
+        private String error;
+    }
+}
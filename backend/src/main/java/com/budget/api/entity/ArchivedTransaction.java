@@ -0,0 +1,69 @@
+package com.budget.api.entity;
+
+import com.budget.api.enums.TransactionType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Transacción eliminada que TransactionArchiveService sacó de la tabla caliente. Conserva el id y
+ * las columnas de transactions, sin claves foráneas, para poder restaurarla tal cual.
+ */
+@Entity
+@Table(name = "transactions_archive", indexes = {
+    @Index(name = "idx_transaction_archive_user", columnList = "user_id"),
+    @Index(name = "idx_transaction_archive_archived", columnList = "archived_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedTransaction {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false, length = 200)
+    private String description;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private TransactionType type;
+
+    @Column(name = "transaction_date", nullable = false)
+    private LocalDate transactionDate;
+
+    @Column(length = 500)
+    private String notes;
+
+    @Column(name = "budget_id", nullable = false)
+    private Long budgetId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Column(name = "content_hash")
+    private Long contentHash;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
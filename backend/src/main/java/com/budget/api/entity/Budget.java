@@ -4,6 +4,7 @@ import com.budget.api.enums.BudgetPeriod;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -43,6 +44,20 @@ public class Budget extends BaseEntity {
     @Builder.Default
     private Boolean active = true;
 
+    // Totales de las transacciones no eliminadas. Solo los modifican los UPDATE atómicos de
+    // BudgetRepository; guardar la entidad nunca los sobrescribe
+    @Column(name = "spent_amount", nullable = false, precision = 15, scale = 2,
+            insertable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private BigDecimal spentAmount = BigDecimal.ZERO;
+
+    @Column(name = "income_amount", nullable = false, precision = 15, scale = 2,
+            insertable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private BigDecimal incomeAmount = BigDecimal.ZERO;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -0,0 +1,32 @@
+package com.budget.api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+// Idempotency-Key ya usada por un usuario y la transacción que creó
+@Entity
+@Table(name = "idempotency_keys",
+       uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_user_key",
+               columnNames = {"user_id", "idempotency_key"}),
+       indexes = @Index(name = "idx_idempotency_created", columnList = "created_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+public class IdempotencyKey extends BaseEntity {
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "idempotency_key", nullable = false)
+    private String key;
+
+    // Huella de la petición original, para rechazar la misma clave con otro contenido
+    @Column(name = "request_hash", nullable = false)
+    private Long requestHash;
+
+    @Column(name = "transaction_id", nullable = false)
+    private Long transactionId;
+}
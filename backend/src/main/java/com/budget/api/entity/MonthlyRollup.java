@@ -0,0 +1,53 @@
+package com.budget.api.entity;
+
+import com.budget.api.enums.ExpenseType;
+import com.budget.api.enums.TransactionType;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Con Flyway (V11) la clave única es un índice sobre COALESCE(category_id, 0): una restricción
+// UNIQUE no impide duplicados sin categoría porque los NULL cuentan como distintos
+@Entity
+@Table(name = "monthly_rollups",
+       uniqueConstraints = @UniqueConstraint(name = "uk_rollup_key",
+               columnNames = {"budget_id", "month_start", "type", "category_id"}),
+       indexes = @Index(name = "idx_rollup_user_month", columnList = "user_id, month_start"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+public class MonthlyRollup extends BaseEntity {
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "budget_id", nullable = false)
+    private Long budgetId;
+
+    @Column(name = "month_start", nullable = false)
+    private LocalDate monthStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private TransactionType type;
+
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "expense_type", length = 20)
+    private ExpenseType expenseType;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    @Builder.Default
+    private BigDecimal amount = BigDecimal.ZERO;
+
+    @Column(name = "transaction_count", nullable = false)
+    @Builder.Default
+    private Long transactionCount = 0L;
+}
@@ -0,0 +1,28 @@
+package com.budget.api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Id de un token (jti) o de una familia de tokens revocado. Se guarda hasta que expira el último
+ * token al que afecta; TokenRevocationService lo mantiene en memoria y usa la tabla para
+ * recuperarlo al arrancar.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = @Index(name = "idx_revoked_token_expires", columnList = "expires_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevokedToken {
+
+    @Id
+    @Column(name = "token_id", length = 64)
+    private String tokenId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -6,13 +6,22 @@ import lombok.*;
 import lombok.experimental.SuperBuilder;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
+// Los mismos índices que crean las migraciones. @Index no expresa el WHERE deleted = false ni el
+// INCLUDE (amount) de los _live de V8: fuera de PostgreSQL quedan como índices completos
 @Entity
 @Table(name = "transactions", indexes = {
     @Index(name = "idx_transaction_date", columnList = "transaction_date"),
-    @Index(name = "idx_transaction_type", columnList = "type"),
-    @Index(name = "idx_transaction_budget", columnList = "budget_id")
+    @Index(name = "idx_transaction_user_date_live", columnList = "user_id, transaction_date, type"),
+    @Index(name = "idx_transaction_budget_type_live", columnList = "budget_id, type"),
+    @Index(name = "idx_transaction_budget_hash", columnList = "budget_id, content_hash")
 })
 @Getter
 @Setter
@@ -41,11 +50,43 @@ public class Transaction extends BaseEntity {
     @Builder.Default
     private Boolean deleted = false;
 
+    // Momento del borrado lógico; TransactionArchiveService archiva las eliminadas hace más de la retención
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "budget_id", nullable = false)
     private Budget budget;
 
+    // Dueño del presupuesto, denormalizado para filtrar por usuario sin unir con budgets
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     private Category category;
+
+    // Huella de (presupuesto, fecha, monto, descripción) para detectar importaciones repetidas
+    @Column(name = "content_hash")
+    private Long contentHash;
+
+    @PrePersist
+    @PreUpdate
+    void updateContentHash() {
+        contentHash = contentHashOf(budget.getId(), transactionDate, amount, description);
+    }
+
+    // Primeros 8 bytes del SHA-256 de "budgetId|yyyy-MM-dd|monto con 2 decimales|descripción";
+    // la migración V6 calcula lo mismo en SQL para las filas existentes
+    public static long contentHashOf(Long budgetId, LocalDate date, BigDecimal amount, String description) {
+        String content = budgetId + "|" + date + "|" + amount.setScale(2, RoundingMode.HALF_UP).toPlainString()
+                + "|" + description;
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
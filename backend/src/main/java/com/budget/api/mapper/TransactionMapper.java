@@ -10,8 +10,11 @@ public interface TransactionMapper {
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "budget", ignore = true)
+    @Mapping(target = "user", ignore = true)
     @Mapping(target = "category", ignore = true)
+    @Mapping(target = "contentHash", ignore = true)
     @Mapping(target = "deleted", constant = "false")
+    @Mapping(target = "deletedAt", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     Transaction toEntity(TransactionRequest request);
@@ -24,8 +27,11 @@ public interface TransactionMapper {
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "budget", ignore = true)
+    @Mapping(target = "user", ignore = true)
     @Mapping(target = "category", ignore = true)
+    @Mapping(target = "contentHash", ignore = true)
     @Mapping(target = "deleted", ignore = true)
+    @Mapping(target = "deletedAt", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     void updateEntity(TransactionRequest request, @MappingTarget Transaction transaction);
@@ -0,0 +1,43 @@
+package com.budget.api.repository;
+
+import com.budget.api.entity.ArchivedTransaction;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ArchivedTransactionRepository extends JpaRepository<ArchivedTransaction, Long> {
+
+    Optional<ArchivedTransaction> findByIdAndUserId(Long id, Long userId);
+
+    // Copia filas de transactions con las mismas columnas; SQL nativo portable entre PostgreSQL y H2
+    @Modifying
+    @Query(value = "INSERT INTO transactions_archive (id, description, amount, type, transaction_date, notes, " +
+                   "budget_id, user_id, category_id, content_hash, created_at, updated_at, deleted_at, archived_at) " +
+                   "SELECT id, description, amount, type, transaction_date, notes, budget_id, user_id, " +
+                   "category_id, content_hash, created_at, updated_at, deleted_at, :archivedAt " +
+                   "FROM transactions WHERE id IN (:ids)", nativeQuery = true)
+    int copyFromTransactions(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    // Devuelve la fila a transactions todavía como eliminada; TransactionService.restore la reactiva
+    @Modifying
+    @Query(value = "INSERT INTO transactions (id, description, amount, type, transaction_date, notes, deleted, " +
+                   "budget_id, user_id, category_id, content_hash, created_at, updated_at, deleted_at) " +
+                   "SELECT id, description, amount, type, transaction_date, notes, true, budget_id, user_id, " +
+                   "category_id, content_hash, created_at, updated_at, deleted_at " +
+                   "FROM transactions_archive WHERE id = :id", nativeQuery = true)
+    int copyToTransactions(@Param("id") Long id);
+
+    @Query("SELECT a.id FROM ArchivedTransaction a WHERE a.archivedAt < :before ORDER BY a.id")
+    List<Long> findIdsArchivedBefore(@Param("before") LocalDateTime before, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM ArchivedTransaction a WHERE a.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
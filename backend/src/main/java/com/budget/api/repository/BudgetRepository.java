@@ -1,13 +1,18 @@
 package com.budget.api.repository;
 
 import com.budget.api.entity.Budget;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +24,27 @@ public interface BudgetRepository extends JpaRepository<Budget, Long> {
 
     Optional<Budget> findByIdAndUserId(Long id, Long userId);
 
+    List<Budget> findByIdInAndUserId(Collection<Long> ids, Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Budget b WHERE b.id = :id")
+    Optional<Budget> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("SELECT b.spentAmount FROM Budget b WHERE b.id = :id")
+    BigDecimal findSpentAmountById(@Param("id") Long id);
+
+    @Query("SELECT b.id, b.spentAmount FROM Budget b WHERE b.id IN :ids")
+    List<Object[]> findSpentAmountsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Budget b SET b.spentAmount = b.spentAmount + :spent, " +
+           "b.incomeAmount = b.incomeAmount + :income WHERE b.id = :id")
+    int addTotals(@Param("id") Long id, @Param("spent") BigDecimal spent, @Param("income") BigDecimal income);
+
+    @Modifying
+    @Query("UPDATE Budget b SET b.spentAmount = :spent, b.incomeAmount = :income WHERE b.id = :id")
+    int setTotals(@Param("id") Long id, @Param("spent") BigDecimal spent, @Param("income") BigDecimal income);
+
     @Query("SELECT b FROM Budget b WHERE b.user.id = :userId AND b.active = true " +
            "AND b.startDate <= :date AND b.endDate >= :date")
     List<Budget> findActiveBudgetsByDate(@Param("userId") Long userId, @Param("date") LocalDate date);
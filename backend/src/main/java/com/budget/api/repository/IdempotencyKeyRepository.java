@@ -0,0 +1,29 @@
+package com.budget.api.repository;
+
+import com.budget.api.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+
+    Optional<IdempotencyKey> findByUserIdAndKey(Long userId, String key);
+
+    @Query("SELECT k.userId, k.key FROM IdempotencyKey k")
+    Stream<Object[]> streamUserIdsAndKeys();
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+
+    // Antes de archivar transacciones: la clave foránea impediría borrarlas de transactions
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.transactionId IN :transactionIds")
+    int deleteByTransactionIdIn(@Param("transactionIds") Collection<Long> transactionIds);
+}
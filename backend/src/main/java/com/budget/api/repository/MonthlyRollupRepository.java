@@ -0,0 +1,47 @@
+package com.budget.api.repository;
+
+import com.budget.api.entity.MonthlyRollup;
+import com.budget.api.enums.ExpenseType;
+import com.budget.api.enums.TransactionType;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface MonthlyRollupRepository extends JpaRepository<MonthlyRollup, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<MonthlyRollup> findByBudgetIdAndMonthStartAndTypeAndCategoryId(Long budgetId,
+                                                                            LocalDate monthStart,
+                                                                            TransactionType type,
+                                                                            Long categoryId);
+
+    List<MonthlyRollup> findByUserId(Long userId);
+
+    @Query("SELECT r.monthStart, r.type, r.expenseType, SUM(r.amount) FROM MonthlyRollup r " +
+           "WHERE r.userId = :userId AND r.monthStart BETWEEN :from AND :to " +
+           "GROUP BY r.monthStart, r.type, r.expenseType")
+    List<Object[]> sumByMonthTypeAndExpenseType(@Param("userId") Long userId,
+                                                @Param("from") LocalDate from,
+                                                @Param("to") LocalDate to);
+
+    @Query("SELECT r.budgetId, r.type, COALESCE(SUM(r.amount), 0) FROM MonthlyRollup r " +
+           "WHERE r.budgetId IN :budgetIds GROUP BY r.budgetId, r.type")
+    List<Object[]> sumByBudgetIdsGroupByType(@Param("budgetIds") Collection<Long> budgetIds);
+
+    @Modifying
+    @Query("UPDATE MonthlyRollup r SET r.expenseType = :expenseType WHERE r.categoryId = :categoryId")
+    int updateExpenseType(@Param("categoryId") Long categoryId,
+                          @Param("expenseType") ExpenseType expenseType);
+
+    @Modifying
+    @Query("DELETE FROM MonthlyRollup r WHERE r.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
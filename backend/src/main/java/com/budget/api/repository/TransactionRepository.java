@@ -3,68 +3,133 @@ package com.budget.api.repository;
 import com.budget.api.entity.Transaction;
 import com.budget.api.enums.ExpenseType;
 import com.budget.api.enums.TransactionType;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long>,
         JpaSpecificationExecutor<Transaction> {
 
-    Page<Transaction> findByBudgetUserIdAndDeletedFalse(Long userId, Pageable pageable);
+    Page<Transaction> findByUserIdAndDeletedFalse(Long userId, Pageable pageable);
 
-    Optional<Transaction> findByIdAndBudgetUserId(Long id, Long userId);
+    Optional<Transaction> findByIdAndUserId(Long id, Long userId);
 
     @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t " +
            "WHERE t.budget.id = :budgetId AND t.type = :type AND t.deleted = false")
     BigDecimal sumByBudgetIdAndType(@Param("budgetId") Long budgetId,
                                      @Param("type") TransactionType type);
 
+    @Query("SELECT t.budget.id, t.type, SUM(t.amount) FROM Transaction t " +
+           "WHERE t.deleted = false GROUP BY t.budget.id, t.type")
+    List<Object[]> sumGroupByBudgetAndType();
+
     @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t " +
-           "WHERE t.budget.user.id = :userId AND t.type = :type AND t.deleted = false " +
+           "WHERE t.user.id = :userId AND t.type = :type AND t.deleted = false " +
            "AND t.transactionDate BETWEEN :start AND :end")
     BigDecimal sumByUserIdAndTypeAndDateRange(@Param("userId") Long userId,
                                               @Param("type") TransactionType type,
                                               @Param("start") LocalDate start,
                                               @Param("end") LocalDate end);
 
-    @Query("SELECT t.category.name, COALESCE(SUM(t.amount), 0) " +
-           "FROM Transaction t WHERE t.budget.user.id = :userId " +
-           "AND t.type = 'EXPENSE' AND t.deleted = false " +
-           "AND t.transactionDate BETWEEN :start AND :end " +
-           "GROUP BY t.category.name")
-    List<Object[]> sumExpensesByCategory(@Param("userId") Long userId,
-                                         @Param("start") LocalDate start,
-                                         @Param("end") LocalDate end);
-
-    @Query("SELECT t.category.expenseType, COALESCE(SUM(t.amount), 0) " +
-           "FROM Transaction t WHERE t.budget.user.id = :userId " +
-           "AND t.type = 'EXPENSE' AND t.deleted = false " +
-           "AND t.transactionDate BETWEEN :start AND :end " +
-           "GROUP BY t.category.expenseType")
-    List<Object[]> sumExpensesByExpenseType(@Param("userId") Long userId,
+    @Query("SELECT t.transactionDate, t.type, c.name, c.expenseType, COALESCE(SUM(t.amount), 0) " +
+           "FROM Transaction t LEFT JOIN t.category c WHERE t.user.id = :userId " +
+           "AND t.deleted = false AND t.transactionDate BETWEEN :start AND :end " +
+           "GROUP BY t.transactionDate, t.type, c.name, c.expenseType")
+    List<Object[]> sumByDateTypeAndCategory(@Param("userId") Long userId,
                                             @Param("start") LocalDate start,
                                             @Param("end") LocalDate end);
 
-    @Query("SELECT t.transactionDate, COALESCE(SUM(CASE WHEN t.type = 'INCOME' THEN t.amount ELSE -t.amount END), 0) " +
-           "FROM Transaction t WHERE t.budget.user.id = :userId AND t.deleted = false " +
-           "AND t.transactionDate BETWEEN :start AND :end " +
-           "GROUP BY t.transactionDate ORDER BY t.transactionDate")
-    List<Object[]> dailyBalanceChange(@Param("userId") Long userId,
-                                       @Param("start") LocalDate start,
-                                       @Param("end") LocalDate end);
+    @Query("SELECT t.user.id, t.budget.id, YEAR(t.transactionDate), MONTH(t.transactionDate), t.type, " +
+           "c.id, c.expenseType, SUM(t.amount), COUNT(t) " +
+           "FROM Transaction t LEFT JOIN t.category c " +
+           "WHERE t.deleted = false AND (:userId IS NULL OR t.user.id = :userId) " +
+           "GROUP BY t.user.id, t.budget.id, YEAR(t.transactionDate), MONTH(t.transactionDate), t.type, " +
+           "c.id, c.expenseType")
+    List<Object[]> aggregateMonthlyRollups(@Param("userId") Long userId);
 
     @Query("SELECT COUNT(t) FROM Transaction t " +
-           "WHERE t.budget.user.id = :userId AND t.type = 'EXPENSE' AND t.deleted = false " +
+           "WHERE t.user.id = :userId AND t.type = 'EXPENSE' AND t.deleted = false " +
            "AND t.transactionDate >= :since")
     long countExpensesSince(@Param("userId") Long userId, @Param("since") LocalDate since);
 
-    List<Transaction> findByBudgetIdAndDeletedFalseOrderByTransactionDateDesc(Long budgetId);
+    long countByBudgetIdAndDeletedFalse(Long budgetId);
+
+    // Bloquea la fila viva para cambiarla o eliminarla: dos escrituras simultáneas sobre la misma
+    // transacción se ordenan y la segunda ve el resultado de la primera, así que los contadores y
+    // los rollups no descuentan dos veces el mismo monto
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Transaction> findByIdAndUserIdAndDeletedFalse(Long id, Long userId);
+
+    // Bloquea la fila para que el archivado no la mueva mientras se restaura
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Transaction> findByIdAndUserIdAndDeletedTrue(Long id, Long userId);
+
+    // Eliminadas antes de la fecha, para archivarlas por lotes. Se saltan las filas bloqueadas por
+    // una restauración en curso (SKIP LOCKED donde la base lo admite)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT t.id FROM Transaction t WHERE t.deleted = true AND t.deletedAt < :before ORDER BY t.id")
+    List<Long> findIdsDeletedBefore(@Param("before") LocalDateTime before, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM Transaction t WHERE t.id IN :ids AND t.deleted = true")
+    int deleteDeletedByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Historial de un usuario agrupado para las sugerencias de descripción: una fila por
+    // combinación de descripción, tipo, categoría e importe
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query("SELECT t.description, t.type, c.id, c.name, t.amount, COUNT(t), MAX(t.transactionDate) " +
+           "FROM Transaction t LEFT JOIN t.category c " +
+           "WHERE t.user.id = :userId AND t.deleted = false " +
+           "GROUP BY t.description, t.type, c.id, c.name, t.amount")
+    Stream<Object[]> streamDescriptionUsage(@Param("userId") Long userId);
+
+    // Descripciones de un usuario para el índice de búsqueda en memoria
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query("SELECT t.id, t.description FROM Transaction t WHERE t.user.id = :userId AND t.deleted = false")
+    Stream<Object[]> streamIdsAndDescriptions(@Param("userId") Long userId);
+
+    // Huellas de un presupuesto para el filtro de Bloom de la importación sin duplicados
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query("SELECT t.contentHash FROM Transaction t " +
+           "WHERE t.budget.id = :budgetId AND t.deleted = false AND t.contentHash IS NOT NULL")
+    Stream<Long> streamContentHashes(@Param("budgetId") Long budgetId);
+
+    @Query("SELECT COUNT(t) > 0 FROM Transaction t " +
+           "WHERE t.budget.id = :budgetId AND t.contentHash = :hash AND t.deleted = false " +
+           "AND t.transactionDate = :date AND t.amount = :amount AND t.description = :description")
+    boolean existsByContent(@Param("budgetId") Long budgetId,
+                            @Param("hash") Long hash,
+                            @Param("date") LocalDate date,
+                            @Param("amount") BigDecimal amount,
+                            @Param("description") String description);
+
+    // Exportación: se recorre con un cursor del driver en bloques de fetch size, sin cargar todo en memoria
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Transaction t LEFT JOIN FETCH t.category " +
+           "WHERE t.budget.id = :budgetId AND t.user.id = :userId AND t.deleted = false " +
+           "ORDER BY t.transactionDate DESC, t.id DESC")
+    Stream<Transaction> streamForExport(@Param("userId") Long userId, @Param("budgetId") Long budgetId);
 }
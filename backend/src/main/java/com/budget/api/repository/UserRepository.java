@@ -2,10 +2,15 @@ package com.budget.api.repository;
 
 import com.budget.api.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    @Query("SELECT u.id FROM User u WHERE u.email = :email AND u.active = true")
+    Optional<Long> findActiveIdByEmail(@Param("email") String email);
 }
@@ -0,0 +1,8 @@
+package com.budget.api.security;
+
+/**
+ * Principal de las peticiones autenticadas con JWT: lleva el id para que los controladores no
+ * tengan que buscar al usuario por email.
+ */
+public record AuthenticatedUser(Long id, String email) {
+}
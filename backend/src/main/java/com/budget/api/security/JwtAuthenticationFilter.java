@@ -1,29 +1,37 @@
 package com.budget.api.security;
 
+import com.budget.api.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.Optional;
 
 @Component
+@Order(JwtAuthenticationFilter.ORDER)
 @RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // Después de la cadena de Spring Security y antes de RateLimitFilter, que necesita el usuario
+    public static final int ORDER = 0;
+
     private final JwtTokenProvider jwtTokenProvider;
-    private final UserDetailsService userDetailsService;
+    private final UserIdentityCache userIdentityCache;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -31,19 +39,42 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
         String token = extractToken(request);
 
-        if (StringUtils.hasText(token) && jwtTokenProvider.validateToken(token)) {
-            String email = jwtTokenProvider.getEmailFromToken(token);
-            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-
-            UsernamePasswordAuthenticationToken authentication =
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+        if (StringUtils.hasText(token)) {
+            jwtTokenProvider.parseToken(token)
+                    .flatMap(this::resolve)
+                    .ifPresent(principal -> {
+                        UsernamePasswordAuthenticationToken authentication =
+                                new UsernamePasswordAuthenticationToken(principal, null, Collections.emptyList());
+                        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                    });
         }
 
         filterChain.doFilter(request, response);
     }
 
+    // Solo access tokens no revocados (ni ellos ni su familia). El usuario tiene que seguir activo;
+    // si el token trae id, debe ser el de ese email
+    private Optional<AuthenticatedUser> resolve(Claims claims) {
+        if (JwtTokenProvider.REFRESH_TYPE.equals(claims.get(JwtTokenProvider.TYPE_CLAIM))
+                || tokenRevocationService.isRevoked(claims.getId())
+                || tokenRevocationService.isRevoked(claims.get(JwtTokenProvider.FAMILY_CLAIM, String.class))) {
+            return Optional.empty();
+        }
+        String email = claims.getSubject();
+        Optional<Long> id = userIdentityCache.findActiveUserId(email);
+        if (id.isEmpty()) {
+            log.warn("Token de un usuario inexistente o desactivado: {}", email);
+            return Optional.empty();
+        }
+        if (claims.get(JwtTokenProvider.USER_ID_CLAIM) instanceof Number claimed
+                && claimed.longValue() != id.get()) {
+            log.warn("El id del token no corresponde al usuario {}", email);
+            return Optional.empty();
+        }
+        return Optional.of(new AuthenticatedUser(id.get(), email));
+    }
+
     private String extractToken(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -1,5 +1,6 @@
 package com.budget.api.security;
 
+import com.budget.api.cache.BoundedCache;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
@@ -7,61 +8,86 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.time.Duration;
 import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
 
 @Component
 @Slf4j
 public class JwtTokenProvider {
 
+    // Id del usuario, para resolver el principal sin buscarlo por email
+    public static final String USER_ID_CLAIM = "uid";
+    // Familia: access y refresh tokens emitidos desde un mismo login, también tras rotar
+    public static final String FAMILY_CLAIM = "fam";
+    public static final String TYPE_CLAIM = "typ";
+    public static final String ACCESS_TYPE = "access";
+    public static final String REFRESH_TYPE = "refresh";
+
     private final SecretKey key;
     private final long expirationMs;
     private final long refreshExpirationMs;
+    // Inmutable y thread-safe: se construye una vez
+    private final JwtParser parser;
+    // Tokens ya verificados: el mismo token en peticiones seguidas no vuelve a calcular el HMAC
+    private final BoundedCache<String, Claims> verified;
 
     public JwtTokenProvider(
             @Value("${app.jwt.secret}") String secret,
             @Value("${app.jwt.expiration-ms}") long expirationMs,
-            @Value("${app.jwt.refresh-expiration-ms}") long refreshExpirationMs) {
+            @Value("${app.jwt.refresh-expiration-ms}") long refreshExpirationMs,
+            @Value("${app.jwt.verified-cache.max-size:10000}") int verifiedCacheSize,
+            @Value("${app.jwt.verified-cache.ttl:1m}") Duration verifiedCacheTtl) {
         this.key = Keys.hmacShaKeyFor(Base64.getDecoder().decode(secret));
         this.expirationMs = expirationMs;
         this.refreshExpirationMs = refreshExpirationMs;
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.verified = new BoundedCache<>(verifiedCacheSize, verifiedCacheTtl);
     }
 
-    public String generateToken(String email) {
-        return buildToken(email, expirationMs);
+    public String generateToken(Long userId, String email, String family) {
+        return buildToken(userId, email, family, ACCESS_TYPE, expirationMs);
     }
 
-    public String generateRefreshToken(String email) {
-        return buildToken(email, refreshExpirationMs);
+    public String generateRefreshToken(Long userId, String email, String family) {
+        return buildToken(userId, email, family, REFRESH_TYPE, refreshExpirationMs);
     }
 
     public long getExpirationMs() {
         return expirationMs;
     }
 
-    public String getEmailFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+    public long getRefreshExpirationMs() {
+        return refreshExpirationMs;
     }
 
-    public boolean validateToken(String token) {
+    // Valida y lee el token en una sola pasada; vacío si no es válido. Un token de la caché se
+    // vuelve a comprobar solo contra su expiración
+    public Optional<Claims> parseToken(String token) {
+        Claims cached = verified.get(token);
+        if (cached != null) {
+            return cached.getExpiration().after(new Date()) ? Optional.of(cached) : Optional.empty();
+        }
         try {
-            Jwts.parser().verifyWith(key).build().parseSignedClaims(token);
-            return true;
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            verified.put(token, claims);
+            return Optional.of(claims);
         } catch (JwtException | IllegalArgumentException e) {
             log.warn("Token JWT inválido: {}", e.getMessage());
-            return false;
+            return Optional.empty();
         }
     }
 
-    private String buildToken(String subject, long expiration) {
+    private String buildToken(Long userId, String subject, String family, String type, long expiration) {
         Date now = new Date();
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(subject)
+                .claim(USER_ID_CLAIM, userId)
+                .claim(FAMILY_CLAIM, family)
+                .claim(TYPE_CLAIM, type)
                 .issuedAt(now)
                 .expiration(new Date(now.getTime() + expiration))
                 .signWith(key)
@@ -0,0 +1,63 @@
+package com.budget.api.security;
+
+import com.budget.api.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * Limita los intentos de login y registro por IP y de login por cuenta con token buckets
+ * ({@link TokenBuckets}). Se comprueba antes de calcular ningún hash: un intento rechazado no
+ * gasta CPU.
+ */
+@Component
+public class LoginThrottle {
+
+    private final TokenBuckets ipBuckets;
+    private final TokenBuckets accountBuckets;
+
+    @Autowired
+    public LoginThrottle(@Value("${app.security.login-throttle.ip-per-minute:20}") int ipPerMinute,
+                         @Value("${app.security.login-throttle.ip-burst:20}") int ipBurst,
+                         @Value("${app.security.login-throttle.account-per-minute:5}") int accountPerMinute,
+                         @Value("${app.security.login-throttle.account-burst:5}") int accountBurst,
+                         @Value("${app.security.login-throttle.max-buckets:100000}") int maxBuckets) {
+        this(ipPerMinute, ipBurst, accountPerMinute, accountBurst, maxBuckets, System::nanoTime);
+    }
+
+    // maxBuckets acota cada mapa por separado: un barrido de IPs o de cuentas no crece sin límite
+    LoginThrottle(int ipPerMinute, int ipBurst, int accountPerMinute, int accountBurst, int maxBuckets,
+                  LongSupplier clock) {
+        this.ipBuckets = new TokenBuckets(ipPerMinute, ipBurst, maxBuckets, clock);
+        this.accountBuckets = new TokenBuckets(accountPerMinute, accountBurst, maxBuckets, clock);
+    }
+
+    public void checkLogin(String clientIp, String email) {
+        checkIp(clientIp);
+        acquire(accountBuckets, email.toLowerCase(Locale.ROOT),
+                "Demasiados intentos para esta cuenta, intenta de nuevo en %d s");
+    }
+
+    public void checkIp(String clientIp) {
+        acquire(ipBuckets, clientIp, "Demasiados intentos desde esta dirección, intenta de nuevo en %d s");
+    }
+
+    @Scheduled(fixedDelayString =
+            "#{T(com.budget.api.config.SchedulingConfig).millis('${app.security.login-throttle.purge-interval:1m}')}")
+    public void purgeIdle() {
+        ipBuckets.purgeIdle();
+        accountBuckets.purgeIdle();
+    }
+
+    private void acquire(TokenBuckets buckets, String key, String message) {
+        long wait = buckets.tryAcquire(key, 1);
+        if (wait > 0) {
+            long seconds = TokenBuckets.retryAfterSeconds(wait);
+            throw new TooManyRequestsException(String.format(message, seconds), seconds);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.budget.api.security;
+
+import com.budget.api.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * Limita las peticiones por usuario con un token bucket ({@link TokenBuckets}) de
+ * {@code units-per-minute} unidades. Cada petición cuesta según la primera regla de {@code costs}
+ * que coincida ("MÉTODO patrón=coste", con * para cualquier método) o {@code default-cost}; el
+ * dashboard, la exportación y la importación cuestan mucho más que el CRUD. El bucket es el del
+ * usuario resuelto ({@link SecurityUtils}); sin token todas las peticiones son del usuario por
+ * defecto, así que además se separan por la IP del cliente. Va después de JwtAuthenticationFilter
+ * para conocer el usuario.
+ */
+@Component
+@Order(JwtAuthenticationFilter.ORDER + 1)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private record Rule(String method, String pattern, int cost, Counter throttled) {
+    }
+
+    private static final String DEFAULT_COSTS = "* /actuator/**=0, GET /reports/dashboard=10, "
+            + "GET /transactions/export/**=20, POST /transactions/import/**=30";
+    private static final AntPathMatcher MATCHER = new AntPathMatcher();
+
+    private final HandlerExceptionResolver exceptionResolver;
+    private final SecurityUtils securityUtils;
+    private final boolean enabled;
+    private final List<Rule> rules;
+    private final Rule defaultRule;
+    private final TokenBuckets buckets;
+
+    @Autowired
+    public RateLimitFilter(MeterRegistry meterRegistry,
+                           @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver,
+                           SecurityUtils securityUtils,
+                           @Value("${app.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${app.rate-limit.units-per-minute:300}") int unitsPerMinute,
+                           @Value("${app.rate-limit.burst:100}") int burst,
+                           @Value("${app.rate-limit.default-cost:1}") int defaultCost,
+                           @Value("${app.rate-limit.costs:" + DEFAULT_COSTS + "}") List<String> costs,
+                           @Value("${app.rate-limit.max-buckets:100000}") int maxBuckets) {
+        this(meterRegistry, exceptionResolver, securityUtils, enabled, unitsPerMinute, burst, defaultCost, costs, maxBuckets,
+                System::nanoTime);
+    }
+
+    RateLimitFilter(MeterRegistry meterRegistry, HandlerExceptionResolver exceptionResolver,
+                    SecurityUtils securityUtils, boolean enabled, int unitsPerMinute, int burst, int defaultCost,
+                    List<String> costs, int maxBuckets, LongSupplier clock) {
+        this.exceptionResolver = exceptionResolver;
+        this.securityUtils = securityUtils;
+        this.enabled = enabled;
+        this.rules = costs.stream()
+                .filter(cost -> !cost.isBlank())
+                .map(cost -> parseRule(cost, meterRegistry))
+                .toList();
+        this.defaultRule = new Rule("*", "default", defaultCost, throttledCounter("default", meterRegistry));
+        this.buckets = new TokenBuckets(unitsPerMinute, burst, maxBuckets, clock);
+        Gauge.builder("ratelimit.buckets", buckets, TokenBuckets::size).register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Rule rule = match(request);
+        if (rule.cost() > 0) {
+            long wait = buckets.tryAcquire(clientKey(request), rule.cost());
+            if (wait > 0) {
+                rule.throttled().increment();
+                long seconds = TokenBuckets.retryAfterSeconds(wait);
+                // Mismo formato de 429 que el resto de la API (GlobalExceptionHandler)
+                exceptionResolver.resolveException(request, response, null, new TooManyRequestsException(
+                        "Demasiadas solicitudes, intenta de nuevo en " + seconds + " s", seconds));
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    @Scheduled(fixedDelayString =
+            "#{T(com.budget.api.config.SchedulingConfig).millis('${app.rate-limit.purge-interval:1m}')}")
+    public void purgeIdle() {
+        buckets.purgeIdle();
+    }
+
+    private Rule match(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Rule rule : rules) {
+            if (("*".equals(rule.method()) || rule.method().equalsIgnoreCase(request.getMethod()))
+                    && MATCHER.match(rule.pattern(), path)) {
+                return rule;
+            }
+        }
+        return defaultRule;
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String key = "user:" + securityUtils.getCurrentUserId();
+        return securityUtils.isAuthenticated() ? key : key + "@" + request.getRemoteAddr();
+    }
+
+    private static Rule parseRule(String definition, MeterRegistry meterRegistry) {
+        String[] parts = definition.trim().split("\\s+|=");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Regla de app.rate-limit.costs inválida: " + definition);
+        }
+        String endpoint = parts[0] + " " + parts[1];
+        return new Rule(parts[0], parts[1], Integer.parseInt(parts[2]), throttledCounter(endpoint, meterRegistry));
+    }
+
+    private static Counter throttledCounter(String endpoint, MeterRegistry meterRegistry) {
+        return Counter.builder("ratelimit.throttled")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+    }
+}
@@ -1,25 +1,41 @@
 package com.budget.api.security;
 
-import com.budget.api.entity.User;
-import com.budget.api.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
 @Component
 @RequiredArgsConstructor
 public class SecurityUtils {
 
-    private final UserRepository userRepository;
+    private final UserIdentityCache userIdentityCache;
 
     private static final String DEFAULT_EMAIL = "default@budget.app";
 
+    // Sin token se usa el usuario por defecto; ambos casos se resuelven sin consultar la base
     public Long getCurrentUserId() {
-        return userRepository.findByEmail(DEFAULT_EMAIL)
-                .map(User::getId)
-                .orElse(1l);
+        AuthenticatedUser principal = currentPrincipal();
+        if (principal != null) {
+            return principal.id();
+        }
+        return userIdentityCache.findActiveUserId(DEFAULT_EMAIL).orElse(1L);
     }
 
     public String getCurrentUserEmail() {
-        return DEFAULT_EMAIL;
+        AuthenticatedUser principal = currentPrincipal();
+        return principal != null ? principal.email() : DEFAULT_EMAIL;
+    }
+
+    // Con token válido; sin él las peticiones se atribuyen al usuario por defecto
+    public boolean isAuthenticated() {
+        return currentPrincipal() != null;
+    }
+
+    private AuthenticatedUser currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser principal
+                ? principal
+                : null;
     }
 }
@@ -0,0 +1,92 @@
+package com.budget.api.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets por clave con GCRA: cada bucket es un único AtomicLong (el instante teórico en que
+ * volverá a estar lleno) que se actualiza con CAS, sin locks. Un bucket lleno equivale a no tener
+ * bucket, así que los inactivos se descartan y la memoria queda acotada por {@code maxKeys}.
+ */
+class TokenBuckets {
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final long interval;
+    private final long burst;
+    private final int maxKeys;
+    private final LongSupplier clock;
+
+    TokenBuckets(int perMinute, int burst, int maxKeys, LongSupplier clock) {
+        this.interval = TimeUnit.MINUTES.toNanos(1) / perMinute;
+        this.burst = burst;
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+    }
+
+    /**
+     * Consume {@code cost} tokens del bucket de {@code key}. Devuelve 0 si los consumió o los
+     * nanosegundos que faltan para poder hacerlo. Un coste mayor que la ráfaga cuenta como la ráfaga.
+     */
+    long tryAcquire(String key, long cost) {
+        long now = clock.getAsLong();
+        AtomicLong fullAt = bucket(key, now);
+        long increment = Math.min(cost, burst) * interval;
+        while (true) {
+            long current = fullAt.get();
+            // Sin tokens suficientes: fullAt quedaría más de burst intervalos en el futuro
+            long next = Math.max(current, now) + increment;
+            long wait = next - now - burst * interval;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Redondea hacia arriba: un Retry-After corto haría que el cliente reintente antes de tiempo
+    static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    void purgeIdle() {
+        long now = clock.getAsLong();
+        buckets.values().removeIf(fullAt -> fullAt.get() - now <= 0);
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    // Con el máximo de claves alcanzado se purga antes de crear otra; si siguen todas activas se
+    // descarta la más cercana a llenarse, la que menos límite pierde al empezar de cero
+    private AtomicLong bucket(String key, long now) {
+        AtomicLong fullAt = buckets.get(key);
+        if (fullAt != null) {
+            return fullAt;
+        }
+        if (buckets.size() >= maxKeys) {
+            purgeIdle();
+            if (buckets.size() >= maxKeys) {
+                evictOldest();
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+    }
+
+    private void evictOldest() {
+        Map.Entry<String, AtomicLong> oldest = null;
+        for (Map.Entry<String, AtomicLong> entry : buckets.entrySet()) {
+            if (oldest == null || entry.getValue().get() - oldest.getValue().get() < 0) {
+                oldest = entry;
+            }
+        }
+        if (oldest != null) {
+            buckets.remove(oldest.getKey(), oldest.getValue());
+        }
+    }
+}
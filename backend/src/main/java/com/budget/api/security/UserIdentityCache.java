@@ -0,0 +1,42 @@
+package com.budget.api.security;
+
+import com.budget.api.cache.BoundedCache;
+import com.budget.api.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Email → id de los usuarios activos. Resuelve el principal de cada petición sin consultar la
+ * base; solo se guardan usuarios activos, así que al desactivar uno (UserController) basta con
+ * {@link #evict}. El tiempo de vida acota cuánto tarda otra instancia en enterarse.
+ */
+@Component
+public class UserIdentityCache {
+
+    private final UserRepository userRepository;
+    private final BoundedCache<String, Long> ids;
+
+    public UserIdentityCache(UserRepository userRepository,
+                             @Value("${app.security.user-cache.max-size:10000}") int maxSize,
+                             @Value("${app.security.user-cache.ttl:10m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.ids = new BoundedCache<>(maxSize, ttl);
+    }
+
+    public Optional<Long> findActiveUserId(String email) {
+        Long id = ids.get(email);
+        if (id != null) {
+            return Optional.of(id);
+        }
+        Optional<Long> found = userRepository.findActiveIdByEmail(email);
+        found.ifPresent(value -> ids.put(email, value));
+        return found;
+    }
+
+    public void evict(String email) {
+        ids.invalidateIf(email::equals);
+    }
+}
@@ -1,6 +1,7 @@
 package com.budget.api.service;
 
 import com.budget.api.dto.request.LoginRequest;
+import com.budget.api.dto.request.RefreshTokenRequest;
 import com.budget.api.dto.request.RegisterRequest;
 import com.budget.api.dto.response.AuthResponse;
 import com.budget.api.dto.response.UserResponse;
@@ -8,15 +9,23 @@ import com.budget.api.entity.User;
 import com.budget.api.exception.BadRequestException;
 import com.budget.api.repository.UserRepository;
 import com.budget.api.security.JwtTokenProvider;
+import com.budget.api.security.LoginThrottle;
+import com.budget.api.security.UserIdentityCache;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -26,9 +35,13 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider jwtTokenProvider;
     private final AuthenticationManager authenticationManager;
+    private final LoginThrottle loginThrottle;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserIdentityCache userIdentityCache;
 
     @Transactional
-    public AuthResponse register(RegisterRequest request) {
+    public AuthResponse register(RegisterRequest request, String clientIp) {
+        loginThrottle.checkIp(clientIp);
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new BadRequestException("El email ya está registrado");
         }
@@ -44,10 +57,11 @@ public class AuthService {
         user = userRepository.save(user);
         log.info("Usuario registrado: {}", user.getEmail());
 
-        return buildAuthResponse(user);
+        return buildAuthResponse(user, newFamily());
     }
 
-    public AuthResponse login(LoginRequest request) {
+    public AuthResponse login(LoginRequest request, String clientIp) {
+        loginThrottle.checkLogin(clientIp, request.getEmail());
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
         );
@@ -56,12 +70,61 @@ public class AuthService {
                 .orElseThrow(() -> new BadRequestException("Credenciales inválidas"));
 
         log.info("Login exitoso: {}", user.getEmail());
-        return buildAuthResponse(user);
+        return buildAuthResponse(user, newFamily());
+    }
+
+    // Rotación: cada refresh token sirve una sola vez. Presentar uno ya usado indica que se filtró y
+    // revoca toda su familia, incluidos los access tokens emitidos con ella
+    public AuthResponse refresh(RefreshTokenRequest request, String clientIp) {
+        loginThrottle.checkIp(clientIp);
+        Claims claims = refreshClaims(request.getRefreshToken());
+        String family = claims.get(JwtTokenProvider.FAMILY_CLAIM, String.class);
+        if (tokenRevocationService.isRevoked(family)) {
+            throw new BadCredentialsException("Sesión revocada");
+        }
+        if (!tokenRevocationService.revoke(claims.getId(), toLocalDateTime(claims))) {
+            tokenRevocationService.revoke(family, familyExpiry());
+            log.warn("Refresh token reutilizado, sesión revocada: {}", claims.getSubject());
+            throw new BadCredentialsException("Refresh token ya usado");
+        }
+
+        Long userId = userIdentityCache.findActiveUserId(claims.getSubject())
+                .orElseThrow(() -> new BadCredentialsException("Usuario desactivado"));
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new BadCredentialsException("Usuario no encontrado"));
+        return buildAuthResponse(user, family);
+    }
+
+    public void logout(RefreshTokenRequest request) {
+        Claims claims = refreshClaims(request.getRefreshToken());
+        tokenRevocationService.revoke(claims.get(JwtTokenProvider.FAMILY_CLAIM, String.class), familyExpiry());
+        log.info("Sesión cerrada: {}", claims.getSubject());
+    }
+
+    private Claims refreshClaims(String token) {
+        return jwtTokenProvider.parseToken(token)
+                .filter(claims -> JwtTokenProvider.REFRESH_TYPE.equals(claims.get(JwtTokenProvider.TYPE_CLAIM))
+                        && claims.getId() != null
+                        && claims.get(JwtTokenProvider.FAMILY_CLAIM) != null)
+                .orElseThrow(() -> new BadCredentialsException("Refresh token inválido"));
+    }
+
+    // Ningún token de la familia vive más que un refresh token emitido ahora
+    private LocalDateTime familyExpiry() {
+        return LocalDateTime.now().plusNanos(jwtTokenProvider.getRefreshExpirationMs() * 1_000_000);
+    }
+
+    private static LocalDateTime toLocalDateTime(Claims claims) {
+        return LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault());
+    }
+
+    private static String newFamily() {
+        return UUID.randomUUID().toString();
     }
 
-    private AuthResponse buildAuthResponse(User user) {
-        String accessToken = jwtTokenProvider.generateToken(user.getEmail());
-        String refreshToken = jwtTokenProvider.generateRefreshToken(user.getEmail());
+    private AuthResponse buildAuthResponse(User user, String family) {
+        String accessToken = jwtTokenProvider.generateToken(user.getId(), user.getEmail(), family);
+        String refreshToken = jwtTokenProvider.generateRefreshToken(user.getId(), user.getEmail(), family);
 
         return AuthResponse.builder()
                 .accessToken(accessToken)
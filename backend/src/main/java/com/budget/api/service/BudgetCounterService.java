@@ -0,0 +1,107 @@
+package com.budget.api.service;
+
+import com.budget.api.entity.Budget;
+import com.budget.api.enums.TransactionType;
+import com.budget.api.repository.BudgetRepository;
+import com.budget.api.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Verificación y reparación de los contadores spent_amount / income_amount de cada presupuesto
+ * frente a las sumas de sus transacciones no eliminadas.
+ */
+@Service
+@Slf4j
+public class BudgetCounterService {
+
+    private final BudgetRepository budgetRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BudgetReservations budgetReservations;
+    private final boolean scheduledEnabled;
+
+    public BudgetCounterService(BudgetRepository budgetRepository,
+                                TransactionRepository transactionRepository,
+                                TransactionTemplate transactionTemplate,
+                                BudgetReservations budgetReservations,
+                                @Value("${app.budgets.reconcile.enabled:true}") boolean scheduledEnabled) {
+        this.budgetRepository = budgetRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.budgetReservations = budgetReservations;
+        this.scheduledEnabled = scheduledEnabled;
+    }
+
+    // Devuelve las diferencias encontradas; vacía si todos los contadores cuadran
+    public List<String> verify() {
+        return new ArrayList<>(findMismatches().values());
+    }
+
+    // Recalcula, con el presupuesto bloqueado, los contadores que no cuadran. Las diferencias
+    // detectadas por escrituras concurrentes con la verificación se resuelven al recalcular
+    public int reconcile() {
+        Map<Long, String> mismatches = findMismatches();
+        mismatches.forEach((budgetId, mismatch) -> {
+            log.warn("Reparando contadores: {}", mismatch);
+            transactionTemplate.executeWithoutResult(status -> {
+                if (budgetRepository.findByIdForUpdate(budgetId).isPresent()) {
+                    budgetRepository.setTotals(budgetId,
+                            transactionRepository.sumByBudgetIdAndType(budgetId, TransactionType.EXPENSE),
+                            transactionRepository.sumByBudgetIdAndType(budgetId, TransactionType.INCOME));
+                }
+            });
+        });
+        if (!mismatches.isEmpty()) {
+            budgetReservations.refresh();
+        }
+        return mismatches.size();
+    }
+
+    @Scheduled(cron = "${app.budgets.reconcile.cron:0 30 3 * * *}")
+    public void scheduledReconcile() {
+        if (!scheduledEnabled) {
+            return;
+        }
+        int repaired = reconcile();
+        if (repaired == 0) {
+            log.info("Contadores de presupuestos consistentes con la tabla de transacciones");
+        } else {
+            log.warn("Contadores de presupuestos reparados: {}", repaired);
+        }
+    }
+
+    private Map<Long, String> findMismatches() {
+        return transactionTemplate.execute(status -> {
+            Map<Long, BigDecimal[]> expected = new HashMap<>();
+            for (Object[] row : transactionRepository.sumGroupByBudgetAndType()) {
+                BigDecimal[] totals = expected.computeIfAbsent((Long) row[0],
+                        id -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+                totals[row[1] == TransactionType.EXPENSE ? 0 : 1] = (BigDecimal) row[2];
+            }
+
+            Map<Long, String> mismatches = new LinkedHashMap<>();
+            for (Budget budget : budgetRepository.findAll()) {
+                BigDecimal[] totals = expected.getOrDefault(budget.getId(),
+                        new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+                if (totals[0].compareTo(budget.getSpentAmount()) != 0
+                        || totals[1].compareTo(budget.getIncomeAmount()) != 0) {
+                    mismatches.put(budget.getId(), "Presupuesto " + budget.getId() + ": esperado gasto "
+                            + totals[0] + " / ingreso " + totals[1] + ", actual " + budget.getSpentAmount()
+                            + " / " + budget.getIncomeAmount());
+                }
+            }
+            return mismatches;
+        });
+    }
+}
@@ -0,0 +1,247 @@
+package com.budget.api.service;
+
+import com.budget.api.repository.BudgetRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gasto de cada presupuesto en memoria, para comprobar el límite sin bloquear la fila del
+ * presupuesto. Cada escritura reserva su importe dentro de la transacción; al confirmarse pasa al
+ * gasto confirmado y al deshacerse se libera. Los presupuestos se reparten entre un número fijo de
+ * locks (striping), así que escrituras sobre presupuestos distintos rara vez compiten.
+ *
+ * <p>Cada presupuesto se carga de spent_amount en su primer uso y se vuelve a sincronizar
+ * periódicamente cuando no tiene escrituras en curso. Solo es correcto si todas las escrituras de
+ * gasto pasan por aquí y el backend corre en una sola instancia.
+ */
+@Service
+@Slf4j
+public class BudgetReservations {
+
+    public record Outcome(boolean reserved, BigDecimal spent) {
+    }
+
+    // Estado de un presupuesto; solo se lee y modifica con su lock tomado
+    private static final class Account {
+        private BigDecimal committed;
+        private BigDecimal reserved = BigDecimal.ZERO;
+        private int pending;
+        private long version;
+    }
+
+    private final BudgetRepository budgetRepository;
+    private final ReentrantLock[] stripes;
+    private final Map<Long, Account> accounts = new ConcurrentHashMap<>();
+
+    public BudgetReservations(BudgetRepository budgetRepository,
+                              @Value("${app.budgets.reservations.stripes:64}") int stripes) {
+        this.budgetRepository = budgetRepository;
+        this.stripes = new ReentrantLock[Integer.highestOneBit(Math.max(stripes, 1) * 2 - 1)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    // Reserva un gasto si cabe en el límite; la reserva se confirma o libera al terminar la transacción
+    public Outcome tryReserve(Long budgetId, BigDecimal amount, BigDecimal limit) {
+        TransactionDeltas deltas = currentDeltas();
+        Account account = load(budgetId);
+        ReentrantLock lock = stripe(budgetId);
+        lock.lock();
+        try {
+            BigDecimal newTotal = account.committed.add(account.reserved).add(amount);
+            if (newTotal.compareTo(limit) > 0) {
+                return new Outcome(false, newTotal);
+            }
+            hold(account, deltas, budgetId, amount);
+            return new Outcome(true, newTotal);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Cambio de gasto sin control de límite (modificación, eliminación). Los aumentos se cuentan
+    // como reservados hasta el commit; las disminuciones solo se aplican al confirmarse
+    public void track(Long budgetId, BigDecimal delta) {
+        if (delta.signum() == 0) {
+            return;
+        }
+        TransactionDeltas deltas = currentDeltas();
+        Account account = load(budgetId);
+        ReentrantLock lock = stripe(budgetId);
+        lock.lock();
+        try {
+            if (delta.signum() > 0) {
+                hold(account, deltas, budgetId, delta);
+            } else {
+                if (deltas.register(budgetId)) {
+                    account.pending++;
+                }
+                deltas.credits.merge(budgetId, delta, BigDecimal::add);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Gasto confirmado más reservado
+    public BigDecimal spent(Long budgetId) {
+        Account account = load(budgetId);
+        ReentrantLock lock = stripe(budgetId);
+        lock.lock();
+        try {
+            return account.committed.add(account.reserved);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Vuelve a leer spent_amount de los presupuestos sin escrituras en curso
+    @Scheduled(fixedDelayString =
+            "#{T(com.budget.api.config.SchedulingConfig).millis('${app.budgets.reservations.refresh-interval:5m}')}")
+    public void refresh() {
+        Map<Long, Long> versions = new HashMap<>();
+        accounts.forEach((budgetId, account) -> {
+            ReentrantLock lock = stripe(budgetId);
+            lock.lock();
+            try {
+                if (account.pending == 0 && account.committed != null) {
+                    versions.put(budgetId, account.version);
+                }
+            } finally {
+                lock.unlock();
+            }
+        });
+        if (versions.isEmpty()) {
+            return;
+        }
+
+        int corrected = 0;
+        for (Object[] row : budgetRepository.findSpentAmountsByIdIn(versions.keySet())) {
+            Long budgetId = (Long) row[0];
+            BigDecimal spent = (BigDecimal) row[1];
+            Account account = accounts.get(budgetId);
+            ReentrantLock lock = stripe(budgetId);
+            lock.lock();
+            try {
+                // Si hubo escrituras desde que se tomó la versión, la lectura puede estar vieja
+                if (account.pending == 0 && account.version == versions.get(budgetId)
+                        && account.committed.compareTo(spent) != 0) {
+                    log.warn("Gasto en memoria del presupuesto {} corregido: {} -> {}",
+                            budgetId, account.committed, spent);
+                    account.committed = spent;
+                    account.version++;
+                    corrected++;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        log.debug("Reservas de presupuestos sincronizadas: {} revisados, {} corregidos", versions.size(), corrected);
+    }
+
+    private void hold(Account account, TransactionDeltas deltas, Long budgetId, BigDecimal amount) {
+        if (deltas.register(budgetId)) {
+            account.pending++;
+        }
+        account.reserved = account.reserved.add(amount);
+        deltas.holds.merge(budgetId, amount, BigDecimal::add);
+    }
+
+    // Carga el presupuesto si aún no está en memoria. La lectura se hace sin el lock y solo se usa
+    // si nadie escribió mientras tanto; como toda escritura carga antes de registrarse, basta con
+    // comprobar la versión
+    private Account load(Long budgetId) {
+        Account account = accounts.computeIfAbsent(budgetId, id -> new Account());
+        ReentrantLock lock = stripe(budgetId);
+        while (true) {
+            long version;
+            lock.lock();
+            try {
+                if (account.committed != null) {
+                    return account;
+                }
+                version = account.version;
+            } finally {
+                lock.unlock();
+            }
+            BigDecimal spent = budgetRepository.findSpentAmountById(budgetId);
+            lock.lock();
+            try {
+                if (account.committed == null && account.version == version) {
+                    account.committed = spent != null ? spent : BigDecimal.ZERO;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void complete(TransactionDeltas deltas, boolean committed) {
+        for (Long budgetId : deltas.budgets) {
+            Account account = accounts.get(budgetId);
+            BigDecimal held = deltas.holds.getOrDefault(budgetId, BigDecimal.ZERO);
+            ReentrantLock lock = stripe(budgetId);
+            lock.lock();
+            try {
+                account.reserved = account.reserved.subtract(held);
+                if (committed) {
+                    account.committed = account.committed.add(held)
+                            .add(deltas.credits.getOrDefault(budgetId, BigDecimal.ZERO));
+                }
+                account.pending--;
+                account.version++;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private ReentrantLock stripe(Long budgetId) {
+        int hash = Long.hashCode(budgetId);
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private TransactionDeltas currentDeltas() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Las reservas de presupuesto requieren una transacción activa");
+        }
+        TransactionDeltas deltas = (TransactionDeltas) TransactionSynchronizationManager.getResource(this);
+        if (deltas == null) {
+            deltas = new TransactionDeltas();
+            TransactionSynchronizationManager.bindResource(this, deltas);
+            TransactionSynchronizationManager.registerSynchronization(deltas);
+        }
+        return deltas;
+    }
+
+    // Reservas y liberaciones de una transacción, agrupadas por presupuesto
+    private final class TransactionDeltas implements TransactionSynchronization {
+
+        private final Set<Long> budgets = new LinkedHashSet<>();
+        private final Map<Long, BigDecimal> holds = new HashMap<>();
+        private final Map<Long, BigDecimal> credits = new HashMap<>();
+
+        boolean register(Long budgetId) {
+            return budgets.add(budgetId);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(BudgetReservations.this);
+            complete(this, status == STATUS_COMMITTED);
+        }
+    }
+}
@@ -1,14 +1,14 @@
 package com.budget.api.service;
 
+import com.budget.api.cache.DashboardCache;
 import com.budget.api.dto.request.BudgetRequest;
 import com.budget.api.dto.response.BudgetResponse;
 import com.budget.api.entity.Budget;
 import com.budget.api.entity.User;
-import com.budget.api.enums.TransactionType;
 import com.budget.api.exception.ResourceNotFoundException;
 import com.budget.api.mapper.BudgetMapper;
 import com.budget.api.repository.BudgetRepository;
-import com.budget.api.repository.TransactionRepository;
+import com.budget.api.repository.MonthlyRollupRepository;
 import com.budget.api.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,6 +20,8 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -27,9 +29,10 @@ import java.util.List;
 public class BudgetService {
 
     private final BudgetRepository budgetRepository;
-    private final TransactionRepository transactionRepository;
+    private final MonthlyRollupRepository monthlyRollupRepository;
     private final UserRepository userRepository;
     private final BudgetMapper budgetMapper;
+    private final DashboardCache dashboardCache;
 
     @Transactional
     public BudgetResponse create(Long userId, BudgetRequest request) {
@@ -43,21 +46,26 @@ public class BudgetService {
         }
 
         budget = budgetRepository.save(budget);
+        dashboardCache.invalidateUser(userId);
         log.info("Presupuesto creado: {} para usuario {}", budget.getName(), userId);
-        return enrichResponse(budgetMapper.toResponse(budget), budget.getId());
+        return enrichResponse(budgetMapper.toResponse(budget), loadTotals(budget.getId()));
     }
 
     @Transactional(readOnly = true)
     public Page<BudgetResponse> findAll(Long userId, Pageable pageable) {
-        return budgetRepository.findByUserIdAndActiveTrue(userId, pageable)
-                .map(budget -> enrichResponse(budgetMapper.toResponse(budget), budget.getId()));
+        Page<Budget> budgets = budgetRepository.findByUserIdAndActiveTrue(userId, pageable);
+        // Totales de toda la página en una sola consulta
+        Map<Long, BudgetTotals> totals = BudgetTotals.load(monthlyRollupRepository,
+                budgets.getContent().stream().map(Budget::getId).collect(Collectors.toList()));
+        return budgets.map(budget -> enrichResponse(budgetMapper.toResponse(budget),
+                totals.getOrDefault(budget.getId(), BudgetTotals.EMPTY)));
     }
 
     @Transactional(readOnly = true)
     public BudgetResponse findById(Long userId, Long budgetId) {
         Budget budget = budgetRepository.findByIdAndUserId(budgetId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Presupuesto no encontrado"));
-        return enrichResponse(budgetMapper.toResponse(budget), budget.getId());
+        return enrichResponse(budgetMapper.toResponse(budget), loadTotals(budget.getId()));
     }
 
     @Transactional
@@ -67,8 +75,9 @@ public class BudgetService {
 
         budgetMapper.updateEntity(request, budget);
         budget = budgetRepository.save(budget);
+        dashboardCache.invalidateUser(userId);
         log.info("Presupuesto actualizado: {}", budgetId);
-        return enrichResponse(budgetMapper.toResponse(budget), budget.getId());
+        return enrichResponse(budgetMapper.toResponse(budget), loadTotals(budget.getId()));
     }
 
     @Transactional
@@ -77,12 +86,17 @@ public class BudgetService {
                 .orElseThrow(() -> new ResourceNotFoundException("Presupuesto no encontrado"));
         budget.setActive(false);
         budgetRepository.save(budget);
+        dashboardCache.invalidateUser(userId);
         log.info("Presupuesto desactivado: {}", budgetId);
     }
 
-    private BudgetResponse enrichResponse(BudgetResponse response, Long budgetId) {
-        BigDecimal spent = transactionRepository.sumByBudgetIdAndType(budgetId, TransactionType.EXPENSE);
-        BigDecimal income = transactionRepository.sumByBudgetIdAndType(budgetId, TransactionType.INCOME);
+    private BudgetTotals loadTotals(Long budgetId) {
+        return BudgetTotals.load(monthlyRollupRepository, List.of(budgetId))
+                .getOrDefault(budgetId, BudgetTotals.EMPTY);
+    }
+
+    private BudgetResponse enrichResponse(BudgetResponse response, BudgetTotals totals) {
+        BigDecimal spent = totals.spent();
         BigDecimal remaining = response.getTotalAmount().subtract(spent);
         double usage = response.getTotalAmount().compareTo(BigDecimal.ZERO) > 0
                 ? spent.divide(response.getTotalAmount(), 4, RoundingMode.HALF_UP)
@@ -0,0 +1,34 @@
+package com.budget.api.service;
+
+import com.budget.api.enums.TransactionType;
+import com.budget.api.repository.MonthlyRollupRepository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Gastos e ingresos acumulados por presupuesto, cargados para varios presupuestos a la vez
+ * con una sola consulta agrupada sobre monthly_rollups.
+ */
+record BudgetTotals(BigDecimal spent, BigDecimal income) {
+
+    static final BudgetTotals EMPTY = new BudgetTotals(BigDecimal.ZERO, BigDecimal.ZERO);
+
+    static Map<Long, BudgetTotals> load(MonthlyRollupRepository repository, Collection<Long> budgetIds) {
+        Map<Long, BudgetTotals> totals = new HashMap<>();
+        if (budgetIds.isEmpty()) {
+            return totals;
+        }
+        for (Object[] row : repository.sumByBudgetIdsGroupByType(budgetIds)) {
+            Long budgetId = (Long) row[0];
+            BigDecimal amount = (BigDecimal) row[2];
+            BudgetTotals current = totals.getOrDefault(budgetId, EMPTY);
+            totals.put(budgetId, row[1] == TransactionType.EXPENSE
+                    ? new BudgetTotals(current.spent().add(amount), current.income())
+                    : new BudgetTotals(current.spent(), current.income().add(amount)));
+        }
+        return totals;
+    }
+}
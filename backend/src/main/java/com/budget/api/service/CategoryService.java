@@ -1,9 +1,11 @@
 package com.budget.api.service;
 
+import com.budget.api.cache.DashboardCache;
 import com.budget.api.dto.request.CategoryRequest;
 import com.budget.api.dto.response.CategoryResponse;
 import com.budget.api.entity.Category;
 import com.budget.api.entity.User;
+import com.budget.api.enums.ExpenseType;
 import com.budget.api.exception.BadRequestException;
 import com.budget.api.exception.ResourceNotFoundException;
 import com.budget.api.mapper.CategoryMapper;
@@ -25,6 +27,9 @@ public class CategoryService {
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
     private final CategoryMapper categoryMapper;
+    private final MonthlyRollupService monthlyRollupService;
+    private final DashboardCache dashboardCache;
+    private final TransactionSuggestionService transactionSuggestionService;
 
     @Transactional(readOnly = true)
     public List<CategoryResponse> findAll(Long userId) {
@@ -59,9 +64,15 @@ public class CategoryService {
             throw new BadRequestException("No se pueden editar categorías por defecto");
         }
 
+        ExpenseType previousExpenseType = category.getExpenseType();
         categoryMapper.updateEntity(request, category);
         category = categoryRepository.save(category);
+        if (category.getExpenseType() != previousExpenseType) {
+            monthlyRollupService.updateExpenseType(categoryId, category.getExpenseType());
+        }
 
+        dashboardCache.invalidateUser(userId);
+        transactionSuggestionService.invalidate(userId);
         log.info("Categoría actualizada: {}", categoryId);
         return categoryMapper.toResponse(category);
     }
@@ -76,6 +87,8 @@ public class CategoryService {
         }
 
         categoryRepository.delete(category);
+        dashboardCache.invalidateUser(userId);
+        transactionSuggestionService.invalidate(userId);
         log.info("Categoría eliminada: {}", categoryId);
     }
 }
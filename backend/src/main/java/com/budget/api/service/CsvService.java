@@ -6,69 +6,185 @@ import com.budget.api.enums.TransactionType;
 import com.opencsv.CSVReader;
 import com.opencsv.CSVWriter;
 import com.opencsv.exceptions.CsvValidationException;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 
 import java.io.*;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.List;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class CsvService {
 
-    private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     private static final String[] CSV_HEADER = {
             "Fecha", "Descripción", "Monto", "Tipo", "Categoría", "Notas"
     };
 
-    public byte[] exportTransactions(List<Transaction> transactions) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        try (CSVWriter writer = new CSVWriter(new OutputStreamWriter(baos))) {
-            writer.writeNext(CSV_HEADER);
-            for (Transaction t : transactions) {
-                writer.writeNext(new String[]{
-                        t.getTransactionDate().format(DATE_FMT),
-                        t.getDescription(),
-                        t.getAmount().toPlainString(),
-                        t.getType().name(),
-                        t.getCategory() != null ? t.getCategory().getName() : "",
-                        t.getNotes() != null ? t.getNotes() : ""
-                });
-            }
+    private final ThreadPoolExecutor parserExecutor;
+    private final MappedCsvReader mappedReader;
+
+    public CsvService(@Value("${app.import.parser.threads:0}") int threads,
+                      @Value("${app.import.parser.chunk-size:1MB}") DataSize chunkSize) {
+        int parallelism = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.parserExecutor = parallelism > 1 ? newExecutor(parallelism) : null;
+        this.mappedReader = new MappedCsvReader(parserExecutor, parallelism, (int) chunkSize.toBytes());
+    }
+
+    // Escribe fila a fila sobre la salida; no la cierra para que el llamador pueda terminar un gzip
+    public long writeTransactions(Stream<Transaction> transactions, OutputStream out) throws IOException {
+        CSVWriter writer = new CSVWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+        writer.writeNext(CSV_HEADER);
+        long count = 0;
+        for (Iterator<Transaction> it = transactions.iterator(); it.hasNext(); count++) {
+            Transaction t = it.next();
+            writer.writeNext(new String[]{
+                    t.getTransactionDate().format(DATE_FMT),
+                    t.getDescription(),
+                    t.getAmount().toPlainString(),
+                    t.getType().name(),
+                    t.getCategory() != null ? t.getCategory().getName() : "",
+                    t.getNotes() != null ? t.getNotes() : ""
+            });
         }
-        log.info("Exportadas {} transacciones a CSV", transactions.size());
-        return baos.toByteArray();
+        writer.flush();
+        log.info("Exportadas {} transacciones a CSV", count);
+        return count;
     }
 
-    public List<TransactionRequest> importTransactions(InputStream inputStream, Long budgetId)
+    /**
+     * Fila leída del CSV: {@code request} y {@code categoryName} si se pudo interpretar,
+     * {@code error} en caso contrario. {@code line} es el número de línea en el archivo.
+     */
+    public record CsvRow(long line, TransactionRequest request, String categoryName, String error) {
+    }
+
+    // Archivos grandes: lector paralelo sobre el archivo mapeado en memoria, mismo resultado y orden
+    public void readTransactions(Path file, Long budgetId, Consumer<CsvRow> consumer)
             throws IOException, CsvValidationException {
-        List<TransactionRequest> requests = new ArrayList<>();
+        if (Files.size(file) > Integer.MAX_VALUE) {
+            // Un MappedByteBuffer no pasa de 2 GB
+            try (InputStream in = Files.newInputStream(file)) {
+                readTransactions(in, budgetId, consumer);
+            }
+            return;
+        }
+        mappedReader.read(file, budgetId, consumer);
+    }
 
-        try (CSVReader reader = new CSVReader(new InputStreamReader(inputStream))) {
+    // Lee fila a fila sin acumular el archivo; un error de formato solo afecta a su fila
+    public void readTransactions(InputStream inputStream, Long budgetId, Consumer<CsvRow> consumer)
+            throws IOException, CsvValidationException {
+        try (CSVReader reader = new CSVReader(new BufferedReader(
+                new InputStreamReader(inputStream, StandardCharsets.UTF_8)))) {
             reader.readNext(); // Skip header
             String[] line;
             while ((line = reader.readNext()) != null) {
-                if (line.length < 4) continue;
-
-                TransactionRequest req = new TransactionRequest();
-                req.setTransactionDate(LocalDate.parse(line[0], DATE_FMT));
-                req.setDescription(line[1]);
-                req.setAmount(new BigDecimal(line[2]));
-                req.setType(TransactionType.valueOf(line[3].toUpperCase()));
-                req.setBudgetId(budgetId);
-                if (line.length > 5) {
-                    req.setNotes(line[5]);
+                CsvRow row = toRow(reader.getLinesRead(), Fields.of(line), budgetId);
+                if (row != null) {
+                    consumer.accept(row);
                 }
-                requests.add(req);
             }
         }
-        log.info("Importadas {} transacciones desde CSV", requests.size());
-        return requests;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (parserExecutor != null) {
+            parserExecutor.shutdownNow();
+        }
+    }
+
+    // Reglas de conversión compartidas por ambos lectores. Las filas con menos de 4 columnas (líneas
+    // en blanco, pies de página) se ignoran: devuelve null
+    static CsvRow toRow(long lineNumber, Fields line, Long budgetId) {
+        if (line.size() < 4) {
+            return null;
+        }
+        try {
+            TransactionRequest req = new TransactionRequest();
+            req.setTransactionDate(line.date(0));
+            req.setDescription(line.get(1));
+            req.setAmount(line.amount(2));
+            req.setType(line.type(3));
+            req.setBudgetId(budgetId);
+            if (line.size() > 5 && !line.get(5).isEmpty()) {
+                req.setNotes(line.get(5));
+            }
+            String category = line.size() > 4 && !line.get(4).isBlank() ? line.get(4).trim() : null;
+            return new CsvRow(lineNumber, req, category, null);
+        } catch (DateTimeParseException e) {
+            return new CsvRow(lineNumber, null, null, "Fecha inválida: " + line.get(0));
+        } catch (NumberFormatException e) {
+            return new CsvRow(lineNumber, null, null, "Monto inválido: " + line.get(2));
+        } catch (IllegalArgumentException e) {
+            return new CsvRow(lineNumber, null, null, "Tipo inválido: " + line.get(3));
+        }
+    }
+
+    private static ThreadPoolExecutor newExecutor(int threads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "csv-parser-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Campos de una fila. Las conversiones por defecto trabajan sobre el texto; el lector mapeado
+     * las sobrescribe para leer fecha, monto y tipo directamente de los bytes cuando puede.
+     */
+    interface Fields {
+
+        int size();
+
+        String get(int index);
+
+        default LocalDate date(int index) {
+            return LocalDate.parse(get(index).trim(), DATE_FMT);
+        }
+
+        default BigDecimal amount(int index) {
+            return new BigDecimal(get(index).trim());
+        }
+
+        default TransactionType type(int index) {
+            return TransactionType.valueOf(get(index).trim().toUpperCase());
+        }
+
+        static Fields of(String[] values) {
+            return new Fields() {
+                @Override
+                public int size() {
+                    return values.length;
+                }
+
+                @Override
+                public String get(int index) {
+                    return values[index];
+                }
+            };
+        }
     }
 }
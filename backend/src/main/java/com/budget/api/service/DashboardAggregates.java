@@ -0,0 +1,103 @@
+package com.budget.api.service;
+
+import com.budget.api.enums.ExpenseType;
+import com.budget.api.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Sumas por (fecha, tipo, categoría, tipo de gasto) obtenidas en una sola consulta agrupada,
+ * ya sea diarias desde transactions o mensuales desde monthly_rollups. Las secciones del
+ * dashboard se derivan en memoria a partir de estas filas.
+ */
+final class DashboardAggregates {
+
+    record Row(LocalDate date, TransactionType type, String categoryName,
+               ExpenseType expenseType, BigDecimal amount) {
+
+        boolean within(LocalDate from, LocalDate to) {
+            return !date.isBefore(from) && !date.isAfter(to);
+        }
+    }
+
+    private final List<Row> rows;
+
+    private DashboardAggregates(List<Row> rows) {
+        this.rows = rows;
+    }
+
+    static DashboardAggregates from(List<Object[]> results) {
+        return new DashboardAggregates(results.stream()
+                .map(row -> new Row(
+                        (LocalDate) row[0],
+                        (TransactionType) row[1],
+                        (String) row[2],
+                        (ExpenseType) row[3],
+                        (BigDecimal) row[4]))
+                .collect(Collectors.toList()));
+    }
+
+    // Filas mensuales (mes, tipo, tipo de gasto, suma); la fecha de cada fila es el primer día del mes
+    static DashboardAggregates fromRollups(List<Object[]> results) {
+        return new DashboardAggregates(results.stream()
+                .map(row -> new Row(
+                        (LocalDate) row[0],
+                        (TransactionType) row[1],
+                        null,
+                        (ExpenseType) row[2],
+                        (BigDecimal) row[3]))
+                .collect(Collectors.toList()));
+    }
+
+    BigDecimal sum(TransactionType type, LocalDate from, LocalDate to) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Row row : rows) {
+            if (row.type() == type && row.within(from, to)) {
+                total = total.add(row.amount());
+            }
+        }
+        return total;
+    }
+
+    /** Gastos por nombre de categoría; las transacciones sin categoría no se incluyen. */
+    Map<String, BigDecimal> expensesByCategory(LocalDate from, LocalDate to) {
+        Map<String, BigDecimal> result = new LinkedHashMap<>();
+        for (Row row : rows) {
+            if (row.type() == TransactionType.EXPENSE && row.categoryName() != null && row.within(from, to)) {
+                result.merge(row.categoryName(), row.amount(), BigDecimal::add);
+            }
+        }
+        return result;
+    }
+
+    /** Gastos por tipo de gasto; las transacciones sin categoría no se incluyen. */
+    Map<ExpenseType, BigDecimal> expensesByExpenseType(LocalDate from, LocalDate to) {
+        Map<ExpenseType, BigDecimal> result = new EnumMap<>(ExpenseType.class);
+        for (Row row : rows) {
+            if (row.type() == TransactionType.EXPENSE && row.expenseType() != null && row.within(from, to)) {
+                result.merge(row.expenseType(), row.amount(), BigDecimal::add);
+            }
+        }
+        return result;
+    }
+
+    /** Variación neta (ingresos - gastos) por día, ordenada por fecha. */
+    Map<LocalDate, BigDecimal> dailyBalanceChange(LocalDate from, LocalDate to) {
+        Map<LocalDate, BigDecimal> result = new TreeMap<>();
+        for (Row row : rows) {
+            if (row.within(from, to)) {
+                BigDecimal change = row.type() == TransactionType.INCOME
+                        ? row.amount() : row.amount().negate();
+                result.merge(row.date(), change, BigDecimal::add);
+            }
+        }
+        return result;
+    }
+}
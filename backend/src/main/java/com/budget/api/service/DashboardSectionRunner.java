@@ -0,0 +1,105 @@
+package com.budget.api.service;
+
+import com.budget.api.exception.ServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta las consultas independientes del dashboard. En modo secuencial (por defecto) cada
+ * tarea corre en el hilo que llama; en modo paralelo corre en un pool acotado propio. Las tareas
+ * llaman directamente a repositorios, así que cada una usa su propia transacción de solo lectura
+ * y devuelve la conexión al terminar.
+ */
+@Component
+@Slf4j
+public class DashboardSectionRunner {
+
+    private final Duration sectionTimeout;
+    private final ThreadPoolExecutor executor;
+
+    public DashboardSectionRunner(@Value("${app.dashboard.parallel.enabled:false}") boolean parallel,
+                                  @Value("${app.dashboard.parallel.pool-size:8}") int poolSize,
+                                  @Value("${app.dashboard.parallel.section-timeout:5s}") Duration sectionTimeout) {
+        this.sectionTimeout = sectionTimeout;
+        this.executor = parallel ? newExecutor(poolSize) : null;
+    }
+
+    public <T> Section<T> submit(String name, Supplier<T> task) {
+        if (executor == null) {
+            return new Section<>(name, task.get(), null, 0);
+        }
+        return new Section<>(name, null, executor.submit(task::get),
+                System.nanoTime() + sectionTimeout.toNanos());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    public static final class Section<T> {
+
+        private final String name;
+        private final T value;
+        private final Future<T> future;
+        private final long deadlineNanos;
+
+        private Section(String name, T value, Future<T> future, long deadlineNanos) {
+            this.name = name;
+            this.value = value;
+            this.future = future;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        public T join() {
+            if (future == null) {
+                return value;
+            }
+            try {
+                return future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                log.warn("Sección '{}' del dashboard excedió el tiempo límite", name);
+                throw new ServiceUnavailableException("El dashboard tardó demasiado en responder");
+            } catch (InterruptedException e) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new ServiceUnavailableException("El cálculo del dashboard fue interrumpido");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    private static ThreadPoolExecutor newExecutor(int poolSize) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(poolSize * 16),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-section-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // Con el pool saturado la sección se calcula en el hilo de la petición
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+}
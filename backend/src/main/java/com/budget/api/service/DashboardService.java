@@ -1,15 +1,16 @@
 package com.budget.api.service;
 
+import com.budget.api.cache.DashboardCache;
 import com.budget.api.dto.response.DashboardResponse;
 import com.budget.api.entity.Budget;
 import com.budget.api.enums.ExpenseType;
 import com.budget.api.enums.TransactionType;
 import com.budget.api.repository.BudgetRepository;
+import com.budget.api.repository.MonthlyRollupRepository;
 import com.budget.api.repository.TransactionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -17,6 +18,7 @@ import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,37 +28,77 @@ public class DashboardService {
 
     private final TransactionRepository transactionRepository;
     private final BudgetRepository budgetRepository;
+    private final MonthlyRollupRepository monthlyRollupRepository;
+    private final DashboardCache dashboardCache;
+    private final DashboardSectionRunner sectionRunner;
 
-    @Transactional(readOnly = true)
+    // Sin @Transactional: un acierto de caché no toma conexión del pool y, al calcular,
+    // cada consulta corre en la transacción de solo lectura del repositorio
     public DashboardResponse getDashboardMetrics(Long userId, LocalDate startDate, LocalDate endDate) {
+        DashboardCache.Key key = new DashboardCache.Key(userId, startDate, endDate, LocalDate.now());
+        return dashboardCache.getOrCompute(key, () -> computeDashboardMetrics(userId, startDate, endDate));
+    }
+
+    private DashboardResponse computeDashboardMetrics(Long userId, LocalDate startDate, LocalDate endDate) {
+        LocalDate today = LocalDate.now();
+        YearMonth currentMonth = YearMonth.from(today);
+        YearMonth firstMonth = currentMonth.minusMonths(5);
+
+        // Últimos seis meses completos: filas de monthly_rollups (no depende de los presupuestos)
+        DashboardSectionRunner.Section<List<Object[]>> monthlyRows = sectionRunner.submit("rollups",
+                () -> monthlyRollupRepository.sumByMonthTypeAndExpenseType(
+                        userId, firstMonth.atDay(1), currentMonth.atDay(1)));
+
         // Fetch active budgets first (needed for default date range and budgetVsActual)
-        List<Budget> activeBudgets = budgetRepository.findActiveBudgetsByDate(userId, LocalDate.now());
+        List<Budget> activeBudgets = budgetRepository.findActiveBudgetsByDate(userId, today);
 
         // Default dates from active budget period instead of just current month
         if (startDate == null) {
             startDate = activeBudgets.stream()
                     .map(Budget::getStartDate)
                     .min(LocalDate::compareTo)
-                    .orElse(YearMonth.now().atDay(1));
+                    .orElse(currentMonth.atDay(1));
         }
         if (endDate == null) {
             endDate = activeBudgets.stream()
                     .map(Budget::getEndDate)
                     .max(LocalDate::compareTo)
-                    .orElse(YearMonth.now().atEndOfMonth());
+                    .orElse(currentMonth.atEndOfMonth());
         }
-
-        BigDecimal totalIncome = transactionRepository.sumByUserIdAndTypeAndDateRange(
-                userId, TransactionType.INCOME, startDate, endDate);
-        BigDecimal totalExpenses = transactionRepository.sumByUserIdAndTypeAndDateRange(
-                userId, TransactionType.EXPENSE, startDate, endDate);
+        LocalDate rangeStart = startDate;
+        LocalDate rangeEnd = endDate;
+
+        // Rango solicitado: una consulta agrupada por día sobre transactions
+        DashboardSectionRunner.Section<List<Object[]>> dailyRows = sectionRunner.submit("daily",
+                () -> transactionRepository.sumByDateTypeAndCategory(userId, rangeStart, rangeEnd));
+
+        // Días sueltos en los extremos de la ventana de seis meses que el rango no cubre
+        LocalDate sixMonthsAgo = today.minusMonths(6);
+        LocalDate leadingEdgeEnd = YearMonth.from(sixMonthsAgo).atEndOfMonth();
+        DashboardSectionRunner.Section<BigDecimal> leadingEdge = expensesOutsideRange(
+                userId, rangeStart, rangeEnd, sixMonthsAgo, leadingEdgeEnd);
+        DashboardSectionRunner.Section<BigDecimal> trailingEdge = expensesOutsideRange(
+                userId, rangeStart, rangeEnd, currentMonth.atDay(1), today);
+
+        List<Long> budgetIds = activeBudgets.stream().map(Budget::getId).collect(Collectors.toList());
+        DashboardSectionRunner.Section<Map<Long, BudgetTotals>> budgetTotals = sectionRunner.submit("budgets",
+                () -> BudgetTotals.load(monthlyRollupRepository, budgetIds));
+
+        DashboardAggregates aggregates = DashboardAggregates.from(dailyRows.join());
+        DashboardAggregates monthlyAggregates = DashboardAggregates.fromRollups(monthlyRows.join());
+
+        BigDecimal totalIncome = aggregates.sum(TransactionType.INCOME, startDate, endDate);
+        BigDecimal totalExpenses = aggregates.sum(TransactionType.EXPENSE, startDate, endDate);
         BigDecimal balance = totalIncome.subtract(totalExpenses);
         BigDecimal savings = totalIncome.subtract(totalExpenses);
 
-        // Gasto promedio mensual (últimos 6 meses)
-        LocalDate sixMonthsAgo = LocalDate.now().minusMonths(6);
-        BigDecimal sixMonthExpenses = transactionRepository.sumByUserIdAndTypeAndDateRange(
-                userId, TransactionType.EXPENSE, sixMonthsAgo, LocalDate.now());
+        // Gasto promedio mensual (últimos 6 meses): meses completos desde rollups + días sueltos en los extremos
+        BigDecimal sixMonthExpenses = monthlyAggregates
+                .sum(TransactionType.EXPENSE, firstMonth.atDay(1), currentMonth.minusMonths(1).atEndOfMonth())
+                .add(leadingEdge != null ? leadingEdge.join()
+                        : aggregates.sum(TransactionType.EXPENSE, sixMonthsAgo, leadingEdgeEnd))
+                .add(trailingEdge != null ? trailingEdge.join()
+                        : aggregates.sum(TransactionType.EXPENSE, currentMonth.atDay(1), today));
         BigDecimal monthlyAverage = sixMonthExpenses.divide(BigDecimal.valueOf(6), 2, RoundingMode.HALF_UP);
 
         // Porcentaje de uso del presupuesto
@@ -70,20 +112,20 @@ public class DashboardService {
 
         // Desglose por categoría
         List<DashboardResponse.CategoryBreakdown> categoryBreakdown = buildCategoryBreakdown(
-                userId, startDate, endDate, totalExpenses);
+                aggregates, startDate, endDate, totalExpenses);
 
         // Presupuesto vs real
-        List<DashboardResponse.BudgetVsActual> budgetVsActual = buildBudgetVsActual(activeBudgets);
+        List<DashboardResponse.BudgetVsActual> budgetVsActual = buildBudgetVsActual(activeBudgets, budgetTotals.join());
 
         // Saldo a lo largo del tiempo
         List<DashboardResponse.BalanceOverTime> balanceHistory = buildBalanceHistory(
-                userId, startDate, endDate);
+                aggregates, startDate, endDate);
 
         // Fijos vs variables
-        List<DashboardResponse.FixedVsVariable> fixedVsVariable = buildFixedVsVariable(userId);
+        List<DashboardResponse.FixedVsVariable> fixedVsVariable = buildFixedVsVariable(monthlyAggregates, today);
 
         // Ingresos vs gastos por mes
-        List<DashboardResponse.IncomeVsExpense> incomeVsExpenses = buildIncomeVsExpenses(userId);
+        List<DashboardResponse.IncomeVsExpense> incomeVsExpenses = buildIncomeVsExpenses(monthlyAggregates, today);
 
         return DashboardResponse.builder()
                 .totalIncome(totalIncome)
@@ -100,20 +142,28 @@ public class DashboardService {
                 .build();
     }
 
+    // Null si el tramo cae dentro del rango ya consultado y puede sumarse en memoria
+    private DashboardSectionRunner.Section<BigDecimal> expensesOutsideRange(
+            Long userId, LocalDate rangeStart, LocalDate rangeEnd, LocalDate from, LocalDate to) {
+        if (!from.isBefore(rangeStart) && !to.isAfter(rangeEnd)) {
+            return null;
+        }
+        return sectionRunner.submit("edge", () -> transactionRepository.sumByUserIdAndTypeAndDateRange(
+                userId, TransactionType.EXPENSE, from, to));
+    }
+
     private List<DashboardResponse.CategoryBreakdown> buildCategoryBreakdown(
-            Long userId, LocalDate start, LocalDate end, BigDecimal totalExpenses) {
+            DashboardAggregates aggregates, LocalDate start, LocalDate end, BigDecimal totalExpenses) {
 
-        List<Object[]> results = transactionRepository.sumExpensesByCategory(userId, start, end);
-        return results.stream()
-                .map(row -> {
-                    String categoryName = (String) row[0];
-                    BigDecimal amount = (BigDecimal) row[1];
+        return aggregates.expensesByCategory(start, end).entrySet().stream()
+                .map(entry -> {
+                    BigDecimal amount = entry.getValue();
                     double pct = totalExpenses.compareTo(BigDecimal.ZERO) > 0
                             ? amount.divide(totalExpenses, 4, RoundingMode.HALF_UP)
                                     .multiply(BigDecimal.valueOf(100)).doubleValue()
                             : 0.0;
                     return DashboardResponse.CategoryBreakdown.builder()
-                            .categoryName(categoryName != null ? categoryName : "Sin categoría")
+                            .categoryName(entry.getKey())
                             .amount(amount)
                             .percentage(pct)
                             .build();
@@ -121,11 +171,11 @@ public class DashboardService {
                 .collect(Collectors.toList());
     }
 
-    private List<DashboardResponse.BudgetVsActual> buildBudgetVsActual(List<Budget> activeBudgets) {
+    private List<DashboardResponse.BudgetVsActual> buildBudgetVsActual(
+            List<Budget> activeBudgets, Map<Long, BudgetTotals> budgetTotals) {
         return activeBudgets.stream()
                 .map(budget -> {
-                    BigDecimal actual = transactionRepository.sumByBudgetIdAndType(
-                            budget.getId(), TransactionType.EXPENSE);
+                    BigDecimal actual = budgetTotals.getOrDefault(budget.getId(), BudgetTotals.EMPTY).spent();
                     return DashboardResponse.BudgetVsActual.builder()
                             .categoryName(budget.getName())
                             .budgeted(budget.getTotalAmount())
@@ -136,37 +186,32 @@ public class DashboardService {
     }
 
     private List<DashboardResponse.BalanceOverTime> buildBalanceHistory(
-            Long userId, LocalDate start, LocalDate end) {
+            DashboardAggregates aggregates, LocalDate start, LocalDate end) {
 
-        List<Object[]> dailyChanges = transactionRepository.dailyBalanceChange(userId, start, end);
         List<DashboardResponse.BalanceOverTime> history = new ArrayList<>();
         BigDecimal runningBalance = BigDecimal.ZERO;
 
-        for (Object[] row : dailyChanges) {
-            LocalDate date = (LocalDate) row[0];
-            BigDecimal change = (BigDecimal) row[1];
-            runningBalance = runningBalance.add(change);
+        for (Map.Entry<LocalDate, BigDecimal> day : aggregates.dailyBalanceChange(start, end).entrySet()) {
+            runningBalance = runningBalance.add(day.getValue());
             history.add(DashboardResponse.BalanceOverTime.builder()
-                    .date(date.toString())
+                    .date(day.getKey().toString())
                     .balance(runningBalance)
                     .build());
         }
         return history;
     }
 
-    private List<DashboardResponse.IncomeVsExpense> buildIncomeVsExpenses(Long userId) {
+    private List<DashboardResponse.IncomeVsExpense> buildIncomeVsExpenses(
+            DashboardAggregates aggregates, LocalDate now) {
         List<DashboardResponse.IncomeVsExpense> result = new ArrayList<>();
-        LocalDate now = LocalDate.now();
 
         for (int i = 5; i >= 0; i--) {
             YearMonth month = YearMonth.from(now.minusMonths(i));
             LocalDate start = month.atDay(1);
             LocalDate end = month.atEndOfMonth();
 
-            BigDecimal income = transactionRepository.sumByUserIdAndTypeAndDateRange(
-                    userId, TransactionType.INCOME, start, end);
-            BigDecimal expense = transactionRepository.sumByUserIdAndTypeAndDateRange(
-                    userId, TransactionType.EXPENSE, start, end);
+            BigDecimal income = aggregates.sum(TransactionType.INCOME, start, end);
+            BigDecimal expense = aggregates.sum(TransactionType.EXPENSE, start, end);
 
             result.add(DashboardResponse.IncomeVsExpense.builder()
                     .month(month.toString())
@@ -177,29 +222,18 @@ public class DashboardService {
         return result;
     }
 
-    private List<DashboardResponse.FixedVsVariable> buildFixedVsVariable(Long userId) {
+    private List<DashboardResponse.FixedVsVariable> buildFixedVsVariable(
+            DashboardAggregates aggregates, LocalDate now) {
         List<DashboardResponse.FixedVsVariable> result = new ArrayList<>();
-        LocalDate now = LocalDate.now();
 
         for (int i = 5; i >= 0; i--) {
             YearMonth month = YearMonth.from(now.minusMonths(i));
             LocalDate start = month.atDay(1);
             LocalDate end = month.atEndOfMonth();
 
-            List<Object[]> byType = transactionRepository.sumExpensesByExpenseType(userId, start, end);
-
-            BigDecimal fixed = BigDecimal.ZERO;
-            BigDecimal variable = BigDecimal.ZERO;
-
-            for (Object[] row : byType) {
-                ExpenseType type = (ExpenseType) row[0];
-                BigDecimal amount = (BigDecimal) row[1];
-                if (type == ExpenseType.FIXED) {
-                    fixed = amount;
-                } else {
-                    variable = amount;
-                }
-            }
+            Map<ExpenseType, BigDecimal> byType = aggregates.expensesByExpenseType(start, end);
+            BigDecimal fixed = byType.getOrDefault(ExpenseType.FIXED, BigDecimal.ZERO);
+            BigDecimal variable = byType.getOrDefault(ExpenseType.VARIABLE, BigDecimal.ZERO);
 
             result.add(DashboardResponse.FixedVsVariable.builder()
                     .month(month.toString())
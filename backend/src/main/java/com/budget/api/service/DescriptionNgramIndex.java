@@ -0,0 +1,147 @@
+package com.budget.api.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Índice de trigramas sobre descripciones en minúsculas, el equivalente en memoria del índice GIN
+ * pg_trgm de PostgreSQL. Los trigramas del término acotan los candidatos y cada uno se confirma
+ * con contains, así que responde lo mismo que {@code lower(description) LIKE '%término%'}.
+ *
+ * <p>No es thread-safe: {@link TransactionSearchIndex} serializa el acceso.
+ */
+public final class DescriptionNgramIndex {
+
+    private static final int GRAM = 3;
+
+    // Posiciones de las descripciones que contienen un trigrama, en orden creciente
+    private static final class Postings {
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            if (size > 0 && slots[size - 1] == slot) {
+                return;
+            }
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+
+    // Descripciones por posición; una posición con texto nulo es una baja pendiente de compactar
+    private long[] ids = new long[16];
+    private String[] texts = new String[16];
+    private int size;
+    private int live;
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private Map<Long, Postings> postings = new HashMap<>();
+
+    public void put(long id, String description) {
+        String text = normalize(description);
+        Integer previous = slotsById.get(id);
+        if (previous != null) {
+            if (texts[previous].equals(text)) {
+                return;
+            }
+            texts[previous] = null;
+            live--;
+        }
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            texts = Arrays.copyOf(texts, size * 2);
+        }
+        int slot = size++;
+        ids[slot] = id;
+        texts[slot] = text;
+        slotsById.put(id, slot);
+        live++;
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            postings.computeIfAbsent(gram(text, i), g -> new Postings()).add(slot);
+        }
+        if (size - live > Math.max(live, 1024)) {
+            compact();
+        }
+    }
+
+    public void remove(long id) {
+        Integer slot = slotsById.remove(id);
+        if (slot != null) {
+            texts[slot] = null;
+            live--;
+        }
+    }
+
+    public int size() {
+        return live;
+    }
+
+    /**
+     * Ids cuya descripción contiene el término, o {@code null} si hay más de {@code maxResults}.
+     * Los términos más cortos que un trigrama se buscan recorriendo todas las descripciones.
+     */
+    public long[] search(String term, int maxResults) {
+        String needle = normalize(term);
+        long[] matches = new long[Math.min(maxResults + 1, 64)];
+        int found = 0;
+
+        int[] candidates = null;
+        int candidateCount = size;
+        if (needle.length() >= GRAM) {
+            // Basta con recorrer la lista más corta; contains descarta los falsos positivos
+            for (int i = 0; i + GRAM <= needle.length(); i++) {
+                Postings list = postings.get(gram(needle, i));
+                if (list == null) {
+                    return new long[0];
+                }
+                if (candidates == null || list.size < candidateCount) {
+                    candidates = list.slots;
+                    candidateCount = list.size;
+                }
+            }
+        }
+
+        for (int i = 0; i < candidateCount; i++) {
+            int slot = candidates != null ? candidates[i] : i;
+            String text = texts[slot];
+            if (text != null && text.contains(needle)) {
+                if (found == maxResults) {
+                    return null;
+                }
+                if (found == matches.length) {
+                    matches = Arrays.copyOf(matches, Math.min(found * 2, maxResults + 1));
+                }
+                matches[found++] = ids[slot];
+            }
+        }
+        return Arrays.copyOf(matches, found);
+    }
+
+    static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private void compact() {
+        long[] oldIds = ids;
+        String[] oldTexts = texts;
+        int oldSize = size;
+        ids = new long[Math.max(16, live * 2)];
+        texts = new String[ids.length];
+        size = 0;
+        live = 0;
+        slotsById.clear();
+        postings = new HashMap<>();
+        for (int slot = 0; slot < oldSize; slot++) {
+            if (oldTexts[slot] != null) {
+                put(oldIds[slot], oldTexts[slot]);
+            }
+        }
+    }
+
+    private static long gram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+}
@@ -0,0 +1,189 @@
+package com.budget.api.service;
+
+import com.budget.api.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Descripciones usadas por un usuario, ordenadas por su forma normalizada (minúsculas, sin tildes
+ * ni espacios repetidos) para responder prefijos con un recorrido de rango. Cada descripción
+ * lleva cuántas veces se usó y la categoría, el importe y el tipo más frecuentes.
+ *
+ * <p>No es thread-safe: {@link TransactionSuggestionService} serializa el acceso.
+ */
+final class DescriptionSuggestions {
+
+    record Suggestion(String description, long occurrences, TransactionType type,
+                      Long categoryId, String categoryName, BigDecimal amount) {
+    }
+
+    // Importes distintos que se siguen por descripción; el menos usado deja sitio al nuevo
+    private static final int TRACKED_AMOUNTS = 8;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private static final class Category {
+        private final String name;
+        private long count;
+
+        Category(String name) {
+            this.name = name;
+        }
+    }
+
+    private static final class Entry {
+        private String description;
+        private long count;
+        private long expenses;
+        private LocalDate lastUsed = LocalDate.MIN;
+        private final Map<Long, Category> categories = new HashMap<>(4);
+        private final Map<BigDecimal, Long> amounts = new HashMap<>(4);
+
+        Suggestion toSuggestion() {
+            Map.Entry<Long, Category> category = categories.entrySet().stream()
+                    .max(Comparator.comparingLong(e -> e.getValue().count))
+                    .orElse(null);
+            BigDecimal amount = amounts.entrySet().stream()
+                    .max(Map.Entry.comparingByValue())
+                    .map(Map.Entry::getKey)
+                    .orElse(null);
+            return new Suggestion(description, count,
+                    expenses * 2 >= count ? TransactionType.EXPENSE : TransactionType.INCOME,
+                    category != null ? category.getKey() : null,
+                    category != null ? category.getValue().name : null,
+                    amount);
+        }
+    }
+
+    // De menor a mayor relevancia: uso, fecha del último uso y, a igualdad, orden alfabético
+    private static final Comparator<Entry> RANKING = Comparator.<Entry>comparingLong(e -> e.count)
+            .thenComparing(e -> e.lastUsed)
+            .thenComparing(e -> e.description, Comparator.reverseOrder());
+
+    // Prefijos de uno o dos caracteres recorren buena parte del historial: se guardan sus resultados
+    // hasta la siguiente escritura
+    private static final int MEMOIZED_PREFIX_LENGTH = 2;
+
+    private final TreeMap<String, Entry> entries = new TreeMap<>();
+    private final Map<String, List<Suggestion>> memoized = new HashMap<>();
+
+    void add(String description, TransactionType type, Long categoryId, String categoryName,
+             BigDecimal amount, LocalDate date, long times) {
+        String key = normalize(description);
+        if (key.isEmpty()) {
+            return;
+        }
+        memoized.clear();
+        Entry entry = entries.computeIfAbsent(key, k -> new Entry());
+        if (entry.description == null || !date.isBefore(entry.lastUsed)) {
+            entry.description = description.strip();
+            entry.lastUsed = date;
+        }
+        entry.count += times;
+        if (type == TransactionType.EXPENSE) {
+            entry.expenses += times;
+        }
+        entry.categories.computeIfAbsent(categoryId, id -> new Category(categoryName)).count += times;
+
+        BigDecimal value = scaled(amount);
+        if (!entry.amounts.containsKey(value) && entry.amounts.size() >= TRACKED_AMOUNTS) {
+            // Space-saving: el nuevo importe hereda la cuenta del que sale, así los frecuentes no se pierden
+            Map.Entry<BigDecimal, Long> least = entry.amounts.entrySet().stream()
+                    .min(Map.Entry.comparingByValue())
+                    .orElseThrow();
+            entry.amounts.remove(least.getKey());
+            entry.amounts.put(value, least.getValue());
+        }
+        entry.amounts.merge(value, times, Long::sum);
+    }
+
+    void remove(String description, TransactionType type, Long categoryId, BigDecimal amount) {
+        String key = normalize(description);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return;
+        }
+        memoized.clear();
+        if (--entry.count <= 0) {
+            entries.remove(key);
+            return;
+        }
+        if (type == TransactionType.EXPENSE && entry.expenses > 0) {
+            entry.expenses--;
+        }
+        Category category = entry.categories.get(categoryId);
+        if (category != null && --category.count <= 0) {
+            entry.categories.remove(categoryId);
+        }
+        entry.amounts.computeIfPresent(scaled(amount), (value, count) -> count > 1 ? count - 1 : null);
+    }
+
+    // Las más usadas entre las que empiezan por el prefijo; a igual uso, la más reciente
+    List<Suggestion> top(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (!key.isEmpty() && Character.isWhitespace(prefix.charAt(prefix.length() - 1))) {
+            key += " ";
+        }
+        if (key.length() > MEMOIZED_PREFIX_LENGTH) {
+            return collect(key, limit);
+        }
+        String memoKey = key + '|' + limit;
+        List<Suggestion> result = memoized.get(memoKey);
+        if (result == null) {
+            result = collect(key, limit);
+            memoized.put(memoKey, result);
+        }
+        return result;
+    }
+
+    private List<Suggestion> collect(String key, int limit) {
+        PriorityQueue<Entry> best = new PriorityQueue<>(limit + 1, RANKING);
+        for (Map.Entry<String, Entry> candidate : entries.tailMap(key, true).entrySet()) {
+            if (!candidate.getKey().startsWith(key)) {
+                break;
+            }
+            Entry entry = candidate.getValue();
+            if (best.size() < limit) {
+                best.add(entry);
+            } else if (RANKING.compare(entry, best.peek()) > 0) {
+                best.poll();
+                best.add(entry);
+            }
+        }
+        List<Suggestion> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            result.add(best.poll().toSuggestion());
+        }
+        Collections.reverse(result);
+        return List.copyOf(result);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    static String normalize(String description) {
+        if (description == null) {
+            return "";
+        }
+        String stripped = MARKS.matcher(Normalizer.normalize(description, Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(stripped.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    private static BigDecimal scaled(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP);
+    }
+}
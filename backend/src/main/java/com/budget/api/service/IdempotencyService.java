@@ -0,0 +1,144 @@
+package com.budget.api.service;
+
+import com.budget.api.dto.request.TransactionRequest;
+import com.budget.api.entity.IdempotencyKey;
+import com.budget.api.exception.BadRequestException;
+import com.budget.api.exception.ConflictException;
+import com.budget.api.repository.IdempotencyKeyRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Claves Idempotency-Key de POST /transactions. Un filtro de Bloom en memoria con todas las claves
+ * vigentes evita la consulta en el caso normal (clave nueva); la restricción única de la tabla
+ * es la garantía final ante peticiones simultáneas con la misma clave.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final long expectedKeys;
+    private volatile BloomFilter filter;
+    // Filtro en construcción durante rebuild(); recibe también las claves nuevas
+    private volatile BloomFilter next;
+
+    public IdempotencyService(IdempotencyKeyRepository idempotencyKeyRepository,
+                              TransactionTemplate transactionTemplate,
+                              @Value("${app.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${app.idempotency.filter.expected-keys:100000}") long expectedKeys) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.ttl = ttl;
+        this.expectedKeys = expectedKeys;
+        this.filter = new BloomFilter(expectedKeys, FALSE_POSITIVE_RATE);
+    }
+
+    @PostConstruct
+    void init() {
+        rebuild();
+    }
+
+    // Transacción creada antes con esta clave. La misma clave con otra petición es un error del cliente
+    public Optional<Long> findTransactionId(Long userId, String key, long requestHash) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key debe tener entre 1 y " + MAX_KEY_LENGTH + " caracteres");
+        }
+        if (!filter.mightContain(keyHash(userId, key))) {
+            return Optional.empty();
+        }
+        return idempotencyKeyRepository.findByUserIdAndKey(userId, key).map(existing -> {
+            if (existing.getRequestHash() != requestHash) {
+                throw new BadRequestException("La Idempotency-Key ya se usó con otra solicitud");
+            }
+            return existing.getTransactionId();
+        });
+    }
+
+    // Se llama dentro de la transacción que crea; si otra petición con la misma clave se confirmó
+    // antes, la restricción única lo detecta y esta se deshace
+    public void remember(Long userId, String key, long requestHash, Long transactionId) {
+        long hash = keyHash(userId, key);
+        filter.add(hash);
+        BloomFilter building = next;
+        if (building != null) {
+            building.add(hash);
+        }
+        try {
+            idempotencyKeyRepository.saveAndFlush(IdempotencyKey.builder()
+                    .userId(userId)
+                    .key(key)
+                    .requestHash(requestHash)
+                    .transactionId(transactionId)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("Ya hay una solicitud con esta Idempotency-Key; reintenta para obtener su resultado");
+        }
+    }
+
+    @Scheduled(cron = "${app.idempotency.purge-cron:0 15 4 * * *}")
+    public void purgeExpired() {
+        Integer deleted = transactionTemplate.execute(status ->
+                idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minus(ttl)));
+        log.info("Idempotency-Keys vencidas eliminadas: {}", deleted);
+        rebuild();
+    }
+
+    // Un filtro de Bloom no admite bajas: tras purgar se reconstruye con las claves vigentes
+    synchronized void rebuild() {
+        long count = idempotencyKeyRepository.count();
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedKeys, count * 2), FALSE_POSITIVE_RATE);
+        next = rebuilt;
+        AtomicLong loaded = new AtomicLong();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Object[]> keys = idempotencyKeyRepository.streamUserIdsAndKeys()) {
+                keys.forEach(row -> {
+                    rebuilt.add(keyHash((Long) row[0], (String) row[1]));
+                    loaded.incrementAndGet();
+                });
+            }
+        });
+        filter = rebuilt;
+        next = null;
+        log.debug("Filtro de Idempotency-Keys reconstruido con {} claves", loaded.get());
+    }
+
+    static long requestHash(TransactionRequest request) {
+        return sha256Prefix(request.getBudgetId() + "|" + request.getTransactionDate() + "|"
+                + request.getAmount().stripTrailingZeros().toPlainString() + "|" + request.getType() + "|"
+                + request.getDescription() + "|" + request.getCategoryId() + "|" + request.getNotes());
+    }
+
+    private static long keyHash(Long userId, String key) {
+        return sha256Prefix(userId + "|" + key);
+    }
+
+    private static long sha256Prefix(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
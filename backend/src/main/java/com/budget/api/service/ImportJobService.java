@@ -0,0 +1,249 @@
+package com.budget.api.service;
+
+import com.budget.api.dto.response.ImportJobResponse;
+import com.budget.api.dto.response.ImportResultResponse;
+import com.budget.api.enums.ImportJobStatus;
+import com.budget.api.exception.BadRequestException;
+import com.budget.api.exception.ResourceNotFoundException;
+import com.budget.api.exception.ServiceUnavailableException;
+import com.budget.api.exception.TooManyRequestsException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Importaciones CSV en segundo plano. El archivo se copia a disco antes de responder, el job
+ * corre en un pool propio y acotado (hilos de baja prioridad, separados de los de Tomcat) y
+ * confirma por bloques. El estado vive en memoria y se descarta tras {@code retention}.
+ */
+@Service
+@Slf4j
+public class ImportJobService {
+
+    private final TransactionImportService transactionImportService;
+    private final int maxJobsPerUser;
+    private final Duration retention;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public ImportJobService(TransactionImportService transactionImportService,
+                            @Value("${app.import.jobs.pool-size:2}") int poolSize,
+                            @Value("${app.import.jobs.queue-capacity:20}") int queueCapacity,
+                            @Value("${app.import.jobs.max-per-user:2}") int maxJobsPerUser,
+                            @Value("${app.import.jobs.retention:1h}") Duration retention) {
+        this.transactionImportService = transactionImportService;
+        this.maxJobsPerUser = maxJobsPerUser;
+        this.retention = retention;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "csv-import-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public ImportJobResponse submit(Long userId, Long budgetId, MultipartFile file,
+                                    boolean skipDuplicates) throws IOException {
+        if (file.isEmpty()) {
+            throw new BadRequestException("El archivo está vacío");
+        }
+        purgeExpired();
+
+        ImportJob job;
+        synchronized (this) {
+            long active = jobs.values().stream()
+                    .filter(j -> j.userId.equals(userId) && !j.status.isFinished())
+                    .count();
+            if (active >= maxJobsPerUser) {
+                throw new TooManyRequestsException("Ya tienes " + active + " importaciones en curso");
+            }
+            job = new ImportJob(UUID.randomUUID().toString(), userId, budgetId, skipDuplicates);
+            jobs.put(job.id, job);
+        }
+
+        try {
+            // El multipart se borra al terminar la petición: el job lee su propia copia
+            job.file = Files.createTempFile("import-" + job.id, ".csv");
+            file.transferTo(job.file);
+            job.future = executor.submit(() -> run(job));
+        } catch (IOException | RuntimeException e) {
+            jobs.remove(job.id);
+            deleteQuietly(job.file);
+            if (e instanceof RejectedExecutionException) {
+                throw new ServiceUnavailableException("Hay demasiadas importaciones en cola, intenta más tarde");
+            }
+            throw e;
+        }
+        log.info("Importación {} encolada para presupuesto {} ({} bytes)", job.id, budgetId, file.getSize());
+        return job.toResponse();
+    }
+
+    public ImportJobResponse getStatus(Long userId, String jobId) {
+        return find(userId, jobId).toResponse();
+    }
+
+    public ImportJobResponse cancel(Long userId, String jobId) {
+        ImportJob job = find(userId, jobId);
+        if (!job.status.isFinished()) {
+            job.cancelRequested = true;
+            // En cola todavía: no llega a ejecutarse
+            if (job.future != null && job.future.cancel(false)) {
+                job.finish(ImportJobStatus.CANCELLED, "Cancelada antes de iniciar", null);
+                deleteQuietly(job.file);
+            }
+        }
+        return job.toResponse();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(job -> job.cancelRequested = true);
+        executor.shutdownNow();
+    }
+
+    private void run(ImportJob job) {
+        job.start();
+        try {
+            ImportResultResponse result = transactionImportService.importCsv(job.userId, job.budgetId, job.file,
+                    job.skipDuplicates, job);
+            job.finish(result.isCancelled() ? ImportJobStatus.CANCELLED : ImportJobStatus.COMPLETED,
+                    "Transacciones importadas: " + result.getImported(), result);
+        } catch (Exception e) {
+            log.error("Falló la importación {}", job.id, e);
+            job.finish(ImportJobStatus.FAILED, e.getMessage(), null);
+        } finally {
+            deleteQuietly(job.file);
+        }
+    }
+
+    private ImportJob find(Long userId, String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null || !job.userId.equals(userId)) {
+            throw new ResourceNotFoundException("Importación no encontrada");
+        }
+        return job;
+    }
+
+    private void purgeExpired() {
+        Instant limit = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(limit));
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("No se pudo borrar el archivo temporal {}", file);
+        }
+    }
+
+    private static final class ImportJob implements ImportProgress {
+
+        private final String id;
+        private final Long userId;
+        private final Long budgetId;
+        private final boolean skipDuplicates;
+        private final Instant createdAt = Instant.now();
+        private final AtomicLong parsed = new AtomicLong();
+        private final AtomicLong inserted = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private volatile ImportJobStatus status = ImportJobStatus.QUEUED;
+        private volatile boolean cancelRequested;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile String message;
+        private volatile ImportResultResponse result;
+        private volatile Path file;
+        private volatile Future<?> future;
+
+        private ImportJob(String id, Long userId, Long budgetId, boolean skipDuplicates) {
+            this.id = id;
+            this.userId = userId;
+            this.budgetId = budgetId;
+            this.skipDuplicates = skipDuplicates;
+        }
+
+        synchronized void start() {
+            if (status == ImportJobStatus.QUEUED) {
+                startedAt = Instant.now();
+                status = ImportJobStatus.RUNNING;
+            }
+        }
+
+        synchronized void finish(ImportJobStatus finalStatus, String finalMessage, ImportResultResponse finalResult) {
+            if (!status.isFinished()) {
+                status = finalStatus;
+                message = finalMessage;
+                result = finalResult;
+                finishedAt = Instant.now();
+            }
+        }
+
+        @Override
+        public void rowParsed() {
+            parsed.incrementAndGet();
+        }
+
+        @Override
+        public void rowRejected() {
+            rejected.incrementAndGet();
+        }
+
+        @Override
+        public void rowsInserted(int count) {
+            inserted.addAndGet(count);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelRequested;
+        }
+
+        ImportJobResponse toResponse() {
+            Instant start = startedAt;
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            double seconds = start != null ? Duration.between(start, end).toMillis() / 1000.0 : 0;
+            return ImportJobResponse.builder()
+                    .id(id)
+                    .budgetId(budgetId)
+                    .status(status)
+                    .rowsParsed(parsed.get())
+                    .rowsInserted(inserted.get())
+                    .rowsRejected(rejected.get())
+                    .rowsPerSecond(seconds > 0 ? Math.round(parsed.get() / seconds * 10) / 10.0 : 0)
+                    .createdAt(createdAt)
+                    .startedAt(start)
+                    .finishedAt(finishedAt)
+                    .message(message)
+                    .result(result)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.budget.api.service;
+
+/**
+ * Avance de una importación CSV. Lo implementan los jobs asíncronos para exponer progreso
+ * y pedir la cancelación entre filas.
+ */
+public interface ImportProgress {
+
+    ImportProgress NONE = new ImportProgress() {
+    };
+
+    default void rowParsed() {
+    }
+
+    default void rowRejected() {
+    }
+
+    default void rowsInserted(int count) {
+    }
+
+    default boolean isCancelled() {
+        return false;
+    }
+}
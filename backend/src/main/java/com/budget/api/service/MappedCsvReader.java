@@ -0,0 +1,524 @@
+package com.budget.api.service;
+
+import com.budget.api.enums.TransactionType;
+import com.budget.api.service.CsvService.CsvRow;
+import com.opencsv.CSVParser;
+import com.opencsv.exceptions.CsvMalformedLineException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+
+/**
+ * Lector CSV paralelo sobre un archivo mapeado en memoria. El hilo que llama recorre el archivo
+ * buscando límites de registro con la misma lógica de comillas que {@link CSVParser}, reparte
+ * bloques de unos {@code chunkBytes} entre el pool y entrega las filas en el orden del archivo.
+ * Los campos simples (sin comillas o entre comillas sin escapes raros) se leen directamente de
+ * los bytes; cualquier otro registro se delega en {@link CSVParser}, así que el resultado es el
+ * mismo que el del lector secuencial de {@link CsvService}.
+ */
+final class MappedCsvReader {
+
+    private static final byte QUOTE = '"';
+    private static final byte ESCAPE = '\\';
+    private static final byte SEPARATOR = ',';
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+    private static final byte[] EXPENSE = "EXPENSE".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] INCOME = "INCOME".getBytes(StandardCharsets.US_ASCII);
+
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final int chunkBytes;
+
+    MappedCsvReader(ExecutorService executor, int parallelism, int chunkBytes) {
+        this.executor = executor;
+        this.parallelism = Math.max(1, parallelism);
+        this.chunkBytes = Math.max(1, chunkBytes);
+    }
+
+    void read(Path file, Long budgetId, Consumer<CsvRow> consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), budgetId, consumer);
+        }
+    }
+
+    void read(ByteBuffer buffer, Long budgetId, Consumer<CsvRow> consumer) throws IOException {
+        int size = buffer.limit();
+        boolean parallel = executor != null && size > chunkBytes;
+        RecordScanner scanner = new RecordScanner(buffer, size);
+        Deque<FutureTask<Chunk>> pending = new ArrayDeque<>();
+        int position = 0;
+        long lines = 0;
+        try {
+            while (position < size || !pending.isEmpty()) {
+                // Como mucho parallelism + 1 bloques en vuelo para acotar la memoria
+                while (position < size && pending.size() <= parallelism) {
+                    int start = position;
+                    long startLine = lines;
+                    do {
+                        scanner.scan(position);
+                        position = scanner.next;
+                        lines += scanner.lines;
+                    } while (position < size && position - start < chunkBytes);
+
+                    FutureTask<Chunk> task = new FutureTask<>(
+                            new ChunkParser(buffer.duplicate(), start, position, startLine, start == 0, budgetId));
+                    if (parallel) {
+                        executor.execute(task);
+                    } else {
+                        task.run();
+                    }
+                    pending.add(task);
+                }
+
+                Chunk chunk = await(pending.poll());
+                chunk.rows.forEach(consumer);
+                if (chunk.failure != null) {
+                    throw chunk.failure;
+                }
+            }
+        } finally {
+            pending.forEach(task -> task.cancel(true));
+        }
+    }
+
+    private static Chunk await(FutureTask<Chunk> task) throws IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Lectura del CSV interrumpida");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private record Chunk(List<CsvRow> rows, IOException failure) {
+    }
+
+    /**
+     * Encuentra el final del registro que empieza en una posición. Reproduce los estados
+     * {@code inQuotes}/{@code inField} de CSVParser (separador ',', comillas '"', escape '\')
+     * y los saltos de línea de BufferedReader.readLine ("\n", "\r" o "\r\n").
+     */
+    private static final class RecordScanner {
+
+        private final ByteBuffer buffer;
+        private final int limit;
+        // Fin del contenido (sin el salto de línea), inicio del siguiente registro y líneas físicas leídas
+        private int end;
+        private int next;
+        private int lines;
+        private boolean unterminated;
+
+        private RecordScanner(ByteBuffer buffer, int limit) {
+            this.buffer = buffer;
+            this.limit = limit;
+        }
+
+        void scan(int from) {
+            boolean inQuotes = false;
+            boolean inField = false;
+            lines = 0;
+            int i = from;
+            int lineStart = from;
+            while (i < limit) {
+                byte c = buffer.get(i);
+                if (c == LF || c == CR) {
+                    lines++;
+                    int after = c == CR && i + 1 < limit && buffer.get(i + 1) == LF ? i + 2 : i + 1;
+                    if (!inQuotes) {
+                        end = i;
+                        next = after;
+                        unterminated = false;
+                        return;
+                    }
+                    i = after;
+                    lineStart = after;
+                    continue;
+                }
+                if (c == ESCAPE) {
+                    inField = true;
+                    if (i + 1 < limit && isEscapable(buffer.get(i + 1))) {
+                        i++;
+                    }
+                } else if (c == QUOTE) {
+                    if ((inQuotes || inField) && i + 1 < limit && buffer.get(i + 1) == QUOTE) {
+                        i++;
+                    } else {
+                        inQuotes = !inQuotes;
+                    }
+                    inField = !inField;
+                } else if (c == SEPARATOR && !inQuotes) {
+                    inField = false;
+                } else {
+                    inField = true;
+                }
+                i++;
+            }
+            // Última línea sin salto final: readLine la cuenta si tiene contenido
+            if (i > lineStart) {
+                lines++;
+            }
+            end = limit;
+            next = limit;
+            unterminated = inQuotes;
+        }
+
+        private static boolean isEscapable(byte c) {
+            return c == QUOTE || c == ESCAPE || c == SEPARATOR;
+        }
+    }
+
+    private static final class ChunkParser implements Callable<Chunk> {
+
+        private final ByteBuffer buffer;
+        private final int start;
+        private final int limit;
+        private final long startLine;
+        private final boolean skipHeader;
+        private final Long budgetId;
+        private final RecordFields fields = new RecordFields();
+        private CSVParser parser;
+        private byte[] scratch = new byte[256];
+
+        private ChunkParser(ByteBuffer buffer, int start, int limit, long startLine, boolean skipHeader,
+                            Long budgetId) {
+            this.buffer = buffer;
+            this.start = start;
+            this.limit = limit;
+            this.startLine = startLine;
+            this.skipHeader = skipHeader;
+            this.budgetId = budgetId;
+        }
+
+        @Override
+        public Chunk call() throws IOException {
+            List<CsvRow> rows = new ArrayList<>();
+            RecordScanner scanner = new RecordScanner(buffer, limit);
+            long line = startLine;
+            boolean header = skipHeader;
+            for (int position = start; position < limit; position = scanner.next) {
+                long firstLine = line + 1;
+                scanner.scan(position);
+                line += scanner.lines;
+                if (scanner.unterminated) {
+                    String pendingText = decode(position, scanner.end);
+                    return new Chunk(rows, new CsvMalformedLineException(
+                            "Un-terminated quoted field at end of CSV file: " + pendingText, firstLine, pendingText));
+                }
+                if (header) {
+                    header = false;
+                    continue;
+                }
+                if (!fields.split(position, scanner.end)) {
+                    fields.values = parseWithOpenCsv(position, scanner.end);
+                }
+                CsvRow row = CsvService.toRow(line, fields, budgetId);
+                if (row != null) {
+                    rows.add(row);
+                }
+            }
+            return new Chunk(rows, null);
+        }
+
+        // Mismo camino que CSVReader: una llamada a parseLineMulti por línea física
+        private String[] parseWithOpenCsv(int from, int to) throws IOException {
+            if (parser == null) {
+                parser = new CSVParser();
+            }
+            String text = decode(from, to);
+            String[] result = null;
+            int lineStart = 0;
+            for (int i = 0; i <= text.length(); i++) {
+                char c = i < text.length() ? text.charAt(i) : '\n';
+                if (c != '\n' && c != '\r') {
+                    continue;
+                }
+                String[] values = parser.parseLineMulti(text.substring(lineStart, i));
+                if (values.length > 0) {
+                    result = result == null ? values : concat(result, values);
+                }
+                if (c == '\r' && i + 1 < text.length() && text.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                lineStart = i + 1;
+            }
+            if (parser.isPending()) {
+                throw new IllegalStateException("Registro CSV incompleto en la posición " + from);
+            }
+            return result;
+        }
+
+        private static String[] concat(String[] first, String[] second) {
+            String[] joined = Arrays.copyOf(first, first.length + second.length);
+            System.arraycopy(second, 0, joined, first.length, second.length);
+            return joined;
+        }
+
+        private String decode(int from, int to) {
+            int length = to - from;
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(from, scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Campos del registro actual como rangos de bytes. {@code values} queda con el resultado
+         * de CSVParser cuando el registro no se pudo dividir por el camino rápido.
+         */
+        private final class RecordFields implements CsvService.Fields {
+
+            private int count;
+            private int[] starts = new int[8];
+            private int[] ends = new int[8];
+            private boolean[] escaped = new boolean[8];
+            private final String[] decoded = new String[8];
+            private String[] values;
+
+            // Divide el registro si todos sus campos son simples; false si hay que delegar en CSVParser
+            boolean split(int from, int to) {
+                count = 0;
+                values = null;
+                Arrays.fill(decoded, null);
+                int p = from;
+                while (true) {
+                    if (p < to && buffer.get(p) == QUOTE) {
+                        int q = p + 1;
+                        boolean doubled = false;
+                        while (true) {
+                            if (q >= to) {
+                                return false;
+                            }
+                            byte c = buffer.get(q);
+                            if (c == QUOTE) {
+                                if (q + 1 < to && buffer.get(q + 1) == QUOTE) {
+                                    doubled = true;
+                                    q += 2;
+                                    continue;
+                                }
+                                break;
+                            }
+                            if (c == ESCAPE || c == CR) {
+                                return false;
+                            }
+                            q++;
+                        }
+                        add(p + 1, q, doubled);
+                        p = q + 1;
+                        if (p == to) {
+                            return true;
+                        }
+                        if (buffer.get(p) != SEPARATOR) {
+                            return false;
+                        }
+                        p++;
+                    } else {
+                        int q = p;
+                        while (q < to) {
+                            byte c = buffer.get(q);
+                            if (c == SEPARATOR) {
+                                break;
+                            }
+                            if (c == QUOTE || c == ESCAPE) {
+                                return false;
+                            }
+                            q++;
+                        }
+                        add(p, q, false);
+                        if (q == to) {
+                            return true;
+                        }
+                        p = q + 1;
+                    }
+                }
+            }
+
+            private void add(int from, int to, boolean doubled) {
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                    ends = Arrays.copyOf(ends, count * 2);
+                    escaped = Arrays.copyOf(escaped, count * 2);
+                }
+                starts[count] = from;
+                ends[count] = to;
+                escaped[count] = doubled;
+                count++;
+            }
+
+            @Override
+            public int size() {
+                return values != null ? values.length : count;
+            }
+
+            @Override
+            public String get(int index) {
+                if (values != null) {
+                    return values[index];
+                }
+                if (index < decoded.length && decoded[index] != null) {
+                    return decoded[index];
+                }
+                String text = decode(starts[index], ends[index]);
+                if (escaped[index]) {
+                    text = text.replace("\"\"", "\"");
+                }
+                if (index < decoded.length) {
+                    decoded[index] = text;
+                }
+                return text;
+            }
+
+            @Override
+            public LocalDate date(int index) {
+                if (values == null && !escaped[index]) {
+                    LocalDate date = parseDate(index);
+                    if (date != null) {
+                        return date;
+                    }
+                }
+                return CsvService.Fields.super.date(index);
+            }
+
+            @Override
+            public BigDecimal amount(int index) {
+                if (values == null && !escaped[index]) {
+                    BigDecimal amount = parseAmount(index);
+                    if (amount != null) {
+                        return amount;
+                    }
+                }
+                return CsvService.Fields.super.amount(index);
+            }
+
+            @Override
+            public TransactionType type(int index) {
+                if (values == null && !escaped[index]) {
+                    int from = trimStart(index);
+                    int to = trimEnd(index, from);
+                    if (matches(from, to, EXPENSE)) {
+                        return TransactionType.EXPENSE;
+                    }
+                    if (matches(from, to, INCOME)) {
+                        return TransactionType.INCOME;
+                    }
+                }
+                return CsvService.Fields.super.type(index);
+            }
+
+            // yyyy-MM-dd sin crear String; null para que el formateador decida (y falle igual)
+            private LocalDate parseDate(int index) {
+                int from = trimStart(index);
+                int to = trimEnd(index, from);
+                if (to - from != 10 || buffer.get(from + 4) != '-' || buffer.get(from + 7) != '-') {
+                    return null;
+                }
+                int year = digits(from, 4);
+                int month = digits(from + 5, 2);
+                int day = digits(from + 8, 2);
+                if (year < 1 || month < 1 || month > 12 || day < 1 || day > 31) {
+                    return null;
+                }
+                // ResolverStyle.SMART lleva el 31 de abril o el 30 de febrero al último día del mes
+                return LocalDate.of(year, month, Math.min(day, Month.of(month).length(Year.isLeap(year))));
+            }
+
+            // Decimal simple (signo negativo opcional, hasta 18 dígitos); lo demás lo resuelve BigDecimal
+            private BigDecimal parseAmount(int index) {
+                int from = trimStart(index);
+                int to = trimEnd(index, from);
+                int p = from;
+                boolean negative = p < to && buffer.get(p) == '-';
+                if (negative) {
+                    p++;
+                }
+                long unscaled = 0;
+                int digitCount = 0;
+                int scale = -1;
+                for (; p < to; p++) {
+                    byte c = buffer.get(p);
+                    if (c == '.' && scale < 0) {
+                        scale = 0;
+                        continue;
+                    }
+                    if (c < '0' || c > '9' || ++digitCount > 18) {
+                        return null;
+                    }
+                    unscaled = unscaled * 10 + (c - '0');
+                    if (scale >= 0) {
+                        scale++;
+                    }
+                }
+                if (digitCount == 0 || scale == 0) {
+                    return null;
+                }
+                return BigDecimal.valueOf(negative ? -unscaled : unscaled, Math.max(scale, 0));
+            }
+
+            private int digits(int from, int length) {
+                int value = 0;
+                for (int p = from; p < from + length; p++) {
+                    byte c = buffer.get(p);
+                    if (c < '0' || c > '9') {
+                        return -1;
+                    }
+                    value = value * 10 + (c - '0');
+                }
+                return value;
+            }
+
+            // Mismo criterio que String.trim: fuera todo byte <= ' '
+            private int trimStart(int index) {
+                int p = starts[index];
+                while (p < ends[index] && (buffer.get(p) & 0xff) <= ' ') {
+                    p++;
+                }
+                return p;
+            }
+
+            private int trimEnd(int index, int from) {
+                int p = ends[index];
+                while (p > from && (buffer.get(p - 1) & 0xff) <= ' ') {
+                    p--;
+                }
+                return p;
+            }
+
+            private boolean matches(int from, int to, byte[] expected) {
+                if (to - from != expected.length) {
+                    return false;
+                }
+                for (int i = 0; i < expected.length; i++) {
+                    if (buffer.get(from + i) != expected[i]) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.budget.api.service;
+
+import com.budget.api.cache.DashboardCache;
+import com.budget.api.entity.Category;
+import com.budget.api.entity.MonthlyRollup;
+import com.budget.api.entity.Transaction;
+import com.budget.api.enums.ExpenseType;
+import com.budget.api.enums.TransactionType;
+import com.budget.api.repository.MonthlyRollupRepository;
+import com.budget.api.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MonthlyRollupService {
+
+    private final MonthlyRollupRepository monthlyRollupRepository;
+    private final TransactionRepository transactionRepository;
+    private final DashboardCache dashboardCache;
+
+    record Key(Long budgetId, LocalDate monthStart, TransactionType type, Long categoryId) {
+    }
+
+    // Suma la transacción a su fila mensual; debe llamarse dentro de la transacción que la persiste
+    @Transactional
+    public void add(Transaction transaction) {
+        apply(transaction, 1);
+    }
+
+    // Resta la transacción de su fila mensual (eliminación o antes de modificarla)
+    @Transactional
+    public void subtract(Transaction transaction) {
+        apply(transaction, -1);
+    }
+
+    // Importaciones masivas: acumula por fila mensual y actualiza cada fila una sola vez
+    @Transactional
+    public void addAll(Collection<Transaction> transactions) {
+        Map<Key, MonthlyRollup> deltas = new LinkedHashMap<>();
+        for (Transaction transaction : transactions) {
+            if (Boolean.TRUE.equals(transaction.getDeleted())) {
+                continue;
+            }
+            MonthlyRollup rollup = emptyRollup(transaction);
+            MonthlyRollup delta = deltas.computeIfAbsent(keyOf(rollup), key -> rollup);
+            delta.setAmount(delta.getAmount().add(transaction.getAmount()));
+            delta.setTransactionCount(delta.getTransactionCount() + 1);
+        }
+        deltas.values().forEach(this::applyDelta);
+    }
+
+    @Transactional
+    public void updateExpenseType(Long categoryId, ExpenseType expenseType) {
+        int updated = monthlyRollupRepository.updateExpenseType(categoryId, expenseType);
+        log.debug("Rollups actualizados para categoría {}: {}", categoryId, updated);
+    }
+
+    @Transactional
+    public int rebuild(Long userId) {
+        if (userId != null) {
+            monthlyRollupRepository.deleteByUserId(userId);
+        } else {
+            monthlyRollupRepository.deleteAllInBatch();
+        }
+
+        List<MonthlyRollup> rollups = new ArrayList<>();
+        for (Object[] row : transactionRepository.aggregateMonthlyRollups(userId)) {
+            rollups.add(MonthlyRollup.builder()
+                    .userId((Long) row[0])
+                    .budgetId((Long) row[1])
+                    .monthStart(LocalDate.of((Integer) row[2], (Integer) row[3], 1))
+                    .type((TransactionType) row[4])
+                    .categoryId((Long) row[5])
+                    .expenseType((ExpenseType) row[6])
+                    .amount((BigDecimal) row[7])
+                    .transactionCount((Long) row[8])
+                    .build());
+        }
+        monthlyRollupRepository.saveAll(rollups);
+        if (userId != null) {
+            dashboardCache.invalidateUser(userId);
+        } else {
+            dashboardCache.invalidateAll();
+        }
+        log.info("Rollups mensuales regenerados{}: {} filas",
+                userId != null ? " para usuario " + userId : "", rollups.size());
+        return rollups.size();
+    }
+
+    // Compara los rollups con las sumas de la tabla de transacciones y devuelve las diferencias
+    @Transactional(readOnly = true)
+    public List<String> verify(Long userId) {
+        Map<Key, MonthlyRollup> expected = new HashMap<>();
+        for (Object[] row : transactionRepository.aggregateMonthlyRollups(userId)) {
+            Key key = new Key((Long) row[1], LocalDate.of((Integer) row[2], (Integer) row[3], 1),
+                    (TransactionType) row[4], (Long) row[5]);
+            expected.put(key, MonthlyRollup.builder()
+                    .expenseType((ExpenseType) row[6])
+                    .amount((BigDecimal) row[7])
+                    .transactionCount((Long) row[8])
+                    .build());
+        }
+
+        List<MonthlyRollup> actual = userId != null
+                ? monthlyRollupRepository.findByUserId(userId)
+                : monthlyRollupRepository.findAll();
+
+        List<String> mismatches = new ArrayList<>();
+        Set<Key> seen = new HashSet<>();
+        for (MonthlyRollup rollup : actual) {
+            Key key = keyOf(rollup);
+            if (!seen.add(key)) {
+                mismatches.add("Rollup duplicado " + key);
+                continue;
+            }
+            MonthlyRollup reference = expected.get(key);
+            if (reference == null) {
+                if (rollup.getTransactionCount() != 0 || rollup.getAmount().signum() != 0) {
+                    mismatches.add("Rollup sin transacciones " + key + ": " + rollup.getAmount());
+                }
+            } else if (reference.getAmount().compareTo(rollup.getAmount()) != 0
+                    || !reference.getTransactionCount().equals(rollup.getTransactionCount())
+                    || reference.getExpenseType() != rollup.getExpenseType()) {
+                mismatches.add("Rollup inconsistente " + key + ": esperado " + reference.getAmount()
+                        + " (" + reference.getTransactionCount() + "), actual " + rollup.getAmount()
+                        + " (" + rollup.getTransactionCount() + ")");
+            }
+        }
+        for (Key key : expected.keySet()) {
+            if (!seen.contains(key)) {
+                mismatches.add("Rollup faltante " + key + ": esperado " + expected.get(key).getAmount());
+            }
+        }
+
+        mismatches.forEach(log::warn);
+        return mismatches;
+    }
+
+    private void apply(Transaction transaction, int sign) {
+        if (Boolean.TRUE.equals(transaction.getDeleted())) {
+            return;
+        }
+        MonthlyRollup delta = emptyRollup(transaction);
+        delta.setAmount(sign > 0 ? transaction.getAmount() : transaction.getAmount().negate());
+        delta.setTransactionCount((long) sign);
+        applyDelta(delta);
+    }
+
+    private void applyDelta(MonthlyRollup delta) {
+        MonthlyRollup rollup = monthlyRollupRepository
+                .findByBudgetIdAndMonthStartAndTypeAndCategoryId(delta.getBudgetId(), delta.getMonthStart(),
+                        delta.getType(), delta.getCategoryId())
+                .orElseGet(() -> MonthlyRollup.builder()
+                        .userId(delta.getUserId())
+                        .budgetId(delta.getBudgetId())
+                        .monthStart(delta.getMonthStart())
+                        .type(delta.getType())
+                        .categoryId(delta.getCategoryId())
+                        .expenseType(delta.getExpenseType())
+                        .build());
+
+        rollup.setAmount(rollup.getAmount().add(delta.getAmount()));
+        rollup.setTransactionCount(rollup.getTransactionCount() + delta.getTransactionCount());
+
+        if (rollup.getTransactionCount() <= 0 && rollup.getId() != null) {
+            monthlyRollupRepository.delete(rollup);
+        } else if (rollup.getTransactionCount() > 0) {
+            monthlyRollupRepository.save(rollup);
+        }
+    }
+
+    // Fila con la clave de la transacción y monto/conteo en cero
+    private static MonthlyRollup emptyRollup(Transaction transaction) {
+        Category category = transaction.getCategory();
+        return MonthlyRollup.builder()
+                .userId(transaction.getUser().getId())
+                .budgetId(transaction.getBudget().getId())
+                .monthStart(transaction.getTransactionDate().withDayOfMonth(1))
+                .type(transaction.getType())
+                .categoryId(category != null ? category.getId() : null)
+                .expenseType(category != null ? category.getExpenseType() : null)
+                .build();
+    }
+
+    private static Key keyOf(MonthlyRollup rollup) {
+        return new Key(rollup.getBudgetId(), rollup.getMonthStart(), rollup.getType(), rollup.getCategoryId());
+    }
+}
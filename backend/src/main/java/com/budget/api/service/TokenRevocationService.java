@@ -0,0 +1,101 @@
+package com.budget.api.service;
+
+import com.budget.api.entity.RevokedToken;
+import com.budget.api.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ids revocados de tokens (jti) y de familias de refresh tokens. La consulta de
+ * JwtAuthenticationFilter pasa primero por un filtro de Bloom: para un token no revocado, el caso
+ * normal, cuesta unos nanosegundos y no toca el mapa exacto. Cada id se guarda hasta que expira
+ * el último token al que afecta.
+ *
+ * <p>Las revocaciones se escriben en revoked_tokens. Al arrancar y cada {@code sync-interval} se
+ * recarga la tabla: recupera el estado tras un reinicio, trae las revocaciones de otras instancias
+ * y descarta las expiradas, reconstruyendo el filtro.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final int expectedTokens;
+    private final Map<String, LocalDateTime> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  @Value("${app.security.revocation.expected-tokens:100000}") int expectedTokens) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedTokens = expectedTokens;
+        this.filter = new BloomFilter(expectedTokens, 0.01);
+    }
+
+    @PostConstruct
+    void load() {
+        sync();
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && filter.mightContain(key(tokenId)) && revoked.containsKey(tokenId);
+    }
+
+    // Devuelve false si ya estaba revocado: para un refresh token, señal de reutilización
+    public boolean revoke(String tokenId, LocalDateTime expiresAt) {
+        synchronized (this) {
+            if (revoked.putIfAbsent(tokenId, expiresAt) != null) {
+                return false;
+            }
+            filter.add(key(tokenId));
+        }
+        try {
+            revokedTokenRepository.save(RevokedToken.builder().tokenId(tokenId).expiresAt(expiresAt).build());
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Otra instancia lo revocó a la vez
+            return false;
+        }
+    }
+
+    @Scheduled(fixedDelayString =
+            "#{T(com.budget.api.config.SchedulingConfig).millis('${app.security.revocation.sync-interval:1m}')}")
+    public void sync() {
+        LocalDateTime now = LocalDateTime.now();
+        int purged = revokedTokenRepository.deleteExpired(now);
+        Map<String, LocalDateTime> current = new ConcurrentHashMap<>();
+        revokedTokenRepository.findByExpiresAtAfter(now)
+                .forEach(token -> current.put(token.getTokenId(), token.getExpiresAt()));
+        // Bajo el mismo lock que revoke: una revocación concurrente no puede quedar fuera del filtro nuevo
+        synchronized (this) {
+            revoked.forEach((id, expiresAt) -> {
+                if (expiresAt.isAfter(now)) {
+                    current.putIfAbsent(id, expiresAt);
+                }
+            });
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedTokens, current.size() * 2L), 0.01);
+            current.keySet().forEach(id -> rebuilt.add(key(id)));
+            revoked.keySet().retainAll(current.keySet());
+            revoked.putAll(current);
+            filter = rebuilt;
+        }
+        log.debug("Tokens revocados: {} en memoria, {} expirados purgados", current.size(), purged);
+    }
+
+    // FNV-1a de 64 bits; BloomFilter deriva el resto de posiciones
+    private static long key(String tokenId) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < tokenId.length(); i++) {
+            hash ^= tokenId.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,120 @@
+package com.budget.api.service;
+
+import com.budget.api.repository.ArchivedTransactionRepository;
+import com.budget.api.repository.IdempotencyKeyRepository;
+import com.budget.api.repository.TransactionRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Saca de transactions las filas eliminadas hace más de {@code app.transactions.archive.retention}
+ * y las guarda en transactions_archive, de donde se purgan pasado {@code purge-after}. Trabaja en
+ * lotes acotados, cada uno en su propia transacción corta, y solo bloquea filas ya eliminadas:
+ * las escrituras normales no compiten con él.
+ */
+@Service
+@Slf4j
+public class TransactionArchiveService {
+
+    private final TransactionRepository transactionRepository;
+    private final ArchivedTransactionRepository archivedTransactionRepository;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final DistributionSummary archivedRows;
+    private final DistributionSummary purgedRows;
+    private final boolean enabled;
+    private final Duration retention;
+    private final Duration purgeAfter;
+    private final int batchSize;
+    private final int maxBatches;
+
+    public TransactionArchiveService(TransactionRepository transactionRepository,
+                                     ArchivedTransactionRepository archivedTransactionRepository,
+                                     IdempotencyKeyRepository idempotencyKeyRepository,
+                                     TransactionTemplate transactionTemplate,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.transactions.archive.enabled:true}") boolean enabled,
+                                     @Value("${app.transactions.archive.retention:30d}") Duration retention,
+                                     @Value("${app.transactions.archive.purge-after:365d}") Duration purgeAfter,
+                                     @Value("${app.transactions.archive.batch-size:1000}") int batchSize,
+                                     @Value("${app.transactions.archive.max-batches:100}") int maxBatches) {
+        this.transactionRepository = transactionRepository;
+        this.archivedTransactionRepository = archivedTransactionRepository;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.retention = retention;
+        this.purgeAfter = purgeAfter;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.archivedRows = DistributionSummary.builder("transactions.archive.rows")
+                .description("Filas procesadas por ejecución del archivado")
+                .tag("operation", "archived")
+                .register(meterRegistry);
+        this.purgedRows = DistributionSummary.builder("transactions.archive.rows")
+                .description("Filas procesadas por ejecución del archivado")
+                .tag("operation", "purged")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.transactions.archive.cron:0 0 5 * * *}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        archive();
+        purge();
+    }
+
+    public int archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        long started = System.nanoTime();
+        int moved = inBatches(() -> transactionTemplate.execute(status -> {
+            List<Long> ids = transactionRepository.findIdsDeletedBefore(cutoff, Limit.of(batchSize));
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            idempotencyKeyRepository.deleteByTransactionIdIn(ids);
+            archivedTransactionRepository.copyFromTransactions(ids, LocalDateTime.now());
+            return transactionRepository.deleteDeletedByIdIn(ids);
+        }));
+        archivedRows.record(moved);
+        log.info("Transacciones eliminadas archivadas: {} en {} ms", moved, (System.nanoTime() - started) / 1_000_000);
+        return moved;
+    }
+
+    public int purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(purgeAfter);
+        int purged = inBatches(() -> transactionTemplate.execute(status -> {
+            List<Long> ids = archivedTransactionRepository.findIdsArchivedBefore(cutoff, Limit.of(batchSize));
+            return ids.isEmpty() ? 0 : archivedTransactionRepository.deleteByIdIn(ids);
+        }));
+        purgedRows.record(purged);
+        log.info("Transacciones archivadas purgadas: {}", purged);
+        return purged;
+    }
+
+    // Como mucho max-batches lotes por ejecución; lo que quede pasa a la siguiente
+    private int inBatches(Supplier<Integer> batch) {
+        int total = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            int processed = batch.get();
+            total += processed;
+            if (processed < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,199 @@
+package com.budget.api.service;
+
+import com.budget.api.cache.DashboardCache;
+import com.budget.api.dto.request.TransactionRequest;
+import com.budget.api.dto.response.TransactionBatchResponse;
+import com.budget.api.dto.response.TransactionResponse;
+import com.budget.api.entity.Budget;
+import com.budget.api.entity.Category;
+import com.budget.api.entity.Transaction;
+import com.budget.api.enums.TransactionType;
+import com.budget.api.exception.BadRequestException;
+import com.budget.api.mapper.TransactionMapper;
+import com.budget.api.repository.BudgetRepository;
+import com.budget.api.repository.CategoryRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Alta de varias transacciones en una sola petición. Presupuestos y categorías se cargan con una
+ * consulta cada uno, el límite de cada presupuesto se aplica con reservas en memoria y las filas
+ * válidas se insertan con lotes JDBC en una sola transacción.
+ * Cada elemento recibe su propio resultado; uno inválido no impide guardar los demás.
+ */
+@Service
+@Slf4j
+public class TransactionBatchService {
+
+    private final BudgetRepository budgetRepository;
+    private final CategoryRepository categoryRepository;
+    private final TransactionMapper transactionMapper;
+    private final MonthlyRollupService monthlyRollupService;
+    private final BudgetReservations budgetReservations;
+    private final DashboardCache dashboardCache;
+    private final TransactionSearchIndex transactionSearchIndex;
+    private final TransactionSuggestionService transactionSuggestionService;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final int batchSize;
+    private final int maxItems;
+
+    public TransactionBatchService(BudgetRepository budgetRepository,
+                                   CategoryRepository categoryRepository,
+                                   TransactionMapper transactionMapper,
+                                   MonthlyRollupService monthlyRollupService,
+                                   BudgetReservations budgetReservations,
+                                   DashboardCache dashboardCache,
+                                   TransactionSearchIndex transactionSearchIndex,
+                                   TransactionSuggestionService transactionSuggestionService,
+                                   Validator validator,
+                                   EntityManager entityManager,
+                                   @Value("${app.import.batch-size:500}") int batchSize,
+                                   @Value("${app.transactions.batch.max-size:1000}") int maxItems) {
+        this.budgetRepository = budgetRepository;
+        this.categoryRepository = categoryRepository;
+        this.transactionMapper = transactionMapper;
+        this.monthlyRollupService = monthlyRollupService;
+        this.budgetReservations = budgetReservations;
+        this.dashboardCache = dashboardCache;
+        this.transactionSearchIndex = transactionSearchIndex;
+        this.transactionSuggestionService = transactionSuggestionService;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+        this.maxItems = maxItems;
+    }
+
+    @Transactional
+    public TransactionBatchResponse createAll(Long userId, List<TransactionRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new BadRequestException("El lote no contiene transacciones");
+        }
+        if (requests.size() > maxItems) {
+            throw new BadRequestException("El lote admite como máximo " + maxItems + " transacciones");
+        }
+
+        Map<Long, Budget> budgets = budgetRepository.findByIdInAndUserId(
+                        ids(requests, TransactionRequest::getBudgetId), userId).stream()
+                .collect(Collectors.toMap(Budget::getId, Function.identity()));
+        Map<Long, Category> categories = categoryRepository.findAllById(
+                        ids(requests, TransactionRequest::getCategoryId)).stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+        Map<Long, BigDecimal> expenses = new HashMap<>();
+        Map<Long, BigDecimal> income = new HashMap<>();
+
+        Transaction[] accepted = new Transaction[requests.size()];
+        String[] errors = new String[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            TransactionRequest request = requests.get(i);
+            if (request == null) {
+                errors[i] = "Elemento vacío";
+                continue;
+            }
+            String violations = validator.validate(request).stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            if (!violations.isEmpty()) {
+                errors[i] = violations;
+                continue;
+            }
+
+            Budget budget = budgets.get(request.getBudgetId());
+            if (budget == null) {
+                errors[i] = "Presupuesto no encontrado";
+                continue;
+            }
+            Category category = null;
+            if (request.getCategoryId() != null) {
+                category = categories.get(request.getCategoryId());
+                if (category == null) {
+                    errors[i] = "Categoría no encontrada";
+                    continue;
+                }
+            }
+
+            // Mismo criterio que TransactionService.create; las reservas del lote se suman entre sí
+            if (request.getType() == TransactionType.EXPENSE) {
+                BudgetReservations.Outcome outcome = budgetReservations.tryReserve(
+                        budget.getId(), request.getAmount(), budget.getTotalAmount());
+                if (!outcome.reserved()) {
+                    errors[i] = String.format("Este gasto excede el presupuesto '%s'. Gastado: %s / %s",
+                            budget.getName(), outcome.spent(), budget.getTotalAmount());
+                    continue;
+                }
+                expenses.merge(budget.getId(), request.getAmount(), BigDecimal::add);
+            } else {
+                income.merge(budget.getId(), request.getAmount(), BigDecimal::add);
+            }
+
+            Transaction transaction = transactionMapper.toEntity(request);
+            transaction.setBudget(budget);
+            transaction.setUser(budget.getUser());
+            transaction.setCategory(category);
+            accepted[i] = transaction;
+        }
+
+        List<Transaction> toInsert = new ArrayList<>();
+        for (Transaction transaction : accepted) {
+            if (transaction != null) {
+                toInsert.add(transaction);
+            }
+        }
+        if (!toInsert.isEmpty()) {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            toInsert.forEach(entityManager::persist);
+            // Igual que en la importación: vaciar el contexto antes de las consultas de rollups
+            entityManager.flush();
+            entityManager.clear();
+            // En orden de id: dos lotes con presupuestos en común bloquean sus filas en el mismo orden
+            budgets.keySet().stream()
+                    .sorted()
+                    .filter(budgetId -> expenses.containsKey(budgetId) || income.containsKey(budgetId))
+                    .forEach(budgetId -> budgetRepository.addTotals(budgetId,
+                            expenses.getOrDefault(budgetId, BigDecimal.ZERO),
+                            income.getOrDefault(budgetId, BigDecimal.ZERO)));
+            monthlyRollupService.addAll(toInsert);
+            dashboardCache.invalidateUser(userId);
+            transactionSearchIndex.invalidate(userId);
+            transactionSuggestionService.invalidate(userId);
+        }
+
+        List<TransactionBatchResponse.ItemResult> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            TransactionResponse response = accepted[i] != null ? transactionMapper.toResponse(accepted[i]) : null;
+            results.add(new TransactionBatchResponse.ItemResult(i, response != null, response, errors[i]));
+        }
+        log.info("Lote de transacciones del usuario {}: {} creadas, {} rechazadas",
+                userId, toInsert.size(), requests.size() - toInsert.size());
+        return TransactionBatchResponse.builder()
+                .created(toInsert.size())
+                .failed(requests.size() - toInsert.size())
+                .results(results)
+                .build();
+    }
+
+    private static List<Long> ids(List<TransactionRequest> requests, Function<TransactionRequest, Long> id) {
+        return requests.stream()
+                .filter(Objects::nonNull)
+                .map(id)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+}
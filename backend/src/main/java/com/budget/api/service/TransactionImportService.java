@@ -0,0 +1,352 @@
+package com.budget.api.service;
+
+import com.budget.api.cache.DashboardCache;
+import com.budget.api.dto.request.TransactionRequest;
+import com.budget.api.dto.response.ImportResultResponse;
+import com.budget.api.entity.Budget;
+import com.budget.api.entity.Category;
+import com.budget.api.entity.Transaction;
+import com.budget.api.enums.TransactionType;
+import com.budget.api.exception.ResourceNotFoundException;
+import com.budget.api.mapper.TransactionMapper;
+import com.budget.api.repository.BudgetRepository;
+import com.budget.api.repository.CategoryRepository;
+import com.budget.api.repository.TransactionRepository;
+import com.opencsv.exceptions.CsvValidationException;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Importación masiva de transacciones desde CSV. El presupuesto y las categorías se cargan una vez,
+ * el límite del presupuesto se controla con un total acumulado en memoria y las filas se insertan
+ * en lotes JDBC, con un commit por bloque. Cada bloque revalida el límite reservando sus gastos en
+ * BudgetReservations y actualiza el contador. Las filas inválidas se informan sin detener la importación.
+ */
+@Service
+@Slf4j
+public class TransactionImportService {
+
+    private record PendingRow(long line, Transaction transaction) {
+    }
+
+    private record ContentKey(LocalDate date, BigDecimal amount, String description) {
+    }
+
+    private static final class ImportCancelledException extends RuntimeException {
+        private ImportCancelledException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final double DUPLICATE_FILTER_FALSE_POSITIVE_RATE = 0.01;
+
+    private final BudgetRepository budgetRepository;
+    private final CategoryRepository categoryRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionMapper transactionMapper;
+    private final MonthlyRollupService monthlyRollupService;
+    private final BudgetReservations budgetReservations;
+    private final CsvService csvService;
+    private final DashboardCache dashboardCache;
+    private final TransactionSearchIndex transactionSearchIndex;
+    private final TransactionSuggestionService transactionSuggestionService;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final int batchSize;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    public TransactionImportService(BudgetRepository budgetRepository,
+                                    CategoryRepository categoryRepository,
+                                    TransactionRepository transactionRepository,
+                                    TransactionMapper transactionMapper,
+                                    MonthlyRollupService monthlyRollupService,
+                                    BudgetReservations budgetReservations,
+                                    CsvService csvService,
+                                    DashboardCache dashboardCache,
+                                    TransactionSearchIndex transactionSearchIndex,
+                                    TransactionSuggestionService transactionSuggestionService,
+                                    Validator validator,
+                                    TransactionTemplate transactionTemplate,
+                                    EntityManager entityManager,
+                                    @Value("${app.import.batch-size:500}") int batchSize,
+                                    @Value("${app.import.chunk-size:5000}") int chunkSize,
+                                    @Value("${app.import.max-errors:1000}") int maxErrors) {
+        this.budgetRepository = budgetRepository;
+        this.categoryRepository = categoryRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionMapper = transactionMapper;
+        this.monthlyRollupService = monthlyRollupService;
+        this.budgetReservations = budgetReservations;
+        this.csvService = csvService;
+        this.dashboardCache = dashboardCache;
+        this.transactionSearchIndex = transactionSearchIndex;
+        this.transactionSuggestionService = transactionSuggestionService;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+    }
+
+    // Copia la subida a un archivo temporal para poder mapearlo y leerlo en paralelo
+    public ImportResultResponse importCsv(Long userId, Long budgetId, InputStream inputStream,
+                                          boolean skipDuplicates) throws IOException, CsvValidationException {
+        Path file = Files.createTempFile("import-", ".csv");
+        try {
+            Files.copy(inputStream, file, StandardCopyOption.REPLACE_EXISTING);
+            return importCsv(userId, budgetId, file, skipDuplicates, ImportProgress.NONE);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Si se cancela, los bloques ya confirmados se conservan y el pendiente se descarta. Con
+    // skipDuplicates se omiten las filas con la misma fecha, monto y descripción que una transacción
+    // del presupuesto (incluidas las importadas antes en el mismo archivo)
+    public ImportResultResponse importCsv(Long userId, Long budgetId, Path file, boolean skipDuplicates,
+                                          ImportProgress progress) throws IOException, CsvValidationException {
+        Run run = transactionTemplate.execute(status -> start(userId, budgetId, skipDuplicates, progress));
+
+        boolean cancelled = false;
+        try {
+            csvService.readTransactions(file, budgetId, row -> {
+                if (progress.isCancelled()) {
+                    throw new ImportCancelledException();
+                }
+                progress.rowParsed();
+                if (row.error() != null) {
+                    run.reject(row.line(), row.error());
+                    return;
+                }
+                run.accept(row.line(), row.request(), row.categoryName());
+                if (run.pending.size() >= chunkSize) {
+                    run.flush();
+                }
+            });
+            run.flush();
+        } catch (ImportCancelledException e) {
+            cancelled = true;
+            log.info("Importación en presupuesto {} cancelada", budgetId);
+        }
+
+        if (run.imported > 0) {
+            dashboardCache.invalidateUser(userId);
+            transactionSearchIndex.invalidate(userId);
+            transactionSuggestionService.invalidate(userId);
+        }
+        log.info("Importación CSV en presupuesto {}: {} importadas, {} rechazadas, {} duplicadas",
+                budgetId, run.imported, run.failed, run.duplicates);
+        return ImportResultResponse.builder()
+                .imported(run.imported)
+                .failed(run.failed)
+                .duplicates(run.duplicates)
+                .errors(run.errors)
+                .errorsTruncated(run.failed > run.errors.size())
+                .cancelled(cancelled)
+                .build();
+    }
+
+    private Run start(Long userId, Long budgetId, boolean skipDuplicates, ImportProgress progress) {
+        Budget budget = budgetRepository.findByIdAndUserId(budgetId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Presupuesto no encontrado"));
+        // Pre-carga el usuario para poder leer su id fuera de esta transacción
+        budget.getUser().getId();
+
+        // Las categorías propias tienen prioridad sobre las predeterminadas con el mismo nombre
+        Map<String, Category> categories = new HashMap<>();
+        for (Category category : categoryRepository.findAllByUserIdOrDefault(userId)) {
+            String key = category.getName().toLowerCase(Locale.ROOT);
+            if (category.getUser() != null || !categories.containsKey(key)) {
+                categories.put(key, category);
+            }
+        }
+
+        // Huellas de las transacciones existentes en un filtro de Bloom: una fila nueva se descarta
+        // sin consultar la base; solo los positivos se comprueban con el índice (budget_id, content_hash)
+        BloomFilter existing = null;
+        if (skipDuplicates) {
+            existing = new BloomFilter(transactionRepository.countByBudgetIdAndDeletedFalse(budgetId) + chunkSize,
+                    DUPLICATE_FILTER_FALSE_POSITIVE_RATE);
+            try (Stream<Long> hashes = transactionRepository.streamContentHashes(budgetId)) {
+                hashes.forEach(existing::add);
+            }
+        }
+        return new Run(budget, categories, budgetReservations.spent(budgetId), existing, progress);
+    }
+
+    private final class Run {
+
+        private final Budget budget;
+        private final Map<String, Category> categories;
+        private final ImportProgress progress;
+        private final BloomFilter existing;
+        private final Set<ContentKey> pendingContent = new HashSet<>();
+        private BigDecimal spent;
+        private final List<PendingRow> pending = new ArrayList<>();
+        private final List<ImportResultResponse.RowError> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+        private long duplicates;
+
+        private Run(Budget budget, Map<String, Category> categories, BigDecimal spent, BloomFilter existing,
+                    ImportProgress progress) {
+            this.budget = budget;
+            this.categories = categories;
+            this.spent = spent;
+            this.existing = existing;
+            this.progress = progress;
+        }
+
+        void accept(long line, TransactionRequest request, String categoryName) {
+            String violations = validator.validate(request).stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            if (!violations.isEmpty()) {
+                reject(line, violations);
+                return;
+            }
+
+            // Los bancos usan sus propias etiquetas: una categoría desconocida deja la transacción sin categoría
+            Category category = categoryName != null ? categories.get(categoryName.toLowerCase(Locale.ROOT)) : null;
+
+            if (existing != null && isDuplicate(request)) {
+                duplicates++;
+                return;
+            }
+
+            // Mismo criterio que TransactionService.create, contra el total acumulado
+            if (request.getType() == TransactionType.EXPENSE) {
+                BigDecimal newTotal = spent.add(request.getAmount());
+                if (newTotal.compareTo(budget.getTotalAmount()) > 0) {
+                    reject(line, exceeded(newTotal));
+                    return;
+                }
+                spent = newTotal;
+            }
+
+            Transaction transaction = transactionMapper.toEntity(request);
+            transaction.setBudget(budget);
+            transaction.setUser(budget.getUser());
+            transaction.setCategory(category);
+            pending.add(new PendingRow(line, transaction));
+        }
+
+        void reject(long line, String message) {
+            failed++;
+            progress.rowRejected();
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportResultResponse.RowError(line, message));
+            }
+        }
+
+        // El bloque pendiente aún no está en la base: sus filas se comparan en memoria
+        private boolean isDuplicate(TransactionRequest request) {
+            BigDecimal amount = request.getAmount().setScale(2, RoundingMode.HALF_UP);
+            ContentKey key = new ContentKey(request.getTransactionDate(), amount, request.getDescription());
+            if (pendingContent.contains(key)) {
+                return true;
+            }
+            long hash = Transaction.contentHashOf(budget.getId(), key.date(), amount, key.description());
+            if (existing.mightContain(hash) && transactionRepository.existsByContent(
+                    budget.getId(), hash, key.date(), amount, key.description())) {
+                return true;
+            }
+            existing.add(hash);
+            pendingContent.add(key);
+            return false;
+        }
+
+        String exceeded(BigDecimal newTotal) {
+            return String.format("Este gasto excede el presupuesto '%s'. Gastado: %s / %s",
+                    budget.getName(), newTotal, budget.getTotalAmount());
+        }
+
+        // Inserta el bloque pendiente en una transacción propia; si falla se rechazan solo sus filas
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<Transaction> chunk = new ArrayList<>(pending.size());
+            List<PendingRow> overLimit = new ArrayList<>();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    chunk.clear();
+                    overLimit.clear();
+                    // El total en memoria pudo quedar viejo si otras escrituras sumaron gasto desde el
+                    // inicio: cada gasto se reserva y se confirma o libera con el commit del bloque
+                    BigDecimal expenses = BigDecimal.ZERO;
+                    BigDecimal income = BigDecimal.ZERO;
+                    for (PendingRow row : pending) {
+                        Transaction transaction = row.transaction();
+                        if (transaction.getType() == TransactionType.EXPENSE) {
+                            if (!budgetReservations.tryReserve(budget.getId(), transaction.getAmount(),
+                                    budget.getTotalAmount()).reserved()) {
+                                overLimit.add(row);
+                                continue;
+                            }
+                            expenses = expenses.add(transaction.getAmount());
+                        } else {
+                            income = income.add(transaction.getAmount());
+                        }
+                        chunk.add(transaction);
+                    }
+
+                    entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                    chunk.forEach(entityManager::persist);
+                    // Vaciar el contexto antes de los rollups: sus consultas harían flush parcial
+                    // revisando todo el bloque en cada una
+                    entityManager.flush();
+                    entityManager.clear();
+                    budgetRepository.addTotals(budget.getId(), expenses, income);
+                    monthlyRollupService.addAll(chunk);
+                    entityManager.flush();
+                    entityManager.clear();
+                });
+                spent = budgetReservations.spent(budget.getId());
+                for (PendingRow row : overLimit) {
+                    reject(row.line(), exceeded(spent.add(row.transaction().getAmount())));
+                }
+                imported += chunk.size();
+                progress.rowsInserted(chunk.size());
+            } catch (RuntimeException e) {
+                log.warn("Falló el bloque de importación (líneas {}-{}): {}", pending.get(0).line(),
+                        pending.get(pending.size() - 1).line(), e.getMessage());
+                for (PendingRow row : pending) {
+                    reject(row.line(), "No se pudo guardar la fila");
+                }
+                // Las reservas del bloque se liberaron con el rollback
+                spent = budgetReservations.spent(budget.getId());
+            }
+            pending.clear();
+            pendingContent.clear();
+        }
+    }
+}
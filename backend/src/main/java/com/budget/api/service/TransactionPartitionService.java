@@ -0,0 +1,67 @@
+package com.budget.api.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Mantenimiento de las particiones mensuales de transactions (V9, solo PostgreSQL). Crea por
+ * adelantado las particiones del mes actual y los {@code months-ahead} siguientes para que las
+ * escrituras no caigan en transactions_default. Si la tabla no está particionada no hace nada.
+ */
+@Service
+@Slf4j
+public class TransactionPartitionService {
+
+    private static final String IS_PARTITIONED = "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table p "
+            + "JOIN pg_class c ON c.oid = p.partrelid WHERE c.relname = 'transactions')";
+    private static final String CREATE_PARTITION = "SELECT create_transaction_partition(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int monthsAhead;
+
+    public TransactionPartitionService(JdbcTemplate jdbcTemplate,
+                                       @Value("${app.transactions.partitioning.months-ahead:3}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthsAhead = monthsAhead;
+    }
+
+    // Al arrancar también: tras una parada larga pueden faltar los meses en curso
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.transactions.partitioning.cron:0 15 4 * * *}")
+    public void scheduledMaintenance() {
+        ensurePartitions(LocalDate.now());
+    }
+
+    // Devuelve cuántas particiones creó
+    public int ensurePartitions(LocalDate today) {
+        if (!isPartitioned()) {
+            return 0;
+        }
+        YearMonth current = YearMonth.from(today);
+        int created = 0;
+        for (int i = 0; i <= monthsAhead; i++) {
+            LocalDate month = current.plusMonths(i).atDay(1);
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(CREATE_PARTITION, Boolean.class, month))) {
+                log.info("Partición de transacciones creada para {}", YearMonth.from(month));
+                created++;
+            }
+        }
+        return created;
+    }
+
+    private boolean isPartitioned() {
+        String database = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equals(database)
+                && Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_PARTITIONED, Boolean.class));
+    }
+}
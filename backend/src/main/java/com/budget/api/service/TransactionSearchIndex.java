@@ -0,0 +1,148 @@
+package com.budget.api.service;
+
+import com.budget.api.cache.BoundedCache;
+import com.budget.api.entity.Transaction;
+import com.budget.api.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.ref.SoftReference;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Búsqueda por descripción para bases sin pg_trgm (H2 en dev). Mantiene un
+ * {@link DescriptionNgramIndex} por usuario, cargado en la primera búsqueda y actualizado al
+ * confirmarse cada escritura. En PostgreSQL se deja desactivado: el LIKE lo resuelve el índice
+ * GIN de trigramas.
+ *
+ * <p>Como las sugerencias (TransactionSuggestionService), los índices viven en una caché LRU con
+ * tiempo de vida y detrás de SoftReference: se guardan para max-users usuarios como mucho y el GC
+ * los libera si falta memoria. Un índice expulsado se vuelve a cargar en la siguiente búsqueda.
+ */
+@Service
+@Slf4j
+public class TransactionSearchIndex {
+
+    private static final class UserIndex {
+        private final DescriptionNgramIndex descriptions = new DescriptionNgramIndex();
+        private boolean loaded;
+    }
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxMatches;
+    private final BoundedCache<Long, SoftReference<UserIndex>> indexes;
+
+    public TransactionSearchIndex(TransactionRepository transactionRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${app.transactions.search.in-memory-index:false}") boolean enabled,
+                                  @Value("${app.transactions.search.max-matches:5000}") int maxMatches,
+                                  @Value("${app.transactions.search.max-users:1000}") int maxUsers,
+                                  @Value("${app.transactions.search.ttl:1h}") Duration ttl) {
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.maxMatches = maxMatches;
+        this.indexes = new BoundedCache<>(maxUsers, ttl);
+    }
+
+    // Ids de las transacciones del usuario que contienen el término. Vacío si el índice está
+    // desactivado o hay tantas coincidencias que conviene filtrar con LIKE
+    public Optional<long[]> search(Long userId, String term) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        UserIndex index = currentOrNew(userId);
+        synchronized (index) {
+            if (!index.loaded) {
+                load(userId, index.descriptions);
+                index.loaded = true;
+            }
+            return Optional.ofNullable(index.descriptions.search(term, maxMatches));
+        }
+    }
+
+    public void indexed(Transaction transaction) {
+        Long userId = transaction.getUser().getId();
+        Long id = transaction.getId();
+        String description = transaction.getDescription();
+        afterCommit(userId, index -> index.put(id, description));
+    }
+
+    public void removed(Transaction transaction) {
+        Long id = transaction.getId();
+        afterCommit(transaction.getUser().getId(), index -> index.remove(id));
+    }
+
+    // Para escrituras masivas (lotes, importaciones): el índice se vuelve a cargar en la siguiente búsqueda
+    public void invalidate(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            indexes.invalidateIf(userId::equals);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                indexes.invalidateIf(userId::equals);
+            }
+        });
+    }
+
+    private UserIndex current(Long userId) {
+        SoftReference<UserIndex> reference = indexes.get(userId);
+        return reference != null ? reference.get() : null;
+    }
+
+    // Se publica antes de cargarlo: las escrituras que se confirmen durante la carga esperan al
+    // lock del índice y se aplican después
+    private UserIndex currentOrNew(Long userId) {
+        synchronized (indexes) {
+            UserIndex index = current(userId);
+            if (index == null) {
+                index = new UserIndex();
+                indexes.put(userId, new SoftReference<>(index));
+            }
+            return index;
+        }
+    }
+
+    // Las altas y bajas son idempotentes: da igual si la carga ya las vio
+    private void afterCommit(Long userId, Consumer<DescriptionNgramIndex> change) {
+        if (!enabled) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                UserIndex index = current(userId);
+                if (index != null) {
+                    synchronized (index) {
+                        change.accept(index.descriptions);
+                    }
+                }
+            }
+        });
+    }
+
+    private void load(Long userId, DescriptionNgramIndex index) {
+        long started = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = transactionRepository.streamIdsAndDescriptions(userId)) {
+                rows.forEach(row -> index.put((Long) row[0], (String) row[1]));
+            }
+        });
+        log.debug("Índice de búsqueda del usuario {} cargado: {} transacciones en {} ms",
+                userId, index.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+}
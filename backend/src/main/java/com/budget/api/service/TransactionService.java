@@ -1,28 +1,46 @@
 package com.budget.api.service;
 
+import com.budget.api.cache.DashboardCache;
 import com.budget.api.dto.request.TransactionFilterRequest;
 import com.budget.api.dto.request.TransactionRequest;
+import com.budget.api.dto.response.CursorPageResponse;
 import com.budget.api.dto.response.TransactionResponse;
+import com.budget.api.entity.ArchivedTransaction;
 import com.budget.api.entity.Budget;
 import com.budget.api.entity.Category;
 import com.budget.api.entity.Transaction;
 import com.budget.api.enums.TransactionType;
 import com.budget.api.exception.BudgetExceededException;
+import com.budget.api.exception.ConflictException;
 import com.budget.api.exception.ResourceNotFoundException;
 import com.budget.api.mapper.TransactionMapper;
+import com.budget.api.repository.ArchivedTransactionRepository;
 import com.budget.api.repository.BudgetRepository;
 import com.budget.api.repository.CategoryRepository;
 import com.budget.api.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.JoinType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -30,17 +48,52 @@ import java.util.List;
 public class TransactionService {
 
     private final TransactionRepository transactionRepository;
+    private final ArchivedTransactionRepository archivedTransactionRepository;
     private final BudgetRepository budgetRepository;
     private final CategoryRepository categoryRepository;
     private final TransactionMapper transactionMapper;
+    private final MonthlyRollupService monthlyRollupService;
+    private final BudgetReservations budgetReservations;
+    private final IdempotencyService idempotencyService;
+    private final DashboardCache dashboardCache;
+    private final TransactionSearchIndex transactionSearchIndex;
+    private final TransactionSuggestionService transactionSuggestionService;
+    private final CsvService csvService;
+    private final EntityManager entityManager;
+
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final String RELEVANCE = "relevance";
 
     @Transactional
     public TransactionResponse create(Long userId, TransactionRequest request) {
+        return create(userId, request, null);
+    }
+
+    // Con Idempotency-Key, el reintento de una petición ya procesada devuelve la transacción que creó
+    @Transactional
+    public TransactionResponse create(Long userId, TransactionRequest request, String idempotencyKey) {
+        long requestHash = 0;
+        if (idempotencyKey != null) {
+            requestHash = IdempotencyService.requestHash(request);
+            Optional<Long> existing = idempotencyService.findTransactionId(userId, idempotencyKey, requestHash);
+            if (existing.isPresent()) {
+                log.info("Reintento con Idempotency-Key: se devuelve la transacción {}", existing.get());
+                Transaction replayed = transactionRepository.findByIdAndUserId(existing.get(), userId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Transacción no encontrada"));
+                // La clave ya se usó: no se vuelve a crear ni se devuelve como creada la transacción eliminada
+                if (Boolean.TRUE.equals(replayed.getDeleted())) {
+                    throw new ConflictException("La transacción creada con esta Idempotency-Key fue eliminada");
+                }
+                return transactionMapper.toResponse(replayed);
+            }
+        }
+
         Budget budget = budgetRepository.findByIdAndUserId(request.getBudgetId(), userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Presupuesto no encontrado"));
 
         Transaction transaction = transactionMapper.toEntity(request);
         transaction.setBudget(budget);
+        transaction.setUser(budget.getUser());
 
         if (request.getCategoryId() != null) {
             Category category = categoryRepository.findById(request.getCategoryId())
@@ -48,50 +101,114 @@ public class TransactionService {
             transaction.setCategory(category);
         }
 
-        // Verificar si se excede el presupuesto
+        // Verificar si se excede el presupuesto contra el gasto en memoria: la reserva se confirma o
+        // se libera con esta transacción
         if (request.getType() == TransactionType.EXPENSE) {
-            BigDecimal currentSpent = transactionRepository.sumByBudgetIdAndType(
-                    budget.getId(), TransactionType.EXPENSE);
-            BigDecimal newTotal = currentSpent.add(request.getAmount());
-            if (newTotal.compareTo(budget.getTotalAmount()) > 0) {
+            BudgetReservations.Outcome outcome = budgetReservations.tryReserve(
+                    budget.getId(), request.getAmount(), budget.getTotalAmount());
+            if (!outcome.reserved()) {
                 log.warn("Alerta: El gasto excede el presupuesto '{}'. Gastado: {}, Presupuesto: {}",
-                        budget.getName(), newTotal, budget.getTotalAmount());
+                        budget.getName(), outcome.spent(), budget.getTotalAmount());
                 throw new BudgetExceededException(
                         String.format("Este gasto excede el presupuesto '%s'. Gastado: %s / %s",
-                                budget.getName(), newTotal, budget.getTotalAmount()));
+                                budget.getName(), outcome.spent(), budget.getTotalAmount()));
             }
         }
 
         transaction = transactionRepository.save(transaction);
+        if (idempotencyKey != null) {
+            idempotencyService.remember(userId, idempotencyKey, requestHash, transaction.getId());
+        }
+        // El UPDATE del contador bloquea la fila del presupuesto y serializa el alta de su fila de
+        // monthly_rollups (la clave única no evita duplicados con category_id nulo)
+        applyToCounters(transaction, BigDecimal.ONE);
+        monthlyRollupService.add(transaction);
+        dashboardCache.invalidateUser(userId);
+        transactionSearchIndex.indexed(transaction);
+        transactionSuggestionService.recorded(transaction);
         log.info("Transacción creada: {} - {} {}", transaction.getDescription(),
                 transaction.getType(), transaction.getAmount());
         return transactionMapper.toResponse(transaction);
     }
 
+    // sort=relevance con search ordena por calidad de la coincidencia en lugar de por una columna
     @Transactional(readOnly = true)
     public Page<TransactionResponse> findAll(Long userId, TransactionFilterRequest filter, Pageable pageable) {
         Specification<Transaction> spec = buildSpecification(userId, filter);
+        if (pageable.getSort().getOrderFor(RELEVANCE) != null) {
+            pageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                    Sort.by(pageable.getSort().filter(order -> !RELEVANCE.equals(order.getProperty())).toList()));
+            String term = searchTerm(filter);
+            if (term != null && pageable.getSort().isUnsorted()) {
+                spec = spec.and(byRelevance(term));
+            }
+        }
         return transactionRepository.findAll(spec, pageable)
                 .map(transactionMapper::toResponse);
     }
 
+    // Paginación por cursor sobre (transactionDate, id) descendente: no usa OFFSET y solo
+    // ejecuta el COUNT si se pide el total
+    @Transactional(readOnly = true)
+    public CursorPageResponse<TransactionResponse> findAllByCursor(Long userId, TransactionFilterRequest filter,
+                                                                   String cursor, int size, boolean includeTotal) {
+        int pageSize = Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
+        Specification<Transaction> filtered = buildSpecification(userId, filter);
+        Specification<Transaction> spec = filtered;
+        if (cursor != null && !cursor.isBlank()) {
+            spec = spec.and(after(TransactionCursor.decode(cursor)));
+        }
+
+        // Se pide una fila extra para saber si hay página siguiente sin contar
+        List<Transaction> rows = transactionRepository.findBy(spec, query -> query
+                .sortBy(Sort.by(Sort.Order.desc("transactionDate"), Sort.Order.desc("id")))
+                .limit(pageSize + 1)
+                .all());
+
+        boolean hasNext = rows.size() > pageSize;
+        List<Transaction> page = hasNext ? rows.subList(0, pageSize) : rows;
+        Transaction last = page.isEmpty() ? null : page.get(page.size() - 1);
+
+        return CursorPageResponse.<TransactionResponse>builder()
+                .content(page.stream().map(transactionMapper::toResponse).collect(Collectors.toList()))
+                .size(page.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext
+                        ? new TransactionCursor(last.getTransactionDate(), last.getId()).encode()
+                        : null)
+                .totalElements(includeTotal ? transactionRepository.count(filtered) : null)
+                .build();
+    }
+
     @Transactional(readOnly = true)
     public TransactionResponse findById(Long userId, Long transactionId) {
-        Transaction transaction = transactionRepository.findByIdAndBudgetUserId(transactionId, userId)
+        Transaction transaction = transactionRepository.findByIdAndUserId(transactionId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Transacción no encontrada"));
         return transactionMapper.toResponse(transaction);
     }
 
     @Transactional
     public TransactionResponse update(Long userId, Long transactionId, TransactionRequest request) {
-        Transaction transaction = transactionRepository.findByIdAndBudgetUserId(transactionId, userId)
+        Transaction transaction = transactionRepository.findByIdAndUserIdAndDeletedFalse(transactionId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Transacción no encontrada"));
 
         Budget budget = budgetRepository.findByIdAndUserId(request.getBudgetId(), userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Presupuesto no encontrado"));
 
+        // Reservas antes de escribir: cargar un presupuesto en memoria lee su contador
+        if (transaction.getType() == TransactionType.EXPENSE) {
+            budgetReservations.track(transaction.getBudget().getId(), transaction.getAmount().negate());
+        }
+        if (request.getType() == TransactionType.EXPENSE) {
+            budgetReservations.track(budget.getId(), request.getAmount());
+        }
+
+        applyToCounters(transaction, BigDecimal.ONE.negate());
+        monthlyRollupService.subtract(transaction);
+        transactionSuggestionService.removed(transaction);
         transactionMapper.updateEntity(request, transaction);
         transaction.setBudget(budget);
+        transaction.setUser(budget.getUser());
 
         if (request.getCategoryId() != null) {
             Category category = categoryRepository.findById(request.getCategoryId())
@@ -100,30 +217,121 @@ public class TransactionService {
         }
 
         transaction = transactionRepository.save(transaction);
+        applyToCounters(transaction, BigDecimal.ONE);
+        monthlyRollupService.add(transaction);
+        dashboardCache.invalidateUser(userId);
+        transactionSearchIndex.indexed(transaction);
+        transactionSuggestionService.recorded(transaction);
         log.info("Transacción actualizada: {}", transactionId);
         return transactionMapper.toResponse(transaction);
     }
 
     @Transactional
     public void delete(Long userId, Long transactionId) {
-        Transaction transaction = transactionRepository.findByIdAndBudgetUserId(transactionId, userId)
+        Transaction transaction = transactionRepository.findByIdAndUserIdAndDeletedFalse(transactionId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Transacción no encontrada"));
+        if (transaction.getType() == TransactionType.EXPENSE) {
+            budgetReservations.track(transaction.getBudget().getId(), transaction.getAmount().negate());
+        }
+        applyToCounters(transaction, BigDecimal.ONE.negate());
+        monthlyRollupService.subtract(transaction);
         transaction.setDeleted(true); // Soft delete
+        transaction.setDeletedAt(LocalDateTime.now());
         transactionRepository.save(transaction);
+        dashboardCache.invalidateUser(userId);
+        transactionSearchIndex.removed(transaction);
+        transactionSuggestionService.removed(transaction);
         log.info("Transacción eliminada (soft): {}", transactionId);
     }
 
+    // Deshace un borrado, también si la transacción ya se archivó. Vuelve a pasar por el límite del presupuesto
+    @Transactional
+    public TransactionResponse restore(Long userId, Long transactionId) {
+        Transaction transaction = transactionRepository.findByIdAndUserIdAndDeletedTrue(transactionId, userId)
+                .or(() -> unarchive(userId, transactionId))
+                .orElseThrow(() -> new ResourceNotFoundException("Transacción eliminada no encontrada"));
+        Budget budget = transaction.getBudget();
+
+        if (transaction.getType() == TransactionType.EXPENSE) {
+            BudgetReservations.Outcome outcome = budgetReservations.tryReserve(
+                    budget.getId(), transaction.getAmount(), budget.getTotalAmount());
+            if (!outcome.reserved()) {
+                throw new BudgetExceededException(
+                        String.format("Restaurar este gasto excede el presupuesto '%s'. Gastado: %s / %s",
+                                budget.getName(), outcome.spent(), budget.getTotalAmount()));
+            }
+        }
+
+        transaction.setDeleted(false);
+        transaction.setDeletedAt(null);
+        transaction = transactionRepository.save(transaction);
+        applyToCounters(transaction, BigDecimal.ONE);
+        monthlyRollupService.add(transaction);
+        dashboardCache.invalidateUser(userId);
+        transactionSearchIndex.indexed(transaction);
+        transactionSuggestionService.recorded(transaction);
+        log.info("Transacción restaurada: {}", transactionId);
+        return transactionMapper.toResponse(transaction);
+    }
+
+    // Devuelve la fila archivada a transactions, todavía eliminada
+    private Optional<Transaction> unarchive(Long userId, Long transactionId) {
+        Optional<ArchivedTransaction> archived = archivedTransactionRepository.findByIdAndUserId(transactionId, userId);
+        // Sin su presupuesto no hay dónde restaurarla
+        if (archived.isEmpty() || !budgetRepository.existsById(archived.get().getBudgetId())) {
+            return Optional.empty();
+        }
+        // La categoría pudo eliminarse después de archivar; el archivo no tiene claves foráneas
+        Long categoryId = archived.get().getCategoryId();
+        if (categoryId != null && !categoryRepository.existsById(categoryId)) {
+            archived.get().setCategoryId(null);
+            archivedTransactionRepository.saveAndFlush(archived.get());
+        }
+        entityManager.detach(archived.get());
+        archivedTransactionRepository.copyToTransactions(transactionId);
+        archivedTransactionRepository.deleteByIdIn(List.of(transactionId));
+        log.info("Transacción {} recuperada del archivo", transactionId);
+        return transactionRepository.findByIdAndUserIdAndDeletedTrue(transactionId, userId);
+    }
+
+    // Se valida antes de empezar a escribir la respuesta, cuando aún se puede devolver un 404
     @Transactional(readOnly = true)
-    public List<Transaction> findByBudgetForExport(Long budgetId) {
-        return transactionRepository.findByBudgetIdAndDeletedFalseOrderByTransactionDateDesc(budgetId);
+    public void checkBudgetAccess(Long userId, Long budgetId) {
+        budgetRepository.findByIdAndUserId(budgetId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Presupuesto no encontrado"));
+    }
+
+    @Transactional(readOnly = true)
+    public long exportCsv(Long userId, Long budgetId, OutputStream out) throws IOException {
+        try (Stream<Transaction> rows = transactionRepository.streamForExport(userId, budgetId)) {
+            // Cada fila se separa del contexto de persistencia en cuanto se lee
+            return csvService.writeTransactions(rows.peek(entityManager::detach), out);
+        }
+    }
+
+    // Suma (sign = 1) o resta (sign = -1) la transacción de los contadores de su presupuesto
+    private void applyToCounters(Transaction transaction, BigDecimal sign) {
+        BigDecimal amount = transaction.getAmount().multiply(sign);
+        if (transaction.getType() == TransactionType.EXPENSE) {
+            budgetRepository.addTotals(transaction.getBudget().getId(), amount, BigDecimal.ZERO);
+        } else {
+            budgetRepository.addTotals(transaction.getBudget().getId(), BigDecimal.ZERO, amount);
+        }
     }
 
     private Specification<Transaction> buildSpecification(Long userId, TransactionFilterRequest filter) {
-        Specification<Transaction> spec = (root, query, cb) ->
-                cb.and(
-                    cb.equal(root.get("budget").get("user").get("id"), userId),
+        Specification<Transaction> spec = (root, query, cb) -> {
+            // TransactionMapper lee budget.name y category.name: se traen en la misma consulta.
+            // La consulta COUNT de la paginación no admite fetch joins
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                root.fetch("budget");
+                root.fetch("category", JoinType.LEFT);
+            }
+            return cb.and(
+                    cb.equal(root.get("user").get("id"), userId),
                     cb.isFalse(root.get("deleted"))
-                );
+            );
+        };
 
         if (filter == null) return spec;
 
@@ -147,12 +355,57 @@ public class TransactionService {
             spec = spec.and((root, query, cb) ->
                     cb.lessThanOrEqualTo(root.get("transactionDate"), filter.getEndDate()));
         }
-        if (filter.getSearch() != null && !filter.getSearch().isBlank()) {
-            spec = spec.and((root, query, cb) ->
-                    cb.like(cb.lower(root.get("description")),
-                            "%" + filter.getSearch().toLowerCase() + "%"));
+        String term = searchTerm(filter);
+        if (term != null) {
+            // En PostgreSQL el LIKE lo sirve el índice de trigramas; sin él, el índice en memoria
+            // da los ids directamente salvo que coincidan demasiadas transacciones
+            Optional<long[]> matches = transactionSearchIndex.search(userId, term);
+            if (matches.isPresent()) {
+                List<Long> ids = LongStream.of(matches.get()).boxed().toList();
+                spec = spec.and((root, query, cb) -> ids.isEmpty() ? cb.disjunction() : root.get("id").in(ids));
+            } else {
+                spec = spec.and((root, query, cb) ->
+                        cb.like(cb.lower(root.get("description")), "%" + escapeLike(term) + "%", '\\'));
+            }
         }
 
         return spec;
     }
+
+    private static String searchTerm(TransactionFilterRequest filter) {
+        if (filter == null || filter.getSearch() == null || filter.getSearch().isBlank()) {
+            return null;
+        }
+        return filter.getSearch().toLowerCase(Locale.ROOT);
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    // Coincidencia exacta, luego las que empiezan por el término y luego el resto; dentro de cada
+    // grupo, las descripciones más cortas (el término pesa más) y las más recientes
+    private static Specification<Transaction> byRelevance(String term) {
+        return (root, query, cb) -> {
+            Expression<String> description = cb.lower(root.get("description"));
+            query.orderBy(
+                    cb.asc(cb.selectCase()
+                            .when(cb.equal(description, term), 0)
+                            .when(cb.like(description, escapeLike(term) + "%", '\\'), 1)
+                            .otherwise(2)),
+                    cb.asc(cb.length(root.get("description"))),
+                    cb.desc(root.get("transactionDate")),
+                    cb.desc(root.get("id")));
+            return null;
+        };
+    }
+
+    private static Specification<Transaction> after(TransactionCursor cursor) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("transactionDate"), cursor.transactionDate()),
+                cb.and(
+                    cb.equal(root.get("transactionDate"), cursor.transactionDate()),
+                    cb.lessThan(root.get("id"), cursor.id())
+                ));
+    }
 }
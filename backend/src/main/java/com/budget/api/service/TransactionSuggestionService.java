@@ -0,0 +1,145 @@
+package com.budget.api.service;
+
+import com.budget.api.cache.BoundedCache;
+import com.budget.api.dto.response.SuggestionResponse;
+import com.budget.api.entity.Transaction;
+import com.budget.api.enums.TransactionType;
+import com.budget.api.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.ref.SoftReference;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Autocompletado de descripciones a partir del historial de cada usuario. La estructura de un
+ * usuario se construye en su primera consulta y se mantiene con las escrituras confirmadas de
+ * TransactionService.
+ *
+ * <p>Las estructuras viven en una caché LRU con tiempo de vida y detrás de referencias blandas
+ * (SoftReference), así que el GC las libera si falta memoria. Los conteos son aproximados: una
+ * escritura que se confirma mientras se carga el historial puede contarse dos veces o ninguna,
+ * y se corrige al recargar.
+ */
+@Service
+@Slf4j
+public class TransactionSuggestionService {
+
+    private static final int MAX_LIMIT = 20;
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BoundedCache<Long, SoftReference<DescriptionSuggestions>> cache;
+
+    public TransactionSuggestionService(TransactionRepository transactionRepository,
+                                        TransactionTemplate transactionTemplate,
+                                        @Value("${app.transactions.suggestions.max-users:10000}") int maxUsers,
+                                        @Value("${app.transactions.suggestions.ttl:1h}") Duration ttl) {
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.cache = new BoundedCache<>(maxUsers, ttl);
+    }
+
+    public List<SuggestionResponse> suggest(Long userId, String prefix, int limit) {
+        DescriptionSuggestions suggestions = current(userId);
+        if (suggestions == null) {
+            suggestions = load(userId);
+            cache.put(userId, new SoftReference<>(suggestions));
+        }
+        List<DescriptionSuggestions.Suggestion> top;
+        synchronized (suggestions) {
+            top = suggestions.top(prefix == null ? "" : prefix, Math.min(Math.max(limit, 1), MAX_LIMIT));
+        }
+        return top.stream()
+                .map(s -> SuggestionResponse.builder()
+                        .description(s.description())
+                        .occurrences(s.occurrences())
+                        .type(s.type())
+                        .categoryId(s.categoryId())
+                        .categoryName(s.categoryName())
+                        .amount(s.amount())
+                        .build())
+                .toList();
+    }
+
+    // Los valores se copian al llamar: en una modificación se llama antes de cambiar la entidad
+    public void recorded(Transaction transaction) {
+        Occurrence occurrence = Occurrence.of(transaction);
+        afterCommit(transaction.getUser().getId(), suggestions -> suggestions.add(occurrence.description(),
+                occurrence.type(), occurrence.categoryId(), occurrence.categoryName(), occurrence.amount(),
+                occurrence.date(), 1));
+    }
+
+    public void removed(Transaction transaction) {
+        Occurrence occurrence = Occurrence.of(transaction);
+        afterCommit(transaction.getUser().getId(), suggestions -> suggestions.remove(occurrence.description(),
+                occurrence.type(), occurrence.categoryId(), occurrence.amount()));
+    }
+
+    // Para escrituras masivas y cambios de categoría: se reconstruye en la siguiente consulta
+    public void invalidate(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.invalidateIf(userId::equals);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.invalidateIf(userId::equals);
+            }
+        });
+    }
+
+    private DescriptionSuggestions current(Long userId) {
+        SoftReference<DescriptionSuggestions> reference = cache.get(userId);
+        return reference != null ? reference.get() : null;
+    }
+
+    private void afterCommit(Long userId, Consumer<DescriptionSuggestions> change) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                DescriptionSuggestions suggestions = current(userId);
+                if (suggestions != null) {
+                    synchronized (suggestions) {
+                        change.accept(suggestions);
+                    }
+                }
+            }
+        });
+    }
+
+    private DescriptionSuggestions load(Long userId) {
+        long started = System.nanoTime();
+        DescriptionSuggestions suggestions = new DescriptionSuggestions();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = transactionRepository.streamDescriptionUsage(userId)) {
+                rows.forEach(row -> suggestions.add((String) row[0], (TransactionType) row[1], (Long) row[2],
+                        (String) row[3], (BigDecimal) row[4], (LocalDate) row[6], (Long) row[5]));
+            }
+        });
+        log.debug("Sugerencias del usuario {} cargadas: {} descripciones en {} ms",
+                userId, suggestions.size(), (System.nanoTime() - started) / 1_000_000);
+        return suggestions;
+    }
+
+    private record Occurrence(String description, TransactionType type, Long categoryId, String categoryName,
+                              BigDecimal amount, LocalDate date) {
+
+        static Occurrence of(Transaction transaction) {
+            return new Occurrence(transaction.getDescription(), transaction.getType(),
+                    transaction.getCategory() != null ? transaction.getCategory().getId() : null,
+                    transaction.getCategory() != null ? transaction.getCategory().getName() : null,
+                    transaction.getAmount(), transaction.getTransactionDate());
+        }
+    }
+}
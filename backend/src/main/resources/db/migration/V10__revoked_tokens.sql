@@ -0,0 +1,9 @@
+-- Ids de tokens y familias de refresh tokens revocados (rotación y logout). TokenRevocationService
+-- los carga en memoria al arrancar y borra los expirados.
+
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    token_id   VARCHAR(64)  PRIMARY KEY,
+    expires_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_revoked_token_expires ON revoked_tokens (expires_at);
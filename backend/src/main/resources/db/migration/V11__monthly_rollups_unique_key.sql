@@ -0,0 +1,26 @@
+-- uk_rollup_key (V2) no protegía las filas sin categoría: PostgreSQL considera distintos los NULL de
+-- category_id, así que dos inserciones concurrentes del primer gasto sin categoría de un mes podían
+-- crear dos filas y romper la búsqueda de MonthlyRollupService. Se sustituye por un índice único
+-- que trata el NULL como un valor más (los ids de categoría empiezan en 1).
+
+-- Duplicados que la restricción anterior dejó pasar: se suman en la fila de menor id
+UPDATE monthly_rollups r
+SET amount            = d.amount,
+    transaction_count = d.transaction_count,
+    updated_at        = now()
+FROM (SELECT MIN(id) AS keep_id, SUM(amount) AS amount, SUM(transaction_count) AS transaction_count
+      FROM monthly_rollups
+      GROUP BY budget_id, month_start, type, category_id
+      HAVING COUNT(*) > 1) d
+WHERE r.id = d.keep_id;
+
+DELETE FROM monthly_rollups r
+    USING monthly_rollups k
+WHERE k.budget_id = r.budget_id
+  AND k.month_start = r.month_start
+  AND k.type = r.type
+  AND k.category_id IS NOT DISTINCT FROM r.category_id
+  AND k.id < r.id;
+
+ALTER TABLE monthly_rollups DROP CONSTRAINT IF EXISTS uk_rollup_key;
+CREATE UNIQUE INDEX uk_rollup_key ON monthly_rollups (budget_id, month_start, type, (COALESCE(category_id, 0)));
@@ -0,0 +1,60 @@
+-- Esquema inicial (users, categories, budgets, transactions) tal como lo generaba Hibernate.
+-- Las bases existentes se marcan en esta versión con baseline-on-migrate y no lo ejecutan.
+
+CREATE TABLE users (
+    id                 BIGSERIAL PRIMARY KEY,
+    email              VARCHAR(100) NOT NULL UNIQUE,
+    password           VARCHAR(255) NOT NULL,
+    full_name          VARCHAR(150) NOT NULL,
+    preferred_currency VARCHAR(3),
+    preferred_locale   VARCHAR(10),
+    active             BOOLEAN      NOT NULL,
+    created_at         TIMESTAMP(6) NOT NULL,
+    updated_at         TIMESTAMP(6)
+);
+
+CREATE TABLE categories (
+    id           BIGSERIAL PRIMARY KEY,
+    name         VARCHAR(80)  NOT NULL,
+    description  VARCHAR(255),
+    icon         VARCHAR(30),
+    color        VARCHAR(7),
+    expense_type VARCHAR(20)  NOT NULL CHECK (expense_type IN ('FIXED', 'VARIABLE')),
+    is_default   BOOLEAN      NOT NULL,
+    user_id      BIGINT REFERENCES users (id),
+    created_at   TIMESTAMP(6) NOT NULL,
+    updated_at   TIMESTAMP(6),
+    UNIQUE (name, user_id)
+);
+
+CREATE TABLE budgets (
+    id           BIGSERIAL PRIMARY KEY,
+    name         VARCHAR(100)   NOT NULL,
+    total_amount NUMERIC(15, 2) NOT NULL,
+    period       VARCHAR(20)    NOT NULL CHECK (period IN ('MONTHLY', 'BIWEEKLY')),
+    start_date   DATE           NOT NULL,
+    end_date     DATE           NOT NULL,
+    currency     VARCHAR(3),
+    active       BOOLEAN        NOT NULL,
+    user_id      BIGINT         NOT NULL REFERENCES users (id),
+    created_at   TIMESTAMP(6)   NOT NULL,
+    updated_at   TIMESTAMP(6)
+);
+
+CREATE TABLE transactions (
+    id               BIGSERIAL PRIMARY KEY,
+    description      VARCHAR(200)   NOT NULL,
+    amount           NUMERIC(15, 2) NOT NULL,
+    type             VARCHAR(10)    NOT NULL CHECK (type IN ('INCOME', 'EXPENSE')),
+    transaction_date DATE           NOT NULL,
+    notes            VARCHAR(500),
+    deleted          BOOLEAN        NOT NULL,
+    budget_id        BIGINT         NOT NULL REFERENCES budgets (id),
+    category_id      BIGINT REFERENCES categories (id),
+    created_at       TIMESTAMP(6)   NOT NULL,
+    updated_at       TIMESTAMP(6)
+);
+
+CREATE INDEX idx_transaction_date ON transactions (transaction_date);
+CREATE INDEX idx_transaction_type ON transactions (type);
+CREATE INDEX idx_transaction_budget ON transactions (budget_id);
@@ -0,0 +1,31 @@
+-- Sumas mensuales por presupuesto, tipo y categoría que mantiene MonthlyRollupService.
+-- IF NOT EXISTS: en entornos que corrieron con ddl-auto: update la tabla ya puede existir.
+
+CREATE TABLE IF NOT EXISTS monthly_rollups (
+    id                BIGSERIAL PRIMARY KEY,
+    user_id           BIGINT         NOT NULL,
+    budget_id         BIGINT         NOT NULL,
+    month_start       DATE           NOT NULL,
+    type              VARCHAR(10)    NOT NULL CHECK (type IN ('INCOME', 'EXPENSE')),
+    category_id       BIGINT,
+    expense_type      VARCHAR(20) CHECK (expense_type IN ('FIXED', 'VARIABLE')),
+    amount            NUMERIC(15, 2) NOT NULL,
+    transaction_count BIGINT         NOT NULL,
+    created_at        TIMESTAMP(6)   NOT NULL,
+    updated_at        TIMESTAMP(6),
+    CONSTRAINT uk_rollup_key UNIQUE (budget_id, month_start, type, category_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_rollup_user_month ON monthly_rollups (user_id, month_start);
+
+-- Carga inicial desde las transacciones existentes
+DELETE FROM monthly_rollups;
+INSERT INTO monthly_rollups (user_id, budget_id, month_start, type, category_id, expense_type,
+                             amount, transaction_count, created_at, updated_at)
+SELECT b.user_id, t.budget_id, CAST(date_trunc('month', t.transaction_date) AS DATE), t.type,
+       t.category_id, c.expense_type, SUM(t.amount), COUNT(*), now(), now()
+FROM transactions t
+         JOIN budgets b ON b.id = t.budget_id
+         LEFT JOIN categories c ON c.id = t.category_id
+WHERE t.deleted = false
+GROUP BY b.user_id, t.budget_id, date_trunc('month', t.transaction_date), t.type, t.category_id, c.expense_type;
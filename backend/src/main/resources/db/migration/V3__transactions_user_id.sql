@@ -0,0 +1,29 @@
+-- Copia el dueño del presupuesto en transactions para que las consultas por usuario
+-- no tengan que pasar por budgets, y reemplaza los índices de una sola columna por
+-- índices compuestos con la forma de esas consultas.
+
+ALTER TABLE transactions ADD COLUMN user_id BIGINT;
+
+UPDATE transactions t
+SET user_id = b.user_id
+FROM budgets b
+WHERE b.id = t.budget_id;
+
+ALTER TABLE transactions ALTER COLUMN user_id SET NOT NULL;
+ALTER TABLE transactions
+    ADD CONSTRAINT fk_transaction_user FOREIGN KEY (user_id) REFERENCES users (id);
+
+-- Dashboard, listados y exportación por usuario: filtran por user_id, deleted y rango de fechas.
+-- INCLUDE (amount) permite resolver las sumas con index-only scans.
+CREATE INDEX idx_transaction_user_date
+    ON transactions (user_id, deleted, transaction_date, type) INCLUDE (amount);
+
+-- Gasto acumulado por presupuesto (validación de sobregasto en TransactionService)
+CREATE INDEX idx_transaction_budget_type
+    ON transactions (budget_id, type, deleted) INCLUDE (amount);
+
+-- Cubiertos por los índices compuestos
+DROP INDEX IF EXISTS idx_transaction_budget;
+DROP INDEX IF EXISTS idx_transaction_type;
+
+ANALYZE transactions;
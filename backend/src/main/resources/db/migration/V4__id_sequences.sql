@@ -0,0 +1,15 @@
+-- Los ids pasan de IDENTITY a secuencias con incremento 50 (optimizador pooled de Hibernate),
+-- lo que permite agrupar los INSERT en lotes JDBC. Cada secuencia arranca por encima del id máximo.
+-- Las columnas conservan su default anterior, que Hibernate ya no usa.
+
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS categories_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS budgets_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS transactions_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS monthly_rollups_seq INCREMENT BY 50;
+
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 50, false);
+SELECT setval('categories_seq', COALESCE((SELECT MAX(id) FROM categories), 0) + 50, false);
+SELECT setval('budgets_seq', COALESCE((SELECT MAX(id) FROM budgets), 0) + 50, false);
+SELECT setval('transactions_seq', COALESCE((SELECT MAX(id) FROM transactions), 0) + 50, false);
+SELECT setval('monthly_rollups_seq', COALESCE((SELECT MAX(id) FROM monthly_rollups), 0) + 50, false);
@@ -0,0 +1,17 @@
+-- Contadores de gasto e ingreso por presupuesto. Los mantienen las escrituras de transacciones
+-- con UPDATE atómicos; el límite del presupuesto se comprueba contra spent_amount sin sumar
+-- las transacciones. BudgetCounterService los verifica y repara periódicamente.
+
+ALTER TABLE budgets ADD COLUMN IF NOT EXISTS spent_amount NUMERIC(15, 2) NOT NULL DEFAULT 0;
+ALTER TABLE budgets ADD COLUMN IF NOT EXISTS income_amount NUMERIC(15, 2) NOT NULL DEFAULT 0;
+
+UPDATE budgets b
+SET spent_amount  = COALESCE(t.spent, 0),
+    income_amount = COALESCE(t.income, 0)
+FROM (SELECT budget_id,
+             SUM(amount) FILTER (WHERE type = 'EXPENSE') AS spent,
+             SUM(amount) FILTER (WHERE type = 'INCOME')  AS income
+      FROM transactions
+      WHERE deleted = false
+      GROUP BY budget_id) t
+WHERE t.budget_id = b.id;
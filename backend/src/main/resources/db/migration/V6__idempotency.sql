@@ -0,0 +1,28 @@
+-- Huella de contenido de cada transacción (importación con omisión de duplicados) y claves de
+-- idempotencia de POST /transactions.
+
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS content_hash BIGINT;
+
+-- Mismo cálculo que Transaction.contentHashOf: primeros 8 bytes del SHA-256 de
+-- 'budgetId|yyyy-MM-dd|monto|descripción'
+UPDATE transactions
+SET content_hash = ('x' || substr(encode(sha256(convert_to(
+        budget_id || '|' || to_char(transaction_date, 'YYYY-MM-DD') || '|' || amount::text || '|' || description,
+        'UTF8')), 'hex'), 1, 16))::bit(64)::bigint;
+
+CREATE INDEX IF NOT EXISTS idx_transaction_budget_hash ON transactions (budget_id, content_hash);
+
+CREATE SEQUENCE IF NOT EXISTS idempotency_keys_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    id              BIGINT       PRIMARY KEY,
+    user_id         BIGINT       NOT NULL REFERENCES users (id),
+    idempotency_key VARCHAR(255) NOT NULL,
+    request_hash    BIGINT       NOT NULL,
+    transaction_id  BIGINT       NOT NULL REFERENCES transactions (id),
+    created_at      TIMESTAMP(6) NOT NULL,
+    updated_at      TIMESTAMP(6),
+    CONSTRAINT uk_idempotency_user_key UNIQUE (user_id, idempotency_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_created ON idempotency_keys (created_at);
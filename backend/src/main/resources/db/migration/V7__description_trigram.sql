@@ -0,0 +1,9 @@
+-- Búsqueda por subcadena en la descripción. lower(description) LIKE '%término%' no puede usar un
+-- índice B-tree; un GIN de trigramas sí, para términos de 3 o más caracteres. La expresión del
+-- índice debe coincidir con la del filtro de TransactionService.
+-- CREATE EXTENSION requiere un rol con permiso de creación en la base.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_transaction_description_trgm
+    ON transactions USING gin (lower(description) gin_trgm_ops);
@@ -0,0 +1,44 @@
+-- Archivado de transacciones eliminadas. TransactionArchiveService mueve a transactions_archive
+-- las filas con deleted = true y deleted_at anterior a la retención, por lotes.
+
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP(6);
+
+-- Para las ya eliminadas, la última modificación es la mejor aproximación al momento del borrado
+UPDATE transactions
+SET deleted_at = COALESCE(updated_at, created_at)
+WHERE deleted = true AND deleted_at IS NULL;
+
+-- Mismas columnas que transactions, sin claves foráneas: la categoría puede eliminarse después
+CREATE TABLE IF NOT EXISTS transactions_archive (
+    id               BIGINT         PRIMARY KEY,
+    description      VARCHAR(200)   NOT NULL,
+    amount           NUMERIC(15, 2) NOT NULL,
+    type             VARCHAR(10)    NOT NULL,
+    transaction_date DATE           NOT NULL,
+    notes            VARCHAR(500),
+    budget_id        BIGINT         NOT NULL,
+    user_id          BIGINT         NOT NULL,
+    category_id      BIGINT,
+    content_hash     BIGINT,
+    created_at       TIMESTAMP(6)   NOT NULL,
+    updated_at       TIMESTAMP(6),
+    deleted_at       TIMESTAMP(6),
+    archived_at      TIMESTAMP(6)   NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_transaction_archive_user ON transactions_archive (user_id);
+CREATE INDEX IF NOT EXISTS idx_transaction_archive_archived ON transactions_archive (archived_at);
+
+-- Todas las consultas de lectura filtran deleted = false: los índices compuestos pasan a ser
+-- parciales sobre las filas vivas y las eliminadas dejan de ocupar espacio en ellos
+CREATE INDEX IF NOT EXISTS idx_transaction_user_date_live
+    ON transactions (user_id, transaction_date, type) INCLUDE (amount) WHERE deleted = false;
+CREATE INDEX IF NOT EXISTS idx_transaction_budget_type_live
+    ON transactions (budget_id, type) INCLUDE (amount) WHERE deleted = false;
+DROP INDEX IF EXISTS idx_transaction_user_date;
+DROP INDEX IF EXISTS idx_transaction_budget_type;
+
+-- Selección de candidatas para el archivado
+CREATE INDEX IF NOT EXISTS idx_transaction_deleted_at ON transactions (deleted_at) WHERE deleted = true;
+
+ANALYZE transactions;
@@ -0,0 +1,93 @@
+-- Particionado opcional de transactions por mes de transaction_date. Las consultas del dashboard,
+-- los reportes y la exportación acotan por fecha: con particiones solo leen los meses del rango.
+-- Se activa con app.transactions.partitioning.enabled (placeholder transactions_partitioned) o,
+-- sobre una base ya migrada, con SELECT partition_transactions(3) en una ventana de mantenimiento.
+--
+-- En la tabla particionada la clave primaria pasa a ser (id, transaction_date) y
+-- idempotency_keys.transaction_id deja de tener clave foránea: PostgreSQL exige que la clave
+-- referenciada incluya la columna de partición. El archivado ya borra esas claves antes de mover filas.
+
+-- Crea la partición del mes de p_month si no existe y le pasa las filas de ese mes que hubieran
+-- caído en transactions_default. Devuelve true si la creó. TransactionPartitionService la usa
+-- para tener siempre creados los meses siguientes.
+CREATE OR REPLACE FUNCTION create_transaction_partition(p_month DATE) RETURNS BOOLEAN
+LANGUAGE plpgsql AS $$
+DECLARE
+    v_start DATE := date_trunc('month', p_month)::DATE;
+    v_end   DATE := (date_trunc('month', p_month) + INTERVAL '1 month')::DATE;
+    v_name  TEXT := 'transactions_p' || to_char(date_trunc('month', p_month), 'YYYY_MM');
+BEGIN
+    IF to_regclass(v_name) IS NOT NULL THEN
+        RETURN false;
+    END IF;
+    CREATE TEMP TABLE transaction_partition_rows ON COMMIT DROP AS
+        SELECT * FROM transactions_default WHERE transaction_date >= v_start AND transaction_date < v_end;
+    DELETE FROM transactions_default WHERE transaction_date >= v_start AND transaction_date < v_end;
+    EXECUTE format('CREATE TABLE %I PARTITION OF transactions FOR VALUES FROM (%L) TO (%L)',
+                   v_name, v_start, v_end);
+    INSERT INTO transactions SELECT * FROM transaction_partition_rows;
+    DROP TABLE transaction_partition_rows;
+    RETURN true;
+END $$;
+
+-- Convierte transactions en tabla particionada copiando sus filas. Bloquea la tabla mientras
+-- copia: pensada para la migración o una ventana de mantenimiento. No hace nada si ya lo está.
+CREATE OR REPLACE FUNCTION partition_transactions(p_months_ahead INTEGER) RETURNS VOID
+LANGUAGE plpgsql AS $$
+DECLARE
+    v_month DATE;
+    v_last  DATE := (date_trunc('month', current_date) + make_interval(months => p_months_ahead))::DATE;
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partrelid
+               WHERE c.relname = 'transactions') THEN
+        RETURN;
+    END IF;
+
+    LOCK TABLE transactions IN ACCESS EXCLUSIVE MODE;
+    ALTER TABLE idempotency_keys DROP CONSTRAINT IF EXISTS idempotency_keys_transaction_id_fkey;
+    ALTER TABLE transactions RENAME TO transactions_unpartitioned;
+
+    -- Mismas columnas, NOT NULL y CHECK; sin el default del BIGSERIAL original (Hibernate usa transactions_seq)
+    CREATE TABLE transactions (LIKE transactions_unpartitioned INCLUDING CONSTRAINTS)
+        PARTITION BY RANGE (transaction_date);
+    -- Fechas fuera de los meses creados (muy antiguas o lejanas); create_transaction_partition las recoloca
+    CREATE TABLE transactions_default PARTITION OF transactions DEFAULT;
+
+    -- Como mucho diez años hacia atrás; lo anterior queda en la partición por defecto
+    SELECT GREATEST(date_trunc('month', MIN(transaction_date)),
+                    date_trunc('month', current_date) - INTERVAL '10 years')::DATE
+    INTO v_month
+    FROM transactions_unpartitioned;
+    v_month := COALESCE(v_month, date_trunc('month', current_date)::DATE);
+    WHILE v_month <= v_last LOOP
+        PERFORM create_transaction_partition(v_month);
+        v_month := (v_month + INTERVAL '1 month')::DATE;
+    END LOOP;
+
+    -- Los índices se crean después de copiar: más rápido y sin choques de nombre con los de la tabla vieja
+    INSERT INTO transactions SELECT * FROM transactions_unpartitioned;
+    DROP TABLE transactions_unpartitioned;
+
+    ALTER TABLE transactions ADD CONSTRAINT transactions_pkey PRIMARY KEY (id, transaction_date);
+    ALTER TABLE transactions ADD CONSTRAINT fk_transaction_budget FOREIGN KEY (budget_id) REFERENCES budgets (id);
+    ALTER TABLE transactions ADD CONSTRAINT fk_transaction_category FOREIGN KEY (category_id) REFERENCES categories (id);
+    ALTER TABLE transactions ADD CONSTRAINT fk_transaction_user FOREIGN KEY (user_id) REFERENCES users (id);
+
+    CREATE INDEX idx_transaction_date ON transactions (transaction_date);
+    CREATE INDEX idx_transaction_user_date_live
+        ON transactions (user_id, transaction_date, type) INCLUDE (amount) WHERE deleted = false;
+    CREATE INDEX idx_transaction_budget_type_live
+        ON transactions (budget_id, type) INCLUDE (amount) WHERE deleted = false;
+    CREATE INDEX idx_transaction_budget_hash ON transactions (budget_id, content_hash);
+    CREATE INDEX idx_transaction_deleted_at ON transactions (deleted_at) WHERE deleted = true;
+    CREATE INDEX idx_transaction_description_trgm ON transactions USING gin (lower(description) gin_trgm_ops);
+
+    ANALYZE transactions;
+END $$;
+
+DO $$
+BEGIN
+    IF '${transactions_partitioned}' = 'true' THEN
+        PERFORM partition_transactions(3);
+    END IF;
+END $$;
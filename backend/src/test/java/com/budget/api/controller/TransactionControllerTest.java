@@ -0,0 +1,26 @@
+package com.budget.api.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionControllerTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"gzip", "GZIP", "deflate, gzip", "gzip;q=0.5, br", "x-gzip", "*", "br, *;q=0.1",
+            "gzip ; Q=1"})
+    @DisplayName("Debe exportar en gzip si el cliente lo acepta")
+    void shouldAcceptGzip(String acceptEncoding) {
+        assertThat(TransactionController.acceptsGzip(acceptEncoding)).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "identity", "br, deflate", "gzip;q=0", "gzip; q=0.0, br", "*;q=0",
+            "gzip;q=0, *", "gzip;q=abc", "xgzip"})
+    @DisplayName("No debe exportar en gzip si el cliente no lo acepta o lo rechaza con q=0")
+    void shouldRejectGzip(String acceptEncoding) {
+        assertThat(TransactionController.acceptsGzip(acceptEncoding)).isFalse();
+    }
+}
@@ -0,0 +1,77 @@
+package com.budget.api.security;
+
+import com.budget.api.entity.User;
+import com.budget.api.exception.TooManyRequestsException;
+import com.budget.api.repository.UserRepository;
+import com.budget.api.service.UserDetailsServiceImpl;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    @DisplayName("Debe rechazar con 429 en cuanto el pool y la cola están llenos")
+    void shouldRejectWhenSaturated() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slow = mock(PasswordEncoder.class);
+        when(slow.matches("secret", "hash")).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(slow, 1, 1, Duration.ofSeconds(5))) {
+            CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("secret", "hash"));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("secret", "hash"));
+            // Deja que el segundo entre en la cola
+            Thread.sleep(200);
+
+            long before = System.nanoTime();
+            assertThatThrownBy(() -> encoder.matches("secret", "hash")).isInstanceOf(TooManyRequestsException.class);
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - before)).isLessThan(500);
+
+            release.countDown();
+            assertThat(running.get(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(queued.get(5, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe rehacer el hash guardado al subir el coste de BCrypt")
+    void shouldUpgradeStoredHash() {
+        User user = User.builder().email("bcrypt@example.com").fullName("BCrypt User")
+                .password(new BCryptPasswordEncoder(4).encode("secret")).build();
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByEmail("bcrypt@example.com")).thenReturn(Optional.of(user));
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl(userRepository);
+
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), 1, 1,
+                Duration.ofSeconds(5))) {
+            DaoAuthenticationProvider provider = new DaoAuthenticationProvider(encoder);
+            provider.setUserDetailsService(userDetailsService);
+            provider.setUserDetailsPasswordService(userDetailsService);
+
+            provider.authenticate(new UsernamePasswordAuthenticationToken("bcrypt@example.com", "secret"));
+
+            assertThat(user.getPassword()).startsWith("$2a$05$");
+            assertThat(encoder.matches("secret", user.getPassword())).isTrue();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.budget.api.security;
+
+import com.budget.api.controller.UserController;
+import com.budget.api.entity.User;
+import com.budget.api.repository.UserRepository;
+import com.budget.api.service.TokenRevocationService;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Cada "petición" pasa por el filtro JWT y pide el id como lo hacen todos los controladores.
+// Antes eran dos consultas por petición con token (loadUserByUsername y findByEmail) y una sin él
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({JwtTokenProvider.class, JwtAuthenticationFilter.class, UserIdentityCache.class, SecurityUtils.class,
+        TokenRevocationService.class, UserController.class})
+class CurrentUserQueryCountTest {
+
+    private static final int REQUESTS = 50;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+    @Autowired
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+    @Autowired
+    private UserIdentityCache userIdentityCache;
+    @Autowired
+    private SecurityUtils securityUtils;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserController userController;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        // La caché sobrevive al rollback de cada test y los ids cambian
+        userIdentityCache.evict("principal@example.com");
+        userIdentityCache.evict("default@budget.app");
+        user = userRepository.saveAndFlush(User.builder()
+                .email("principal@example.com").password("secret").fullName("Principal User").build());
+        userRepository.saveAndFlush(User.builder()
+                .email("default@budget.app").password("no-auth").fullName("Usuario por Defecto").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Debe resolver el usuario del token con una sola consulta para todas las peticiones")
+    void shouldResolvePrincipalFromCache() throws Exception {
+        String token = jwtTokenProvider.generateToken(user.getId(), user.getEmail(), "family");
+        Statistics statistics = statistics();
+
+        for (int i = 0; i < REQUESTS; i++) {
+            assertThat(request(token)).isEqualTo(user.getId());
+        }
+        for (int i = 0; i < REQUESTS; i++) {
+            assertThat(request(null)).isNotEqualTo(user.getId());
+        }
+
+        // Una por usuario, en la primera petición de cada uno
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Debe dejar de autenticar a un usuario en cuanto desactiva su cuenta")
+    void shouldRejectDeactivatedUser() throws Exception {
+        String token = jwtTokenProvider.generateToken(user.getId(), user.getEmail(), "family");
+        assertThat(request(token)).isEqualTo(user.getId());
+
+        request(token, userController::deactivate);
+
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getActive()).isFalse();
+        // Sin principal se cae al usuario por defecto
+        assertThat(request(token)).isNotEqualTo(user.getId());
+    }
+
+    @Test
+    @DisplayName("No debe desactivar al usuario por defecto en una petición sin token")
+    void shouldNotDeactivateWithoutToken() {
+        assertThatThrownBy(() -> request(null, userController::deactivate))
+                .isInstanceOf(BadCredentialsException.class);
+
+        assertThat(userRepository.findByEmail("default@budget.app").orElseThrow().getActive()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Debe rechazar un token cuyo id no corresponde al email")
+    void shouldRejectMismatchedUserId() throws Exception {
+        String token = jwtTokenProvider.generateToken(user.getId() + 1000, user.getEmail(), "family");
+
+        assertThat(request(token)).isNotEqualTo(user.getId());
+    }
+
+    private Long request(String token) throws Exception {
+        return request(token, securityUtils::getCurrentUserId);
+    }
+
+    private <T> T request(String token, Supplier<T> handler) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/transactions");
+        if (token != null) {
+            request.addHeader("Authorization", "Bearer " + token);
+        }
+        List<T> result = new ArrayList<>(1);
+        try {
+            jwtAuthenticationFilter.doFilter(request, new MockHttpServletResponse(),
+                    new MockFilterChain(new HttpServlet() {
+                        @Override
+                        protected void service(HttpServletRequest req, HttpServletResponse res) {
+                            result.add(handler.get());
+                        }
+                    }));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return result.get(0);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,56 @@
+package com.budget.api.security;
+
+import com.budget.api.dto.request.RegisterRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Detrás del nginx del frontend todas las peticiones llegan desde su dirección: el límite de
+ * registro y login por IP tiene que usar la del cliente que trae X-Forwarded-For.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.forward-headers-strategy=native",
+        "app.security.login-throttle.ip-per-minute=3",
+        "app.security.login-throttle.ip-burst=3",
+        "app.security.bcrypt.strength=4"})
+class ForwardedClientAddressTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    @DisplayName("Debe limitar por la IP de X-Forwarded-For y no por la del proxy")
+    void shouldThrottleByForwardedClientAddress() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(register("203.0.113.10").getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        }
+
+        ResponseEntity<String> throttled = register("203.0.113.10");
+        assertThat(throttled.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(throttled.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isNotBlank();
+
+        // Otro cliente detrás del mismo proxy
+        assertThat(register("203.0.113.20").getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    }
+
+    private ResponseEntity<String> register(String clientIp) {
+        RegisterRequest request = new RegisterRequest();
+        request.setFullName("Forwarded User");
+        request.setEmail("forwarded-" + UUID.randomUUID() + "@example.com");
+        request.setPassword("password123");
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Forwarded-For", clientIp);
+        return restTemplate.postForEntity("/auth/register", new HttpEntity<>(request, headers), String.class);
+    }
+}
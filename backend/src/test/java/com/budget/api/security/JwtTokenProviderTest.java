@@ -0,0 +1,50 @@
+package com.budget.api.security;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "dGVzdFNlY3JldEtleUZvclVuaXRUZXN0c09ubHlEb05vdFVzZUluUHJvZHVjdGlvbg==";
+
+    @Test
+    @DisplayName("Debe verificar el token una vez y devolver sus claims desde la caché")
+    void shouldParseOnceAndCache() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 60_000, 120_000, 100, Duration.ofMinutes(1));
+        String token = provider.generateToken(7L, "jwt@example.com", "family");
+
+        Claims first = provider.parseToken(token).orElseThrow();
+        Claims second = provider.parseToken(token).orElseThrow();
+
+        assertThat(first.getSubject()).isEqualTo("jwt@example.com");
+        assertThat(first.get(JwtTokenProvider.USER_ID_CLAIM, Long.class)).isEqualTo(7L);
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar un token alterado")
+    void shouldRejectTamperedToken() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 60_000, 120_000, 100, Duration.ofMinutes(1));
+        String token = provider.generateToken(7L, "jwt@example.com", "family");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThat(provider.parseToken(tampered)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("No debe aceptar desde la caché un token que ya expiró")
+    void shouldRejectExpiredCachedToken() throws InterruptedException {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET, 1_500, 120_000, 100, Duration.ofMinutes(1));
+        String token = provider.generateToken(7L, "jwt@example.com", "family");
+        assertThat(provider.parseToken(token)).isPresent();
+
+        Thread.sleep(2_000);
+
+        assertThat(provider.parseToken(token)).isEmpty();
+    }
+}
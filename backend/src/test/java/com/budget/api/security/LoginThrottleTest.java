@@ -0,0 +1,66 @@
+package com.budget.api.security;
+
+import com.budget.api.exception.TooManyRequestsException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginThrottleTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    // Por IP: 6 por minuto con ráfaga de 3; por cuenta: 2 por minuto con ráfaga de 2; 4 buckets de cada tipo
+    private final LoginThrottle throttle = new LoginThrottle(6, 3, 2, 2, 4, now::get);
+
+    @Test
+    @DisplayName("Debe admitir la ráfaga por cuenta, rechazar el resto y recuperarse con el tiempo")
+    void shouldLimitPerAccount() {
+        throttle.checkLogin("10.0.0.1", "user@example.com");
+        throttle.checkLogin("10.0.0.2", "USER@example.com");
+
+        assertThatThrownBy(() -> throttle.checkLogin("10.0.0.3", "user@example.com"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .hasMessageContaining("cuenta");
+        // Otra cuenta no se ve afectada
+        assertThatCode(() -> throttle.checkLogin("10.0.0.3", "other@example.com")).doesNotThrowAnyException();
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        assertThatCode(() -> throttle.checkLogin("10.0.0.4", "user@example.com")).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Debe limitar por IP aunque cada intento use otra cuenta")
+    void shouldLimitPerIp() {
+        for (int i = 0; i < 3; i++) {
+            throttle.checkLogin("10.0.0.1", "user" + i + "@example.com");
+        }
+
+        assertThatThrownBy(() -> throttle.checkLogin("10.0.0.1", "user9@example.com"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .hasMessageContaining("dirección");
+        assertThatThrownBy(() -> throttle.checkIp("10.0.0.1")).isInstanceOf(TooManyRequestsException.class);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertThatCode(() -> throttle.checkIp("10.0.0.1")).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Debe seguir limitando una cuenta agotada aunque se llene el máximo de buckets")
+    void shouldKeepThrottledAccountWhenFull() {
+        throttle.checkLogin("10.0.0.1", "user@example.com");
+        throttle.checkLogin("10.0.0.1", "user@example.com");
+
+        // Cada cuenta nueva desplaza a la más cercana a llenarse, nunca a la agotada
+        for (int i = 0; i < 20; i++) {
+            throttle.checkLogin("10.0.1." + i, "other" + i + "@example.com");
+        }
+
+        assertThatThrownBy(() -> throttle.checkLogin("10.0.2.1", "user@example.com"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .hasMessageContaining("cuenta");
+    }
+}
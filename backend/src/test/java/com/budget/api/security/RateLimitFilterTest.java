@@ -0,0 +1,133 @@
+package com.budget.api.security;
+
+import com.budget.api.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RateLimitFilterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final HandlerExceptionResolver exceptionResolver = mock(HandlerExceptionResolver.class);
+    private final UserIdentityCache userIdentityCache = mock(UserIdentityCache.class);
+    private final RateLimitFilter filter = filter(1000);
+
+    @BeforeEach
+    void setUp() {
+        when(userIdentityCache.findActiveUserId("default@budget.app")).thenReturn(Optional.of(1L));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Debe cobrar el coste de cada endpoint por usuario y responder 429 con Retry-After")
+    void shouldThrottleExpensiveEndpointPerUser() throws Exception {
+        assertThat(call(1L, "GET", "/reports/dashboard")).isTrue();
+        assertThat(call(1L, "GET", "/reports/dashboard")).isTrue();
+        assertThat(call(1L, "GET", "/reports/dashboard")).isFalse();
+
+        ArgumentCaptor<Exception> error = ArgumentCaptor.forClass(Exception.class);
+        verify(exceptionResolver).resolveException(any(), any(), isNull(), error.capture());
+        assertThat(error.getValue()).isInstanceOf(TooManyRequestsException.class);
+        assertThat(((TooManyRequestsException) error.getValue()).getRetryAfterSeconds()).isEqualTo(10);
+        assertThat(meterRegistry.get("ratelimit.throttled").tag("endpoint", "GET /reports/dashboard")
+                .counter().count()).isEqualTo(1);
+
+        // Otro usuario tiene su propio bucket y el CRUD cuesta una unidad
+        assertThat(call(2L, "GET", "/reports/dashboard")).isTrue();
+        assertThat(call(2L, "GET", "/transactions")).isTrue();
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertThat(call(1L, "GET", "/reports/dashboard")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Sin token debe limitar al usuario por defecto por IP y no cobrar los endpoints de coste cero")
+    void shouldThrottleDefaultUserPerClientAddress() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            assertThat(call(null, "POST", "/transactions")).isTrue();
+        }
+        assertThat(call(null, "POST", "/transactions")).isFalse();
+        assertThat(call(null, "GET", "/actuator/health")).isTrue();
+        // Otro navegador detrás del mismo frontend
+        assertThat(call(null, "POST", "/transactions", "10.0.0.2")).isTrue();
+        assertThat(meterRegistry.get("ratelimit.throttled").tag("endpoint", "default").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("ratelimit.buckets").gauge().value()).isEqualTo(2);
+
+        // Llenos otra vez, los buckets se descartan
+        now.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        filter.purgeIdle();
+        assertThat(meterRegistry.get("ratelimit.buckets").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Con el máximo de buckets debe descartar el más cercano a llenarse y mantener el límite")
+    void shouldEvictOldestBucketWhenFull() throws Exception {
+        RateLimitFilter bounded = filter(2);
+        assertThat(call(bounded, 1L, "GET", "/reports/dashboard", "10.0.0.1")).isTrue();
+        assertThat(call(bounded, 1L, "GET", "/reports/dashboard", "10.0.0.1")).isTrue();
+        assertThat(call(bounded, 2L, "GET", "/reports/dashboard", "10.0.0.1")).isTrue();
+
+        assertThat(call(bounded, 3L, "GET", "/reports/dashboard", "10.0.0.1")).isTrue();
+
+        // Se descartó el bucket del usuario 2; el 1 sigue sin tokens
+        assertThat(call(bounded, 1L, "GET", "/reports/dashboard", "10.0.0.1")).isFalse();
+        assertThat(call(bounded, 2L, "GET", "/reports/dashboard", "10.0.0.1")).isTrue();
+    }
+
+    // 60 unidades por minuto con ráfaga de 20: dos dashboards seguidos y el tercero espera
+    private RateLimitFilter filter(int maxBuckets) {
+        return new RateLimitFilter(meterRegistry, exceptionResolver, new SecurityUtils(userIdentityCache), true,
+                60, 20, 1, List.of("* /actuator/**=0", "GET /reports/dashboard=10"), maxBuckets, now::get);
+    }
+
+    private boolean call(Long userId, String method, String path) throws Exception {
+        return call(userId, method, path, "10.0.0.1");
+    }
+
+    private boolean call(Long userId, String method, String path, String clientIp) throws Exception {
+        return call(filter, userId, method, path, clientIp);
+    }
+
+    private boolean call(RateLimitFilter filter, Long userId, String method, String path, String clientIp)
+            throws Exception {
+        if (userId != null) {
+            SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                    new AuthenticatedUser(userId, "user" + userId + "@example.com"), null, Collections.emptyList()));
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api" + path);
+        request.setContextPath("/api");
+        request.setRemoteAddr(clientIp);
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        SecurityContextHolder.clearContext();
+        return chain.getRequest() != null;
+    }
+}
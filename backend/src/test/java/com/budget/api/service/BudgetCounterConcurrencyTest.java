@@ -0,0 +1,199 @@
+package com.budget.api.service;
+
+import com.budget.api.dto.request.TransactionRequest;
+import com.budget.api.dto.response.TransactionResponse;
+import com.budget.api.entity.Budget;
+import com.budget.api.entity.User;
+import com.budget.api.enums.TransactionType;
+import com.budget.api.exception.BudgetExceededException;
+import com.budget.api.exception.ResourceNotFoundException;
+import com.budget.api.repository.BudgetRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sin transacción de test: cada alta confirma la suya, como en producción
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(TransactionTestConfiguration.class)
+class BudgetCounterConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int ATTEMPTS_PER_THREAD = 25;
+    private static final int ROUNDS = 10;
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private BudgetCounterService budgetCounterService;
+    @Autowired
+    private MonthlyRollupService monthlyRollupService;
+    @Autowired
+    private BudgetRepository budgetRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private TransactionFixtures fixtures;
+
+    private User user;
+    private Budget budget;
+
+    @BeforeEach
+    void setUp() {
+        user = fixtures.user("counters@example.com");
+        budget = fixtures.budget(user, "Concurrente", "1000", LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31));
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Debe aceptar exactamente los gastos que caben en el presupuesto aunque lleguen en paralelo")
+    void shouldNeverOvershootUnderConcurrentCreates() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < THREADS; thread++) {
+                futures.add(executor.submit((Callable<Void>) () -> {
+                    start.await();
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        try {
+                            transactionService.create(user.getId(), request("10", TransactionType.EXPENSE));
+                            accepted.incrementAndGet();
+                        } catch (BudgetExceededException e) {
+                            rejected.incrementAndGet();
+                        }
+                        if (i % 5 == 0) {
+                            transactionService.create(user.getId(), request("7", TransactionType.INCOME));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // 200 intentos de 10 sobre un total de 1000
+        assertThat(accepted.get()).isEqualTo(100);
+        assertThat(rejected.get()).isEqualTo(THREADS * ATTEMPTS_PER_THREAD - 100);
+        Budget reloaded = budgetRepository.findById(budget.getId()).orElseThrow();
+        assertThat(reloaded.getSpentAmount()).isEqualByComparingTo("1000");
+        assertThat(reloaded.getIncomeAmount()).isEqualByComparingTo("280");
+        assertThat(budgetCounterService.verify()).isEmpty();
+        assertThat(monthlyRollupService.verify(user.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Debe mantener los contadores al actualizar y eliminar, y reparar los que no cuadran")
+    void shouldKeepCountersOnUpdateDeleteAndReconcile() {
+        TransactionResponse expense = transactionService.create(user.getId(), request("400", TransactionType.EXPENSE));
+        TransactionResponse income = transactionService.create(user.getId(), request("50", TransactionType.INCOME));
+
+        TransactionRequest changed = request("300", TransactionType.INCOME);
+        transactionService.update(user.getId(), expense.getId(), changed);
+        transactionService.delete(user.getId(), income.getId());
+
+        Budget reloaded = budgetRepository.findById(budget.getId()).orElseThrow();
+        assertThat(reloaded.getSpentAmount()).isEqualByComparingTo("0");
+        assertThat(reloaded.getIncomeAmount()).isEqualByComparingTo("300");
+        assertThat(budgetCounterService.verify()).isEmpty();
+
+        transactionTemplate.executeWithoutResult(status ->
+                budgetRepository.setTotals(budget.getId(), new BigDecimal("999"), BigDecimal.ZERO));
+        assertThat(budgetCounterService.verify()).hasSize(1);
+
+        assertThat(budgetCounterService.reconcile()).isEqualTo(1);
+        assertThat(budgetCounterService.verify()).isEmpty();
+        assertThat(budgetRepository.findById(budget.getId()).orElseThrow().getIncomeAmount())
+                .isEqualByComparingTo("300");
+    }
+
+    @Test
+    @DisplayName("Debe descontar una sola vez aunque la misma transacción se elimine o cambie en paralelo")
+    void shouldApplyConcurrentDeletesAndUpdatesOnce() throws Exception {
+        AtomicInteger deleted = new AtomicInteger();
+        AtomicInteger notFound = new AtomicInteger();
+        for (int round = 0; round < ROUNDS; round++) {
+            Long expenseId = transactionService.create(user.getId(), request("10", TransactionType.EXPENSE)).getId();
+            Long incomeId = transactionService.create(user.getId(), request("5", TransactionType.INCOME)).getId();
+
+            // Reintentos del mismo DELETE: solo uno elimina, el resto no la encuentra
+            runConcurrently(thread -> {
+                try {
+                    transactionService.delete(user.getId(), expenseId);
+                    deleted.incrementAndGet();
+                } catch (ResourceNotFoundException e) {
+                    notFound.incrementAndGet();
+                }
+            });
+            // Cambios simultáneos del monto: cada uno descuenta el monto que dejó el anterior
+            runConcurrently(thread -> transactionService.update(user.getId(), incomeId,
+                    request(String.valueOf(thread + 1), TransactionType.INCOME)));
+        }
+
+        assertThat(deleted.get()).isEqualTo(ROUNDS);
+        assertThat(notFound.get()).isEqualTo(ROUNDS * (THREADS - 1));
+        Budget reloaded = budgetRepository.findById(budget.getId()).orElseThrow();
+        assertThat(reloaded.getSpentAmount()).isEqualByComparingTo("0");
+        assertThat(budgetCounterService.verify()).isEmpty();
+        assertThat(monthlyRollupService.verify(user.getId())).isEmpty();
+    }
+
+    private void runConcurrently(IntConsumer task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < THREADS; thread++) {
+                int index = thread;
+                futures.add(executor.submit((Callable<Void>) () -> {
+                    start.await();
+                    task.accept(index);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private TransactionRequest request(String amount, TransactionType type) {
+        return TransactionFixtures.request(budget, "Movimiento", amount, type);
+    }
+}
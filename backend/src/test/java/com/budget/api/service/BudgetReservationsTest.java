@@ -0,0 +1,169 @@
+package com.budget.api.service;
+
+import com.budget.api.repository.BudgetRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class BudgetReservationsTest {
+
+    private static final BigDecimal LIMIT = new BigDecimal("10000");
+
+    @Mock
+    private BudgetRepository budgetRepository;
+
+    // spent_amount confirmado en la "base de datos"
+    private final Map<Long, BigDecimal> database = new ConcurrentHashMap<>();
+    private BudgetReservations budgetReservations;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(budgetRepository.findSpentAmountById(anyLong()))
+                .thenAnswer(invocation -> database.getOrDefault(invocation.<Long>getArgument(0), BigDecimal.ZERO));
+        lenient().when(budgetRepository.findSpentAmountsByIdIn(any())).thenAnswer(invocation -> {
+            List<Object[]> rows = new ArrayList<>();
+            for (Long budgetId : invocation.<Collection<Long>>getArgument(0)) {
+                rows.add(new Object[]{budgetId, database.getOrDefault(budgetId, BigDecimal.ZERO)});
+            }
+            return rows;
+        });
+        budgetReservations = new BudgetReservations(budgetRepository, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Debe liberar la reserva al deshacer y aplicar las disminuciones solo al confirmar")
+    void shouldReleaseOnRollbackAndCreditOnCommit() {
+        database.put(1L, new BigDecimal("9000"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertThat(budgetReservations.tryReserve(1L, new BigDecimal("800"), LIMIT).reserved()).isTrue();
+        BudgetReservations.Outcome second = budgetReservations.tryReserve(1L, new BigDecimal("300"), LIMIT);
+        assertThat(second.reserved()).isFalse();
+        assertThat(second.spent()).isEqualByComparingTo("10100");
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertThat(budgetReservations.spent(1L)).isEqualByComparingTo("9000");
+
+        TransactionSynchronizationManager.initSynchronization();
+        budgetReservations.track(1L, new BigDecimal("-500"));
+        // La disminución aún no está confirmada: no deja espacio
+        assertThat(budgetReservations.tryReserve(1L, new BigDecimal("1200"), LIMIT).reserved()).isFalse();
+        database.put(1L, new BigDecimal("8500"));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(budgetReservations.spent(1L)).isEqualByComparingTo("8500");
+
+        assertThatThrownBy(() -> budgetReservations.tryReserve(1L, BigDecimal.ONE, LIMIT))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Debe aceptar gastos concurrentes sin superar nunca el límite, con rollbacks y sincronizaciones")
+    void shouldNeverOvershootUnderContention() throws Exception {
+        int threads = 16;
+        int operationsPerThread = 20_000;
+        long[] budgetIds = {1L, 2L, 3L, 4L};
+        AtomicBoolean overshoot = new AtomicBoolean();
+        AtomicBoolean done = new AtomicBoolean();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        List<Future<?>> writers = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                long seed = t;
+                writers.add(executor.submit(() -> {
+                    Random random = new Random(seed);
+                    start.await();
+                    for (int i = 0; i < operationsPerThread; i++) {
+                        Long budgetId = budgetIds[random.nextInt(budgetIds.length)];
+                        BigDecimal amount = BigDecimal.valueOf(1 + random.nextInt(1000), 2);
+                        TransactionSynchronizationManager.initSynchronization();
+                        try {
+                            if (!budgetReservations.tryReserve(budgetId, amount, LIMIT).reserved()) {
+                                complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+                                continue;
+                            }
+                            if (random.nextInt(5) == 0) {
+                                complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+                                continue;
+                            }
+                            // El commit llega a la base antes que la sincronización, como en producción
+                            BigDecimal spent = database.merge(budgetId, amount, BigDecimal::add);
+                            if (spent.compareTo(LIMIT) > 0) {
+                                overshoot.set(true);
+                            }
+                            complete(TransactionSynchronization.STATUS_COMMITTED);
+                        } finally {
+                            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                                TransactionSynchronizationManager.clearSynchronization();
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            Future<?> refresher = executor.submit(() -> {
+                while (!done.get()) {
+                    budgetReservations.refresh();
+                    Thread.onSpinWait();
+                }
+                return null;
+            });
+
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(2, TimeUnit.MINUTES);
+            }
+            done.set(true);
+            refresher.get(1, TimeUnit.MINUTES);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(overshoot).isFalse();
+        for (long budgetId : budgetIds) {
+            assertThat(database.get(budgetId)).isLessThanOrEqualTo(LIMIT);
+            assertThat(budgetReservations.spent(budgetId)).isEqualByComparingTo(database.get(budgetId));
+        }
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, status);
+    }
+}
@@ -1,5 +1,6 @@
 package com.budget.api.service;
 
+import com.budget.api.cache.DashboardCache;
 import com.budget.api.dto.request.BudgetRequest;
 import com.budget.api.dto.response.BudgetResponse;
 import com.budget.api.entity.Budget;
@@ -9,7 +10,7 @@ import com.budget.api.enums.TransactionType;
 import com.budget.api.exception.ResourceNotFoundException;
 import com.budget.api.mapper.BudgetMapper;
 import com.budget.api.repository.BudgetRepository;
-import com.budget.api.repository.TransactionRepository;
+import com.budget.api.repository.MonthlyRollupRepository;
 import com.budget.api.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -18,9 +19,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -33,11 +40,13 @@ class BudgetServiceTest {
     @Mock
     private BudgetRepository budgetRepository;
     @Mock
-    private TransactionRepository transactionRepository;
+    private MonthlyRollupRepository monthlyRollupRepository;
     @Mock
     private UserRepository userRepository;
     @Mock
     private BudgetMapper budgetMapper;
+    @Mock
+    private DashboardCache dashboardCache;
 
     @InjectMocks
     private BudgetService budgetService;
@@ -87,10 +96,8 @@ class BudgetServiceTest {
                         .totalAmount(new BigDecimal("3000000"))
                         .build()
         );
-        when(transactionRepository.sumByBudgetIdAndType(1L, TransactionType.EXPENSE))
-                .thenReturn(BigDecimal.ZERO);
-        when(transactionRepository.sumByBudgetIdAndType(1L, TransactionType.INCOME))
-                .thenReturn(BigDecimal.ZERO);
+        when(monthlyRollupRepository.sumByBudgetIdsGroupByType(List.of(1L)))
+                .thenReturn(Collections.emptyList());
 
         BudgetResponse result = budgetService.create(1L, testRequest);
 
@@ -120,10 +127,10 @@ class BudgetServiceTest {
                         .totalAmount(new BigDecimal("3000000"))
                         .build()
         );
-        when(transactionRepository.sumByBudgetIdAndType(1L, TransactionType.EXPENSE))
-                .thenReturn(new BigDecimal("1500000"));
-        when(transactionRepository.sumByBudgetIdAndType(1L, TransactionType.INCOME))
-                .thenReturn(new BigDecimal("3000000"));
+        when(monthlyRollupRepository.sumByBudgetIdsGroupByType(List.of(1L)))
+                .thenReturn(List.of(
+                        new Object[]{1L, TransactionType.EXPENSE, new BigDecimal("1500000")},
+                        new Object[]{1L, TransactionType.INCOME, new BigDecimal("3000000")}));
 
         BudgetResponse result = budgetService.findById(1L, 1L);
 
@@ -132,6 +139,43 @@ class BudgetServiceTest {
         assertThat(result.getRemainingAmount()).isEqualTo(new BigDecimal("1500000"));
     }
 
+    @Test
+    @DisplayName("Debe calcular los totales de toda la página con una sola consulta")
+    void shouldLoadPageTotalsInSingleQuery() {
+        Budget second = Budget.builder()
+                .name("Marzo 2026")
+                .totalAmount(new BigDecimal("2000000"))
+                .period(BudgetPeriod.MONTHLY)
+                .user(testUser)
+                .build();
+        second.setId(2L);
+        Pageable pageable = PageRequest.of(0, 10);
+        when(budgetRepository.findByUserIdAndActiveTrue(1L, pageable))
+                .thenReturn(new PageImpl<>(List.of(testBudget, second), pageable, 2));
+        when(budgetMapper.toResponse(any(Budget.class))).thenAnswer(invocation -> {
+            Budget budget = invocation.getArgument(0);
+            return BudgetResponse.builder()
+                    .id(budget.getId())
+                    .name(budget.getName())
+                    .totalAmount(budget.getTotalAmount())
+                    .build();
+        });
+        when(monthlyRollupRepository.sumByBudgetIdsGroupByType(List.of(1L, 2L)))
+                .thenReturn(List.<Object[]>of(
+                        new Object[]{1L, TransactionType.EXPENSE, new BigDecimal("750000")},
+                        new Object[]{1L, TransactionType.INCOME, new BigDecimal("3000000")},
+                        new Object[]{2L, TransactionType.EXPENSE, new BigDecimal("500000")}));
+
+        Page<BudgetResponse> result = budgetService.findAll(1L, pageable);
+
+        assertThat(result.getContent())
+                .extracting(BudgetResponse::getSpentAmount)
+                .containsExactly(new BigDecimal("750000"), new BigDecimal("500000"));
+        assertThat(result.getContent().get(1).getUsagePercentage()).isEqualTo(25.0);
+        verify(monthlyRollupRepository, times(1)).sumByBudgetIdsGroupByType(any());
+        verifyNoMoreInteractions(monthlyRollupRepository);
+    }
+
     @Test
     @DisplayName("Debe desactivar presupuesto al eliminar")
     void shouldSoftDeleteBudget() {
@@ -0,0 +1,59 @@
+package com.budget.api.service;
+
+import com.budget.api.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DashboardSectionRunnerTest {
+
+    private final DashboardSectionRunner runner = new DashboardSectionRunner(true, 2, Duration.ofMillis(200));
+
+    @AfterEach
+    void tearDown() {
+        runner.shutdown();
+    }
+
+    @Test
+    @DisplayName("Debe ejecutar las secciones en el pool y devolver sus resultados")
+    void shouldRunSectionsConcurrently() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        DashboardSectionRunner.Section<String> first = runner.submit("first", () -> awaitOther(bothStarted, "a"));
+        DashboardSectionRunner.Section<String> second = runner.submit("second", () -> awaitOther(bothStarted, "b"));
+
+        assertThat(first.join() + second.join()).isEqualTo("ab");
+    }
+
+    @Test
+    @DisplayName("Debe responder 503 cuando una sección excede el tiempo límite")
+    void shouldFailWhenSectionTimesOut() {
+        DashboardSectionRunner.Section<String> slow = runner.submit("slow", () -> {
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "tarde";
+        });
+
+        assertThatThrownBy(slow::join).isInstanceOf(ServiceUnavailableException.class);
+    }
+
+    private static String awaitOther(CountDownLatch latch, String value) {
+        latch.countDown();
+        try {
+            // Solo se completa si la otra sección corre al mismo tiempo
+            assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,137 @@
+package com.budget.api.service;
+
+import com.budget.api.cache.DashboardCache;
+import com.budget.api.dto.response.DashboardResponse;
+import com.budget.api.entity.Budget;
+import com.budget.api.entity.Category;
+import com.budget.api.entity.Transaction;
+import com.budget.api.entity.User;
+import com.budget.api.enums.BudgetPeriod;
+import com.budget.api.enums.ExpenseType;
+import com.budget.api.enums.TransactionType;
+import com.budget.api.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({DashboardService.class, DashboardSectionRunner.class, MonthlyRollupService.class,
+        DashboardCache.class, SimpleMeterRegistry.class})
+class DashboardServiceQueryCountTest {
+
+    @Autowired
+    private DashboardService dashboardService;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private MonthlyRollupService monthlyRollupService;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+    private LocalDate start;
+    private LocalDate end;
+
+    @BeforeEach
+    void setUp() {
+        LocalDate today = LocalDate.now();
+        start = YearMonth.from(today).atDay(1);
+        end = YearMonth.from(today).atEndOfMonth();
+
+        user = entityManager.persist(User.builder()
+                .email("dashboard@example.com")
+                .password("secret")
+                .fullName("Dashboard User")
+                .build());
+        Category rent = entityManager.persist(Category.builder()
+                .name("Arriendo").expenseType(ExpenseType.FIXED).user(user).build());
+        Category food = entityManager.persist(Category.builder()
+                .name("Comida").expenseType(ExpenseType.VARIABLE).user(user).build());
+
+        Budget current = entityManager.persist(Budget.builder()
+                .name("Mes actual").totalAmount(new BigDecimal("5000000"))
+                .period(BudgetPeriod.MONTHLY).startDate(start).endDate(end).user(user).build());
+        Budget second = entityManager.persist(Budget.builder()
+                .name("Ahorro").totalAmount(new BigDecimal("1000000"))
+                .period(BudgetPeriod.MONTHLY).startDate(start).endDate(end).user(user).build());
+
+        for (int i = 0; i < 6; i++) {
+            LocalDate day = YearMonth.from(today.minusMonths(i)).atDay(1);
+            persist(current, null, TransactionType.INCOME, "4000000.00", day);
+            persist(current, rent, TransactionType.EXPENSE, "1200000.00", day);
+            persist(current, food, TransactionType.EXPENSE, "350000.50", day.plusDays(1));
+            persist(second, null, TransactionType.EXPENSE, "100000.00", day.plusDays(2));
+        }
+        entityManager.flush();
+        monthlyRollupService.rebuild(user.getId());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Debe calcular el dashboard con un número constante de consultas")
+    void shouldComputeDashboardWithConstantStatementCount() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        DashboardResponse result = dashboardService.getDashboardMetrics(user.getId(), null, null);
+
+        // Presupuestos activos + sumas diarias del rango + rollups de seis meses
+        // + días sueltos al inicio de la ventana de seis meses + gasto por presupuesto
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(5);
+        assertThat(monthlyRollupService.verify(user.getId())).isEmpty();
+
+        assertThat(result.getTotalIncome()).isEqualByComparingTo(transactionRepository
+                .sumByUserIdAndTypeAndDateRange(user.getId(), TransactionType.INCOME, start, end));
+        assertThat(result.getTotalExpenses()).isEqualByComparingTo(transactionRepository
+                .sumByUserIdAndTypeAndDateRange(user.getId(), TransactionType.EXPENSE, start, end));
+        assertThat(result.getMonthlyAverageExpense()).isEqualByComparingTo(transactionRepository
+                .sumByUserIdAndTypeAndDateRange(user.getId(), TransactionType.EXPENSE,
+                        LocalDate.now().minusMonths(6), LocalDate.now())
+                .divide(BigDecimal.valueOf(6), 2, RoundingMode.HALF_UP));
+        assertThat(result.getCategoryBreakdown()).hasSize(2);
+        assertThat(result.getBudgetVsActual())
+                .extracting(DashboardResponse.BudgetVsActual::getActual)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactlyInAnyOrder(new BigDecimal("9300003.00"), new BigDecimal("600000.00"));
+        assertThat(result.getBalanceHistory())
+                .hasSize((int) transactionRepository.sumByDateTypeAndCategory(user.getId(), start, end).stream()
+                        .map(row -> row[0]).distinct().count());
+        assertThat(result.getIncomeVsExpenses()).hasSize(6)
+                .allSatisfy(month -> assertThat(month.getIncome()).isEqualByComparingTo("4000000"));
+        assertThat(result.getFixedVsVariable()).hasSize(6)
+                .allSatisfy(month -> {
+                    assertThat(month.getFixedExpenses()).isEqualByComparingTo("1200000");
+                    assertThat(month.getVariableExpenses()).isEqualByComparingTo("350000.50");
+                });
+    }
+
+    private void persist(Budget budget, Category category, TransactionType type, String amount, LocalDate date) {
+        entityManager.persist(Transaction.builder()
+                .description(type + " " + date)
+                .amount(new BigDecimal(amount))
+                .type(type)
+                .transactionDate(date)
+                .budget(budget)
+                .user(user)
+                .category(category)
+                .build());
+    }
+}
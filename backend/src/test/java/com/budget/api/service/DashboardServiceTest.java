@@ -1,26 +1,31 @@
 package com.budget.api.service;
 
+import com.budget.api.cache.DashboardCache;
 import com.budget.api.dto.response.DashboardResponse;
 import com.budget.api.entity.Budget;
 import com.budget.api.enums.BudgetPeriod;
 import com.budget.api.enums.TransactionType;
 import com.budget.api.repository.BudgetRepository;
+import com.budget.api.repository.MonthlyRollupRepository;
 import com.budget.api.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class DashboardServiceTest {
@@ -29,6 +34,13 @@ class DashboardServiceTest {
     private TransactionRepository transactionRepository;
     @Mock
     private BudgetRepository budgetRepository;
+    @Mock
+    private MonthlyRollupRepository monthlyRollupRepository;
+    @Spy
+    private DashboardCache dashboardCache = new DashboardCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+
+    @Spy
+    private DashboardSectionRunner sectionRunner = new DashboardSectionRunner(false, 1, Duration.ofSeconds(5));
 
     @InjectMocks
     private DashboardService dashboardService;
@@ -39,10 +51,13 @@ class DashboardServiceTest {
         LocalDate start = LocalDate.of(2026, 2, 1);
         LocalDate end = LocalDate.of(2026, 2, 28);
 
-        when(transactionRepository.sumByUserIdAndTypeAndDateRange(eq(1L), eq(TransactionType.INCOME), any(), any()))
-                .thenReturn(new BigDecimal("5000000"));
-        when(transactionRepository.sumByUserIdAndTypeAndDateRange(eq(1L), eq(TransactionType.EXPENSE), any(), any()))
-                .thenReturn(new BigDecimal("3000000"));
+        when(transactionRepository.sumByDateTypeAndCategory(eq(1L), any(), any()))
+                .thenReturn(List.of(
+                        new Object[]{LocalDate.of(2026, 2, 5), TransactionType.INCOME, null, null,
+                                new BigDecimal("5000000")},
+                        new Object[]{LocalDate.of(2026, 2, 10), TransactionType.EXPENSE, null, null,
+                                new BigDecimal("3000000")}
+                ));
         when(budgetRepository.findActiveBudgetsByDate(eq(1L), any()))
                 .thenReturn(List.of(
                         Budget.builder()
@@ -53,13 +68,11 @@ class DashboardServiceTest {
                                 .endDate(end)
                                 .build()
                 ));
-        when(transactionRepository.sumExpensesByCategory(eq(1L), any(), any()))
-                .thenReturn(Collections.emptyList());
-        when(transactionRepository.sumByBudgetIdAndType(any(), eq(TransactionType.EXPENSE)))
-                .thenReturn(new BigDecimal("3000000"));
-        when(transactionRepository.dailyBalanceChange(eq(1L), any(), any()))
+        when(monthlyRollupRepository.sumByMonthTypeAndExpenseType(eq(1L), any(), any()))
                 .thenReturn(Collections.emptyList());
-        when(transactionRepository.sumExpensesByExpenseType(eq(1L), any(), any()))
+        when(transactionRepository.sumByUserIdAndTypeAndDateRange(eq(1L), eq(TransactionType.EXPENSE), any(), any()))
+                .thenReturn(BigDecimal.ZERO);
+        when(monthlyRollupRepository.sumByBudgetIdsGroupByType(any()))
                 .thenReturn(Collections.emptyList());
 
         DashboardResponse result = dashboardService.getDashboardMetrics(1L, start, end);
@@ -68,25 +81,52 @@ class DashboardServiceTest {
         assertThat(result.getTotalExpenses()).isEqualTo(new BigDecimal("3000000"));
         assertThat(result.getBalance()).isEqualTo(new BigDecimal("2000000"));
         assertThat(result.getBudgetUsagePercentage()).isGreaterThan(0);
+        // El gasto sin categoría cuenta en los totales pero no en el desglose por categoría
+        assertThat(result.getCategoryBreakdown()).isEmpty();
     }
 
     @Test
     @DisplayName("Debe manejar caso sin presupuestos activos")
     void shouldHandleNoBudgets() {
-        when(transactionRepository.sumByUserIdAndTypeAndDateRange(eq(1L), any(), any(), any()))
-                .thenReturn(BigDecimal.ZERO);
-        when(budgetRepository.findActiveBudgetsByDate(eq(1L), any()))
-                .thenReturn(Collections.emptyList());
-        when(transactionRepository.sumExpensesByCategory(eq(1L), any(), any()))
+        when(transactionRepository.sumByDateTypeAndCategory(eq(1L), any(), any()))
                 .thenReturn(Collections.emptyList());
-        when(transactionRepository.dailyBalanceChange(eq(1L), any(), any()))
+        when(budgetRepository.findActiveBudgetsByDate(eq(1L), any()))
                 .thenReturn(Collections.emptyList());
-        when(transactionRepository.sumExpensesByExpenseType(eq(1L), any(), any()))
+        when(monthlyRollupRepository.sumByMonthTypeAndExpenseType(eq(1L), any(), any()))
                 .thenReturn(Collections.emptyList());
+        when(transactionRepository.sumByUserIdAndTypeAndDateRange(eq(1L), eq(TransactionType.EXPENSE), any(), any()))
+                .thenReturn(BigDecimal.ZERO);
 
         DashboardResponse result = dashboardService.getDashboardMetrics(1L, null, null);
 
         assertThat(result.getBudgetUsagePercentage()).isEqualTo(0.0);
         assertThat(result.getBalance()).isEqualTo(BigDecimal.ZERO);
     }
+
+    @Test
+    @DisplayName("Debe servir desde caché hasta que se invalide el usuario")
+    void shouldServeFromCacheUntilInvalidated() {
+        when(budgetRepository.findActiveBudgetsByDate(eq(1L), any()))
+                .thenReturn(Collections.emptyList());
+        when(transactionRepository.sumByDateTypeAndCategory(eq(1L), any(), any()))
+                .thenReturn(Collections.emptyList());
+        when(monthlyRollupRepository.sumByMonthTypeAndExpenseType(eq(1L), any(), any()))
+                .thenReturn(Collections.emptyList());
+        when(transactionRepository.sumByUserIdAndTypeAndDateRange(eq(1L), eq(TransactionType.EXPENSE), any(), any()))
+                .thenReturn(BigDecimal.ZERO);
+
+        DashboardResponse first = dashboardService.getDashboardMetrics(1L, null, null);
+        DashboardResponse second = dashboardService.getDashboardMetrics(1L, null, null);
+
+        assertThat(second).isSameAs(first);
+        verify(budgetRepository, times(1)).findActiveBudgetsByDate(eq(1L), any());
+
+        dashboardCache.invalidateUser(2L);
+        dashboardService.getDashboardMetrics(1L, null, null);
+        verify(budgetRepository, times(1)).findActiveBudgetsByDate(eq(1L), any());
+
+        dashboardCache.invalidateUser(1L);
+        dashboardService.getDashboardMetrics(1L, null, null);
+        verify(budgetRepository, times(2)).findActiveBudgetsByDate(eq(1L), any());
+    }
 }
@@ -0,0 +1,45 @@
+package com.budget.api.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DescriptionNgramIndexTest {
+
+    private static final String[] WORDS = {"mercado", "bus", "arriendo", "café", "Éxito", "luz", "agua", "gas"};
+
+    @Test
+    @DisplayName("Debe dar los mismos resultados que contains tras altas, cambios y bajas")
+    void shouldMatchLinearScan() {
+        Random random = new Random(7);
+        DescriptionNgramIndex index = new DescriptionNgramIndex();
+        Map<Long, String> descriptions = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            long id = random.nextInt(3_000);
+            if (random.nextInt(4) == 0) {
+                index.remove(id);
+                descriptions.remove(id);
+            } else {
+                String description = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+                index.put(id, description);
+                descriptions.put(id, description);
+            }
+        }
+
+        for (String term : new String[]{"mercado", "ERCADO B", "é", "ua", "xito luz", "zzz", "s a"}) {
+            String needle = DescriptionNgramIndex.normalize(term);
+            long[] expected = descriptions.entrySet().stream()
+                    .filter(entry -> DescriptionNgramIndex.normalize(entry.getValue()).contains(needle))
+                    .mapToLong(Map.Entry::getKey)
+                    .toArray();
+            assertThat(index.search(term, Integer.MAX_VALUE - 1)).containsExactlyInAnyOrder(expected);
+        }
+        assertThat(index.size()).isEqualTo(descriptions.size());
+        assertThat(index.search("a", 10)).isNull();
+    }
+}
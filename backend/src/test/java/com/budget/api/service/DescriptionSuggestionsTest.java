@@ -0,0 +1,90 @@
+package com.budget.api.service;
+
+import com.budget.api.enums.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DescriptionSuggestionsTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 3, 1);
+
+    @Test
+    @DisplayName("Debe sugerir las descripciones más usadas con su categoría e importe habituales")
+    void shouldRankByFrequency() {
+        DescriptionSuggestions suggestions = new DescriptionSuggestions();
+        suggestions.add("Mercado semanal", TransactionType.EXPENSE, 3L, "Comida", new BigDecimal("120"), DATE, 5);
+        suggestions.add("mercado  SEMANAL", TransactionType.EXPENSE, 3L, "Comida", new BigDecimal("95.00"),
+                DATE.plusDays(1), 1);
+        suggestions.add("Mercado semanal", TransactionType.EXPENSE, 4L, "Hogar", new BigDecimal("95"), DATE, 1);
+        suggestions.add("Médico", TransactionType.EXPENSE, null, null, new BigDecimal("80000"), DATE, 2);
+        suggestions.add("Mesada", TransactionType.INCOME, null, null, new BigDecimal("50000"), DATE, 3);
+
+        List<DescriptionSuggestions.Suggestion> top = suggestions.top("me", 10);
+
+        assertThat(top).extracting(DescriptionSuggestions.Suggestion::description)
+                .containsExactly("mercado  SEMANAL", "Mesada", "Médico");
+        DescriptionSuggestions.Suggestion market = top.get(0);
+        assertThat(market.occurrences()).isEqualTo(7);
+        assertThat(market.categoryName()).isEqualTo("Comida");
+        assertThat(market.amount()).isEqualByComparingTo("120");
+        assertThat(top.get(1).type()).isEqualTo(TransactionType.INCOME);
+        assertThat(suggestions.top("medi", 10)).extracting(DescriptionSuggestions.Suggestion::description)
+                .containsExactly("Médico");
+        assertThat(suggestions.top("mercado s", 1)).hasSize(1);
+        assertThat(suggestions.top("mercado x", 1)).isEmpty();
+
+        suggestions.remove("Médico", TransactionType.EXPENSE, null, new BigDecimal("80000"));
+        suggestions.remove("Médico", TransactionType.EXPENSE, null, new BigDecimal("80000"));
+        assertThat(suggestions.top("med", 10)).isEmpty();
+        assertThat(suggestions.size()).isEqualTo(2);
+    }
+
+    // La latencia se mide en DescriptionSuggestionsBenchmark; aquí solo el resultado
+    @Test
+    @DisplayName("Debe devolver los más usados de cada prefijo con un historial grande")
+    void shouldMatchBruteForceOnALargeHistory() {
+        Random random = new Random(11);
+        DescriptionSuggestions suggestions = new DescriptionSuggestions();
+        Map<String, Long> occurrences = new HashMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            String description = randomWord(random) + " " + i;
+            long count = 1 + random.nextInt(50);
+            suggestions.add(description, TransactionType.EXPENSE, (long) random.nextInt(20), "Cat",
+                    BigDecimal.valueOf(random.nextInt(100_000)), DATE, count);
+            occurrences.put(description, count);
+        }
+
+        for (int i = 0; i < 200; i++) {
+            String prefix = randomWord(random).substring(0, 1 + random.nextInt(3));
+            List<Long> expected = occurrences.entrySet().stream()
+                    .filter(e -> e.getKey().startsWith(prefix))
+                    .map(Map.Entry::getValue)
+                    .sorted(Comparator.reverseOrder())
+                    .limit(10)
+                    .toList();
+
+            List<DescriptionSuggestions.Suggestion> top = suggestions.top(prefix, 10);
+
+            assertThat(top).allSatisfy(s -> assertThat(s.description()).startsWith(prefix));
+            assertThat(top).extracting(DescriptionSuggestions.Suggestion::occurrences).isEqualTo(expected);
+        }
+    }
+
+    private static String randomWord(Random random) {
+        char[] chars = new char[3 + random.nextInt(6)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,91 @@
+package com.budget.api.service;
+
+import com.budget.api.dto.request.TransactionRequest;
+import com.budget.api.dto.response.TransactionResponse;
+import com.budget.api.entity.Budget;
+import com.budget.api.entity.User;
+import com.budget.api.enums.TransactionType;
+import com.budget.api.exception.BadRequestException;
+import com.budget.api.exception.ConflictException;
+import com.budget.api.repository.IdempotencyKeyRepository;
+import com.budget.api.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "app.idempotency.ttl=0s")
+@Import(TransactionTestConfiguration.class)
+class IdempotencyServiceTest {
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private IdempotencyService idempotencyService;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private TransactionFixtures fixtures;
+
+    private User user;
+    private Budget budget;
+
+    @BeforeEach
+    void setUp() {
+        user = fixtures.user("idempotency@example.com");
+        budget = fixtures.budget(user, "1000000");
+    }
+
+    @Test
+    @DisplayName("Debe devolver la misma transacción al reintentar con la misma Idempotency-Key")
+    void shouldReplayRetriedRequest() {
+        TransactionResponse first = transactionService.create(user.getId(), request("50000.00"), "pago-1");
+        TransactionResponse retry = transactionService.create(user.getId(), request("50000"), "pago-1");
+        transactionService.create(user.getId(), request("50000.00"), "pago-2");
+
+        assertThat(retry.getId()).isEqualTo(first.getId());
+        assertThat(transactionRepository.countByBudgetIdAndDeletedFalse(budget.getId())).isEqualTo(2);
+        assertThatThrownBy(() -> transactionService.create(user.getId(), request("60000.00"), "pago-1"))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    @DisplayName("Debe responder conflicto al reintentar una petición cuya transacción se eliminó")
+    void shouldRejectReplayOfDeletedTransaction() {
+        TransactionResponse created = transactionService.create(user.getId(), request("50000.00"), "pago-1");
+        transactionService.delete(user.getId(), created.getId());
+
+        assertThatThrownBy(() -> transactionService.create(user.getId(), request("50000.00"), "pago-1"))
+                .isInstanceOf(ConflictException.class);
+        assertThat(transactionRepository.countByBudgetIdAndDeletedFalse(budget.getId())).isZero();
+    }
+
+    @Test
+    @DisplayName("Debe olvidar las claves vencidas al purgar")
+    void shouldForgetExpiredKeys() {
+        transactionService.create(user.getId(), request("50000.00"), "pago-1");
+        entityManager.flush();
+
+        idempotencyService.purgeExpired();
+
+        assertThat(idempotencyKeyRepository.count()).isZero();
+        assertThat(idempotencyService.findTransactionId(user.getId(), "pago-1", 0L)).isEmpty();
+    }
+
+    private TransactionRequest request(String amount) {
+        return TransactionFixtures.request(budget.getId(), "Arriendo", amount, TransactionType.EXPENSE,
+                LocalDate.of(2026, 3, 1), null);
+    }
+}
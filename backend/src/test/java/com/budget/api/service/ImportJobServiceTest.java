@@ -0,0 +1,99 @@
+package com.budget.api.service;
+
+import com.budget.api.dto.response.ImportJobResponse;
+import com.budget.api.dto.response.ImportResultResponse;
+import com.budget.api.enums.ImportJobStatus;
+import com.budget.api.exception.ResourceNotFoundException;
+import com.budget.api.exception.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImportJobServiceTest {
+
+    @Mock
+    private TransactionImportService transactionImportService;
+
+    private ImportJobService importJobService;
+    private final MockMultipartFile file = new MockMultipartFile("file", "datos.csv", "text/csv",
+            "Fecha,Descripción,Monto,Tipo\n2026-03-01,Almuerzo,25000.00,EXPENSE\n".getBytes(StandardCharsets.UTF_8));
+
+    @BeforeEach
+    void setUp() {
+        importJobService = new ImportJobService(transactionImportService, 1, 10, 1, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        importJobService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Debe ejecutar la importación en segundo plano y exponer el resultado")
+    void shouldRunJobInBackground() throws Exception {
+        when(transactionImportService.importCsv(eq(1L), eq(10L), any(), anyBoolean(), any())).thenAnswer(invocation -> {
+            ImportProgress progress = invocation.getArgument(4);
+            progress.rowParsed();
+            progress.rowsInserted(1);
+            return ImportResultResponse.builder().imported(1).build();
+        });
+
+        ImportJobResponse submitted = importJobService.submit(1L, 10L, file, false);
+        ImportJobResponse status = awaitFinished(1L, submitted.getId());
+
+        assertThat(status.getStatus()).isEqualTo(ImportJobStatus.COMPLETED);
+        assertThat(status.getRowsParsed()).isEqualTo(1);
+        assertThat(status.getRowsInserted()).isEqualTo(1);
+        assertThat(status.getResult().getImported()).isEqualTo(1);
+        assertThatThrownBy(() -> importJobService.getStatus(2L, submitted.getId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Debe limitar los jobs simultáneos por usuario y permitir cancelarlos")
+    void shouldLimitAndCancelJobs() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        when(transactionImportService.importCsv(eq(1L), eq(10L), any(), anyBoolean(), any())).thenAnswer(invocation -> {
+            ImportProgress progress = invocation.getArgument(4);
+            started.countDown();
+            while (!progress.isCancelled()) {
+                Thread.sleep(10);
+            }
+            return ImportResultResponse.builder().cancelled(true).build();
+        });
+
+        ImportJobResponse running = importJobService.submit(1L, 10L, file, false);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThatThrownBy(() -> importJobService.submit(1L, 10L, file, false))
+                .isInstanceOf(TooManyRequestsException.class);
+
+        importJobService.cancel(1L, running.getId());
+
+        assertThat(awaitFinished(1L, running.getId()).getStatus()).isEqualTo(ImportJobStatus.CANCELLED);
+    }
+
+    private ImportJobResponse awaitFinished(Long userId, String jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        ImportJobResponse status = importJobService.getStatus(userId, jobId);
+        while (!status.getStatus().isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            status = importJobService.getStatus(userId, jobId);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,126 @@
+package com.budget.api.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MappedCsvReaderTest {
+
+    private static final String SAMPLE = """
+            Fecha,Descripción,Monto,Tipo,Categoría,Notas
+            2026-03-01,Salario,4000000.00,INCOME,,
+            2026-03-02,"Mercado, frutas",180000.50,expense,Comida,"nota ""citada""\"
+            2026-03-03,"Varias
+            líneas",12.5, EXPENSE ,  Transporte  ,
+            2026-02-30,Fin de mes,1,EXPENSE
+            2026-3-4,Fecha corta,1,EXPENSE
+            2026-03-05,Monto raro,1.2.3,EXPENSE
+            2026-03-06,Tipo raro,10,OTRO
+
+            solo,dos
+            2026-03-07,Escape \\"raro\\",+15,INCOME,,"con\\,coma"
+            2026-03-08, "espacios" ,0012.340,INCOME\r
+            2026-03-09,Ñandú €,-7,EXPENSE\r\
+            2026-03-10,Sin salto final,99999999999999999999.99,INCOME""";
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final CsvService csvService = new CsvService(1, DataSize.ofMegabytes(1));
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        csvService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Debe producir las mismas filas que el lector secuencial con cualquier tamaño de bloque")
+    void shouldMatchSequentialReaderForAnyChunkSize() throws Exception {
+        byte[] csv = SAMPLE.getBytes(StandardCharsets.UTF_8);
+        Outcome expected = sequential(csv);
+        // La línea en blanco y "solo,dos" tienen menos de 4 columnas y se ignoran
+        assertThat(expected.rows).hasSize(11);
+
+        for (int chunkBytes = 1; chunkBytes <= csv.length; chunkBytes += 7) {
+            assertThat(mapped(csv, chunkBytes)).as("bloques de %d bytes", chunkBytes).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("Debe coincidir con el lector secuencial en archivos aleatorios, incluidos los mal formados")
+    void shouldMatchSequentialReaderOnRandomInput() throws Exception {
+        Random random = new Random(42);
+        String[] tokens = {"2026-01-15", "2026-13-01", "10.50", "-3", "EXPENSE", "income", "Comida", "abc",
+                "é", " ", ",", ",", ",", "\"", "\"\"", "\\", "\n", "\r\n", "\r"};
+        for (int file = 0; file < 500; file++) {
+            StringBuilder text = new StringBuilder("Fecha,Descripción,Monto,Tipo\n");
+            for (int i = random.nextInt(60); i > 0; i--) {
+                text.append(tokens[random.nextInt(tokens.length)]);
+            }
+            byte[] csv = text.toString().getBytes(StandardCharsets.UTF_8);
+            Outcome expected = sequential(csv);
+            assertThat(mapped(csv, 1 + random.nextInt(16))).as("archivo %s", text).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("Debe leer un archivo mapeado en paralelo manteniendo el orden y los números de línea")
+    void shouldReadMappedFileInOrder(@TempDir Path dir) throws Exception {
+        StringBuilder text = new StringBuilder("Fecha,Descripción,Monto,Tipo,Categoría,Notas\n");
+        for (int i = 0; i < 20_000; i++) {
+            text.append("2026-03-").append(String.format("%02d", i % 28 + 1))
+                    .append(",\"Compra ").append(i).append("\",").append(i).append(".25,EXPENSE,Comida,\n");
+        }
+        Path file = Files.writeString(dir.resolve("transacciones.csv"), text);
+        CsvService parallelService = new CsvService(4, DataSize.ofKilobytes(16));
+
+        List<CsvService.CsvRow> rows = new ArrayList<>();
+        try {
+            parallelService.readTransactions(file, 1L, rows::add);
+        } finally {
+            parallelService.shutdown();
+        }
+
+        assertThat(rows).hasSize(20_000);
+        assertThat(rows).isEqualTo(sequential(text.toString().getBytes(StandardCharsets.UTF_8)).rows);
+        assertThat(rows.get(19_999).line()).isEqualTo(20_001);
+        assertThat(rows.get(19_999).request().getDescription()).isEqualTo("Compra 19999");
+    }
+
+    private Outcome sequential(byte[] csv) {
+        List<CsvService.CsvRow> rows = new ArrayList<>();
+        try {
+            csvService.readTransactions(new ByteArrayInputStream(csv), 1L, rows::add);
+            return new Outcome(rows, null);
+        } catch (Exception e) {
+            return new Outcome(rows, e.getClass());
+        }
+    }
+
+    private Outcome mapped(byte[] csv, int chunkBytes) {
+        List<CsvService.CsvRow> rows = new ArrayList<>();
+        try {
+            new MappedCsvReader(executor, 4, chunkBytes).read(ByteBuffer.wrap(csv), 1L, rows::add);
+            return new Outcome(rows, null);
+        } catch (Exception e) {
+            return new Outcome(rows, e.getClass());
+        }
+    }
+
+    private record Outcome(List<CsvService.CsvRow> rows, Class<?> failure) {
+    }
+}
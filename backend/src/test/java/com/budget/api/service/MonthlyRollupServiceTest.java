@@ -0,0 +1,91 @@
+package com.budget.api.service;
+
+import com.budget.api.dto.request.TransactionRequest;
+import com.budget.api.dto.response.TransactionResponse;
+import com.budget.api.entity.Budget;
+import com.budget.api.entity.Category;
+import com.budget.api.entity.User;
+import com.budget.api.enums.TransactionType;
+import com.budget.api.repository.MonthlyRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(TransactionTestConfiguration.class)
+class MonthlyRollupServiceTest {
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private MonthlyRollupService monthlyRollupService;
+    @Autowired
+    private MonthlyRollupRepository monthlyRollupRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private TransactionFixtures fixtures;
+
+    private User user;
+    private Budget budget;
+    private Category food;
+
+    @BeforeEach
+    void setUp() {
+        user = fixtures.user("rollups@example.com");
+        food = fixtures.category(user, "Comida");
+        budget = fixtures.budget(user, "10000000");
+    }
+
+    @Test
+    @DisplayName("Debe mantener los rollups al crear, actualizar y eliminar transacciones")
+    void shouldKeepRollupsInSyncWithWrites() {
+        TransactionResponse lunch = transactionService.create(user.getId(),
+                request("Almuerzo", "25000.00", TransactionType.EXPENSE, LocalDate.of(2026, 3, 10), food.getId()));
+        transactionService.create(user.getId(),
+                request("Mercado", "180000.00", TransactionType.EXPENSE, LocalDate.of(2026, 3, 12), food.getId()));
+        TransactionResponse salary = transactionService.create(user.getId(),
+                request("Salario", "4000000.00", TransactionType.INCOME, LocalDate.of(2026, 3, 1), null));
+
+        // Mover el almuerzo a abril y cambiar el monto
+        transactionService.update(user.getId(), lunch.getId(),
+                request("Almuerzo", "30000.00", TransactionType.EXPENSE, LocalDate.of(2026, 4, 2), food.getId()));
+        transactionService.delete(user.getId(), salary.getId());
+        entityManager.flush();
+
+        assertThat(monthlyRollupService.verify(user.getId())).isEmpty();
+        assertThat(fixtures.rollupTotals(budget).spent())
+                .isEqualByComparingTo("210000.00");
+        assertThat(fixtures.rollupTotals(budget).income())
+                .isEqualByComparingTo("0");
+    }
+
+    @Test
+    @DisplayName("Debe detectar y corregir rollups inconsistentes")
+    void shouldRebuildInconsistentRollups() {
+        transactionService.create(user.getId(),
+                request("Almuerzo", "25000.00", TransactionType.EXPENSE, LocalDate.of(2026, 3, 10), food.getId()));
+        entityManager.flush();
+        monthlyRollupRepository.deleteByUserId(user.getId());
+
+        assertThat(monthlyRollupService.verify(user.getId())).hasSize(1);
+
+        monthlyRollupService.rebuild(user.getId());
+        entityManager.flush();
+
+        assertThat(monthlyRollupService.verify(user.getId())).isEmpty();
+    }
+
+    private TransactionRequest request(String description, String amount, TransactionType type,
+                                       LocalDate date, Long categoryId) {
+        return TransactionFixtures.request(budget.getId(), description, amount, type, date, categoryId);
+    }
+}
@@ -0,0 +1,198 @@
+package com.budget.api.service;
+
+import com.budget.api.dto.response.TransactionResponse;
+import com.budget.api.entity.Budget;
+import com.budget.api.entity.User;
+import com.budget.api.enums.TransactionType;
+import com.budget.api.repository.BudgetRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cadena V1..V11 de Flyway sobre un PostgreSQL real seguida del ddl-auto: validate del perfil prod:
+ * si una migración falla o el esquema no cuadra con las entidades, el contexto no arranca. Una base
+ * vacía por variante de V9 (tabla simple y particionada). PostgreSQL embebido en lugar de
+ * Testcontainers para no depender de Docker; initdb se niega a correr como root y en ese caso se salta.
+ * Sin transacción de test: cada llamada al servicio confirma la suya, como en producción.
+ */
+@DisabledIfSystemProperty(named = "user.name", matches = "root", disabledReason = "initdb no corre como root")
+class PostgresMigrationsTest {
+
+    private static final String LATEST_VERSION = "11";
+    private static final String TRANSACTION_INDEXES =
+            "SELECT indexname FROM pg_indexes WHERE tablename = 'transactions'";
+
+    private static EmbeddedPostgres postgres;
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    // Crea la base y apunta el datasource a ella; el resto de propiedades salen de application-prod.yml
+    private static void useDatabase(DynamicPropertyRegistry registry, String name, boolean partitioned) {
+        String url = createDatabase(name);
+        registry.add("spring.datasource.url", () -> url);
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("app.transactions.partitioning.enabled", () -> partitioned);
+        registry.add("logging.file.name", () -> "");
+    }
+
+    private static synchronized String createDatabase(String name) {
+        try {
+            if (postgres == null) {
+                postgres = EmbeddedPostgres.start();
+            }
+            try (Connection connection = postgres.getPostgresDatabase().getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("CREATE DATABASE " + name);
+            }
+            return postgres.getJdbcUrl("postgres", name);
+        } catch (IOException | SQLException e) {
+            throw new IllegalStateException("No se pudo preparar PostgreSQL embebido", e);
+        }
+    }
+
+    @Nested
+    @DataJpaTest
+    @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+    @ActiveProfiles("prod")
+    @Import(TransactionTestConfiguration.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    class SingleTable {
+
+        @DynamicPropertySource
+        static void datasource(DynamicPropertyRegistry registry) {
+            useDatabase(registry, "single_table", false);
+        }
+
+        @Autowired
+        private Flyway flyway;
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+        @Autowired
+        private TransactionService transactionService;
+        @Autowired
+        private BudgetRepository budgetRepository;
+        @Autowired
+        private TransactionFixtures fixtures;
+
+        @AfterEach
+        void cleanUp() {
+            fixtures.deleteAll();
+        }
+
+        @Test
+        @DisplayName("Aplica todas las migraciones y deja los índices parciales de V8")
+        void shouldMigrateToTheLatestVersion() {
+            assertThat(flyway.info().current().getVersion().getVersion()).isEqualTo(LATEST_VERSION);
+            assertThat(flyway.info().pending()).isEmpty();
+
+            List<String> indexes = jdbcTemplate.queryForList(TRANSACTION_INDEXES, String.class);
+            assertThat(indexes).contains("idx_transaction_user_date_live", "idx_transaction_budget_type_live",
+                    "idx_transaction_deleted_at", "idx_transaction_description_trgm");
+            assertThat(indexes).doesNotContain("idx_transaction_user_date", "idx_transaction_budget_type");
+        }
+
+        @Test
+        @DisplayName("Crea, cambia y elimina sobre el esquema migrado con los contadores al día")
+        void shouldWriteThroughTheMigratedSchema() {
+            User user = fixtures.user("pg-single@test.com");
+            Budget budget = fixtures.budget(user, "1000000");
+
+            TransactionResponse created = transactionService.create(user.getId(),
+                    TransactionFixtures.request(budget, "Mercado", "250000", TransactionType.EXPENSE));
+            transactionService.update(user.getId(), created.getId(),
+                    TransactionFixtures.request(budget, "Mercado", "300000", TransactionType.EXPENSE));
+            assertThat(budgetRepository.findById(budget.getId()).orElseThrow().getSpentAmount())
+                    .isEqualByComparingTo(new BigDecimal("300000"));
+
+            transactionService.delete(user.getId(), created.getId());
+            assertThat(budgetRepository.findById(budget.getId()).orElseThrow().getSpentAmount())
+                    .isEqualByComparingTo(BigDecimal.ZERO);
+        }
+    }
+
+    @Nested
+    @DataJpaTest
+    @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+    @ActiveProfiles("prod")
+    @Import(TransactionTestConfiguration.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    class Partitioned {
+
+        @DynamicPropertySource
+        static void datasource(DynamicPropertyRegistry registry) {
+            useDatabase(registry, "partitioned", true);
+        }
+
+        @Autowired
+        private Flyway flyway;
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+        @Autowired
+        private TransactionService transactionService;
+        @Autowired
+        private TransactionFixtures fixtures;
+
+        @AfterEach
+        void cleanUp() {
+            fixtures.deleteAll();
+        }
+
+        @Test
+        @DisplayName("Con el placeholder a true V9 deja transactions particionada por mes")
+        void shouldPartitionTransactions() {
+            assertThat(flyway.info().current().getVersion().getVersion()).isEqualTo(LATEST_VERSION);
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT relkind::text FROM pg_class WHERE relname = 'transactions'", String.class))
+                    .isEqualTo("p");
+            assertThat(jdbcTemplate.queryForList(TRANSACTION_INDEXES, String.class))
+                    .contains("idx_transaction_user_date_live", "idx_transaction_budget_type_live");
+        }
+
+        @Test
+        @DisplayName("Las altas caen en la partición de su mes una vez creada")
+        void shouldRouteWritesToTheMonthPartition() {
+            new TransactionPartitionService(jdbcTemplate, 0).ensurePartitions(TransactionFixtures.DATE);
+            User user = fixtures.user("pg-partitioned@test.com");
+            Budget budget = fixtures.budget(user, "1000000");
+
+            TransactionResponse created = transactionService.create(user.getId(),
+                    TransactionFixtures.request(budget, "Arriendo", "800000", TransactionType.EXPENSE));
+
+            assertThat(jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM transactions WHERE id = ?",
+                    String.class, created.getId())).isEqualTo("transactions_p2026_03");
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.budget.api.service;
+
+import com.budget.api.dto.request.RefreshTokenRequest;
+import com.budget.api.dto.response.AuthResponse;
+import com.budget.api.entity.User;
+import com.budget.api.repository.RevokedTokenRepository;
+import com.budget.api.repository.UserRepository;
+import com.budget.api.security.JwtAuthenticationFilter;
+import com.budget.api.security.JwtTokenProvider;
+import com.budget.api.security.LoginThrottle;
+import com.budget.api.security.UserIdentityCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+@Import({JwtTokenProvider.class, JwtAuthenticationFilter.class, UserIdentityCache.class, LoginThrottle.class,
+        TokenRevocationService.class})
+class TokenRotationTest {
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+    @Autowired
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+    @Autowired
+    private UserIdentityCache userIdentityCache;
+    @Autowired
+    private LoginThrottle loginThrottle;
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private AuthService authService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userIdentityCache.evict("rotation@example.com");
+        user = userRepository.saveAndFlush(User.builder()
+                .email("rotation@example.com").password("secret").fullName("Rotation User").build());
+        // El hash y el AuthenticationManager solo intervienen en login y registro
+        authService = new AuthService(userRepository, mock(PasswordEncoder.class), jwtTokenProvider,
+                mock(AuthenticationManager.class), loginThrottle, tokenRevocationService, userIdentityCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Debe rotar el refresh token y revocar la familia si se reutiliza uno ya usado")
+    void shouldRotateAndRevokeFamilyOnReuse() {
+        String initial = jwtTokenProvider.generateRefreshToken(user.getId(), user.getEmail(),
+                UUID.randomUUID().toString());
+
+        AuthResponse rotated = refresh(initial);
+        assertThat(rotated.getRefreshToken()).isNotEqualTo(initial);
+        assertThat(authenticates(rotated.getAccessToken())).isTrue();
+        // Un refresh token no sirve para llamar a la API
+        assertThat(authenticates(rotated.getRefreshToken())).isFalse();
+
+        assertThatThrownBy(() -> refresh(initial)).isInstanceOf(BadCredentialsException.class);
+
+        // La reutilización revoca también lo emitido después
+        assertThatThrownBy(() -> refresh(rotated.getRefreshToken())).isInstanceOf(BadCredentialsException.class);
+        assertThat(authenticates(rotated.getAccessToken())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Debe recuperar las revocaciones de la tabla al reiniciar")
+    void shouldRecoverRevocationsAfterRestart() {
+        String family = UUID.randomUUID().toString();
+        String refreshToken = jwtTokenProvider.generateRefreshToken(user.getId(), user.getEmail(), family);
+        String accessToken = jwtTokenProvider.generateToken(user.getId(), user.getEmail(), family);
+
+        authService.logout(request(refreshToken));
+
+        TokenRevocationService restarted = new TokenRevocationService(revokedTokenRepository, 1000);
+        assertThat(restarted.isRevoked(family)).isFalse();
+        restarted.load();
+        assertThat(restarted.isRevoked(family)).isTrue();
+        assertThat(restarted.isRevoked(UUID.randomUUID().toString())).isFalse();
+        assertThat(authenticates(accessToken)).isFalse();
+    }
+
+    private AuthResponse refresh(String refreshToken) {
+        return authService.refresh(request(refreshToken), "10.0.0.1");
+    }
+
+    private RefreshTokenRequest request(String refreshToken) {
+        RefreshTokenRequest request = new RefreshTokenRequest();
+        request.setRefreshToken(refreshToken);
+        return request;
+    }
+
+    private boolean authenticates(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/transactions");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            jwtAuthenticationFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        boolean authenticated = SecurityContextHolder.getContext().getAuthentication() != null;
+        SecurityContextHolder.clearContext();
+        return authenticated;
+    }
+}
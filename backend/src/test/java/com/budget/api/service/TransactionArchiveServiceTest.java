@@ -0,0 +1,131 @@
+package com.budget.api.service;
+
+import com.budget.api.dto.response.TransactionResponse;
+import com.budget.api.entity.Budget;
+import com.budget.api.entity.User;
+import com.budget.api.enums.TransactionType;
+import com.budget.api.exception.ResourceNotFoundException;
+import com.budget.api.repository.ArchivedTransactionRepository;
+import com.budget.api.repository.BudgetRepository;
+import com.budget.api.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Retención cero: todo lo eliminado se archiva en la primera ejecución
+@DataJpaTest(properties = {
+        "app.transactions.archive.retention=0s",
+        "app.transactions.archive.batch-size=2"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(TransactionTestConfiguration.class)
+class TransactionArchiveServiceTest {
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private ArchivedTransactionRepository archivedTransactionRepository;
+    @Autowired
+    private BudgetRepository budgetRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private TransactionFixtures fixtures;
+
+    private User user;
+    private Budget budget;
+
+    @BeforeEach
+    void setUp() {
+        user = fixtures.user("archive@example.com");
+        budget = fixtures.budget(user, "Marzo", "1000.00", LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31));
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Debe archivar por lotes solo las eliminadas y restaurarlas desde el archivo")
+    void shouldArchiveDeletedAndRestore() {
+        TransactionResponse kept = create("Mercado", "100.00");
+        TransactionResponse first = create("Taxi", "50.00");
+        create("Cine", "30.00");
+        create("Cena", "70.00");
+        transactionRepository.findAll().stream()
+                .filter(t -> !t.getId().equals(kept.getId()))
+                .forEach(t -> transactionService.delete(user.getId(), t.getId()));
+
+        double archivedBefore = archivedRows();
+        assertThat(transactionArchiveService.archive()).isEqualTo(3);
+        assertThat(transactionRepository.findAll()).extracting("id").containsExactly(kept.getId());
+        assertThat(archivedTransactionRepository.count()).isEqualTo(3);
+        // El contexto se comparte entre tests: se mira solo lo que suma esta ejecución
+        assertThat(archivedRows() - archivedBefore).isEqualTo(3);
+
+        TransactionResponse restored = transactionService.restore(user.getId(), first.getId());
+
+        assertThat(restored.getDescription()).isEqualTo("Taxi");
+        assertThat(archivedTransactionRepository.existsById(first.getId())).isFalse();
+        assertThat(budgetRepository.findById(budget.getId()).orElseThrow().getSpentAmount())
+                .isEqualByComparingTo("150.00");
+        // Ya no está eliminada: una segunda restauración no la encuentra
+        assertThatThrownBy(() -> transactionService.restore(user.getId(), first.getId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Debe restaurar sin archivar y rechazar un borrado repetido")
+    void shouldRestoreDeletedAndRejectDoubleDelete() {
+        TransactionResponse created = create("Taxi", "50.00");
+        transactionService.delete(user.getId(), created.getId());
+
+        assertThatThrownBy(() -> transactionService.delete(user.getId(), created.getId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(budgetRepository.findById(budget.getId()).orElseThrow().getSpentAmount())
+                .isEqualByComparingTo("0.00");
+
+        transactionService.restore(user.getId(), created.getId());
+
+        assertThat(transactionRepository.findById(created.getId()).orElseThrow().getDeletedAt()).isNull();
+        assertThat(budgetRepository.findById(budget.getId()).orElseThrow().getSpentAmount())
+                .isEqualByComparingTo("50.00");
+    }
+
+    @Test
+    @DisplayName("Debe purgar las archivadas pasado el plazo")
+    void shouldPurgeArchived() {
+        transactionService.delete(user.getId(), create("Taxi", "50.00").getId());
+        transactionArchiveService.archive();
+
+        // purge-after por defecto es de un año: nada que purgar todavía
+        assertThat(transactionArchiveService.purge()).isZero();
+        assertThat(archivedTransactionRepository.count()).isEqualTo(1);
+    }
+
+    private double archivedRows() {
+        return meterRegistry.get("transactions.archive.rows").tag("operation", "archived").summary().totalAmount();
+    }
+
+    private TransactionResponse create(String description, String amount) {
+        return transactionService.create(user.getId(), TransactionFixtures.request(budget.getId(), description,
+                amount, TransactionType.EXPENSE, LocalDate.of(2026, 3, 10), null));
+    }
+}
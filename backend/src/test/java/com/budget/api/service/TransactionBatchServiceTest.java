@@ -0,0 +1,119 @@
+package com.budget.api.service;
+
+import com.budget.api.dto.request.TransactionRequest;
+import com.budget.api.dto.response.TransactionBatchResponse;
+import com.budget.api.entity.Budget;
+import com.budget.api.entity.Category;
+import com.budget.api.entity.User;
+import com.budget.api.enums.TransactionType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.import.batch-size=50"
+})
+@Import(TransactionTestConfiguration.class)
+class TransactionBatchServiceTest {
+
+    @Autowired
+    private TransactionBatchService transactionBatchService;
+    @Autowired
+    private MonthlyRollupService monthlyRollupService;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionFixtures fixtures;
+
+    private User user;
+    private Budget budget;
+    private Category food;
+
+    @BeforeEach
+    void setUp() {
+        user = fixtures.user("batch@example.com");
+        food = fixtures.category(user, "Comida");
+        budget = fixtures.budget(user, "Marzo", "100000", LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Debe informar el resultado de cada elemento y aplicar el límite sobre todo el lote")
+    void shouldReportPerItemResults() {
+        Budget foreign = fixtures.budget(fixtures.user("other@example.com"), "Ajeno", "1000",
+                LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31));
+
+        List<TransactionRequest> requests = List.of(
+                request("Mercado", "60000", TransactionType.EXPENSE, budget.getId(), food.getId()),
+                request("", "10", TransactionType.EXPENSE, budget.getId(), null),
+                request("Cine", "30000", TransactionType.EXPENSE, budget.getId(), 999_999L),
+                request("Ajeno", "10", TransactionType.EXPENSE, foreign.getId(), null),
+                request("Arriendo", "50000", TransactionType.EXPENSE, budget.getId(), null),
+                request("Salario", "4000000", TransactionType.INCOME, budget.getId(), null),
+                request("Taxi", "40000", TransactionType.EXPENSE, budget.getId(), null));
+
+        TransactionBatchResponse result = transactionBatchService.createAll(user.getId(), requests);
+        entityManager.flush();
+
+        assertThat(result.getCreated()).isEqualTo(3);
+        assertThat(result.getFailed()).isEqualTo(4);
+        assertThat(result.getResults()).extracting(TransactionBatchResponse.ItemResult::isSuccess)
+                .containsExactly(true, false, false, false, false, true, true);
+        assertThat(result.getResults().get(0).getTransaction().getCategoryName()).isEqualTo("Comida");
+        assertThat(result.getResults().get(1).getError()).isEqualTo("La descripción es obligatoria");
+        assertThat(result.getResults().get(2).getError()).isEqualTo("Categoría no encontrada");
+        assertThat(result.getResults().get(3).getError()).isEqualTo("Presupuesto no encontrado");
+        // 60000 ya aceptados + 50000 superan los 100000 del presupuesto
+        assertThat(result.getResults().get(4).getError()).startsWith("Este gasto excede el presupuesto 'Marzo'");
+        assertThat(fixtures.rollupTotals(budget).spent())
+                .isEqualByComparingTo("100000");
+        entityManager.clear();
+        Budget reloaded = entityManager.find(Budget.class, budget.getId());
+        assertThat(reloaded.getSpentAmount()).isEqualByComparingTo("100000");
+        assertThat(reloaded.getIncomeAmount()).isEqualByComparingTo("4000000");
+        assertThat(monthlyRollupService.verify(user.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Debe insertar el lote con lotes JDBC y un número de consultas que no crece por elemento")
+    void shouldInsertWithJdbcBatches() {
+        List<TransactionRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            requests.add(request("Café " + i, "100", TransactionType.EXPENSE, budget.getId(), food.getId()));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        TransactionBatchResponse result = transactionBatchService.createAll(user.getId(), requests);
+        entityManager.flush();
+
+        assertThat(result.getCreated()).isEqualTo(200);
+        assertThat(result.getResults()).allSatisfy(item -> assertThat(item.getTransaction().getId()).isNotNull());
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(201);
+        // Presupuestos + categorías + totales + secuencia + 4 lotes de inserts + rollup
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(20);
+        assertThat(monthlyRollupService.verify(user.getId())).isEmpty();
+    }
+
+    private TransactionRequest request(String description, String amount, TransactionType type,
+                                       Long budgetId, Long categoryId) {
+        return TransactionFixtures.request(budgetId, description, amount, type, TransactionFixtures.DATE, categoryId);
+    }
+}
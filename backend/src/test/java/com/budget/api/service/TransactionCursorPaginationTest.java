@@ -0,0 +1,123 @@
+package com.budget.api.service;
+
+import com.budget.api.dto.request.TransactionFilterRequest;
+import com.budget.api.dto.response.CursorPageResponse;
+import com.budget.api.dto.response.TransactionResponse;
+import com.budget.api.entity.Budget;
+import com.budget.api.entity.Transaction;
+import com.budget.api.entity.User;
+import com.budget.api.enums.TransactionType;
+import com.budget.api.exception.BadRequestException;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(TransactionTestConfiguration.class)
+class TransactionCursorPaginationTest {
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionFixtures fixtures;
+
+    private User user;
+    private final List<Transaction> expenses = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        user = fixtures.user("cursor@example.com");
+        Budget budget = fixtures.budget(user, "10000000");
+
+        // Varias transacciones por día para ejercitar el desempate por id
+        for (int i = 0; i < 7; i++) {
+            LocalDate date = LocalDate.of(2026, 3, 1 + i / 3);
+            expenses.add(persist(budget, TransactionType.EXPENSE, date));
+            persist(budget, TransactionType.INCOME, date);
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Debe recorrer todas las páginas por cursor sin repetir ni omitir filas")
+    void shouldWalkAllPagesWithFilters() {
+        TransactionFilterRequest filter = new TransactionFilterRequest();
+        filter.setType(TransactionType.EXPENSE);
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPageResponse<TransactionResponse> page =
+                    transactionService.findAllByCursor(user.getId(), filter, cursor, 3, false);
+            page.getContent().forEach(t -> assertThat(t.getType()).isEqualTo(TransactionType.EXPENSE));
+            seen.addAll(page.getContent().stream().map(TransactionResponse::getId).collect(Collectors.toList()));
+            assertThat(page.getTotalElements()).isNull();
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).containsExactlyElementsOf(expenses.stream()
+                .sorted(Comparator.comparing(Transaction::getTransactionDate)
+                        .thenComparing(Transaction::getId).reversed())
+                .map(Transaction::getId)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Debe omitir la consulta COUNT salvo que se pida el total")
+    void shouldSkipCountUnlessRequested() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        CursorPageResponse<TransactionResponse> page =
+                transactionService.findAllByCursor(user.getId(), null, null, 5, false);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(page.isHasNext()).isTrue();
+
+        statistics.clear();
+        page = transactionService.findAllByCursor(user.getId(), null, page.getNextCursor(), 5, true);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(page.getTotalElements()).isEqualTo(14);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar cursores inválidos")
+    void shouldRejectInvalidCursor() {
+        assertThatThrownBy(() -> transactionService.findAllByCursor(user.getId(), null, "no-es-un-cursor", 5, false))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private Transaction persist(Budget budget, TransactionType type, LocalDate date) {
+        return entityManager.persist(Transaction.builder()
+                .description(type + " " + date)
+                .amount(new BigDecimal("1000.00"))
+                .type(type)
+                .transactionDate(date)
+                .budget(budget)
+                .user(user)
+                .build());
+    }
+}
@@ -0,0 +1,101 @@
+package com.budget.api.service;
+
+import com.budget.api.dto.request.TransactionRequest;
+import com.budget.api.entity.Budget;
+import com.budget.api.entity.Category;
+import com.budget.api.entity.User;
+import com.budget.api.enums.BudgetPeriod;
+import com.budget.api.enums.ExpenseType;
+import com.budget.api.enums.TransactionType;
+import com.budget.api.repository.ArchivedTransactionRepository;
+import com.budget.api.repository.BudgetRepository;
+import com.budget.api.repository.CategoryRepository;
+import com.budget.api.repository.MonthlyRollupRepository;
+import com.budget.api.repository.TransactionRepository;
+import com.budget.api.repository.UserRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Datos de prueba compartidos por los tests de {@link TransactionTestConfiguration}. Guarda con los
+ * repositorios, así que sirve tanto dentro de la transacción del test como sin ella.
+ */
+class TransactionFixtures {
+
+    static final LocalDate DATE = LocalDate.of(2026, 3, 15);
+
+    private final UserRepository userRepository;
+    private final CategoryRepository categoryRepository;
+    private final BudgetRepository budgetRepository;
+    private final TransactionRepository transactionRepository;
+    private final ArchivedTransactionRepository archivedTransactionRepository;
+    private final MonthlyRollupRepository monthlyRollupRepository;
+
+    TransactionFixtures(UserRepository userRepository, CategoryRepository categoryRepository,
+                        BudgetRepository budgetRepository, TransactionRepository transactionRepository,
+                        ArchivedTransactionRepository archivedTransactionRepository,
+                        MonthlyRollupRepository monthlyRollupRepository) {
+        this.userRepository = userRepository;
+        this.categoryRepository = categoryRepository;
+        this.budgetRepository = budgetRepository;
+        this.transactionRepository = transactionRepository;
+        this.archivedTransactionRepository = archivedTransactionRepository;
+        this.monthlyRollupRepository = monthlyRollupRepository;
+    }
+
+    User user(String email) {
+        return userRepository.save(User.builder().email(email).password("secret").fullName("Test User").build());
+    }
+
+    Category category(User user, String name) {
+        return categoryRepository.save(Category.builder()
+                .name(name).expenseType(ExpenseType.VARIABLE).user(user).build());
+    }
+
+    // Presupuesto de todo 2026
+    Budget budget(User user, String totalAmount) {
+        return budget(user, "Anual", totalAmount, LocalDate.of(2026, 1, 1), LocalDate.of(2026, 12, 31));
+    }
+
+    Budget budget(User user, String name, String totalAmount, LocalDate startDate, LocalDate endDate) {
+        return budgetRepository.save(Budget.builder()
+                .name(name).totalAmount(new BigDecimal(totalAmount))
+                .period(BudgetPeriod.MONTHLY)
+                .startDate(startDate).endDate(endDate)
+                .user(user).build());
+    }
+
+    // Totales del presupuesto según monthly_rollups, con la consulta que usa el dashboard
+    BudgetTotals rollupTotals(Budget budget) {
+        return BudgetTotals.load(monthlyRollupRepository, List.of(budget.getId()))
+                .getOrDefault(budget.getId(), BudgetTotals.EMPTY);
+    }
+
+    // Limpieza para los tests sin transacción de test, en orden de claves foráneas
+    void deleteAll() {
+        archivedTransactionRepository.deleteAllInBatch();
+        transactionRepository.deleteAllInBatch();
+        monthlyRollupRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
+        budgetRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    static TransactionRequest request(Budget budget, String description, String amount, TransactionType type) {
+        return request(budget.getId(), description, amount, type, DATE, null);
+    }
+
+    static TransactionRequest request(Long budgetId, String description, String amount, TransactionType type,
+                                      LocalDate date, Long categoryId) {
+        TransactionRequest request = new TransactionRequest();
+        request.setDescription(description);
+        request.setAmount(new BigDecimal(amount));
+        request.setType(type);
+        request.setTransactionDate(date);
+        request.setBudgetId(budgetId);
+        request.setCategoryId(categoryId);
+        return request;
+    }
+}
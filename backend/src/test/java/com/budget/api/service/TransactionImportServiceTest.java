@@ -0,0 +1,142 @@
+package com.budget.api.service;
+
+import com.budget.api.dto.response.ImportResultResponse;
+import com.budget.api.entity.Budget;
+import com.budget.api.entity.User;
+import com.budget.api.enums.TransactionType;
+import com.budget.api.repository.TransactionRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.import.batch-size=50",
+        "app.import.chunk-size=100"
+})
+@Import(TransactionTestConfiguration.class)
+class TransactionImportServiceTest {
+
+    private static final String HEADER = "Fecha,Descripción,Monto,Tipo,Categoría,Notas\n";
+
+    @Autowired
+    private TransactionImportService transactionImportService;
+    @Autowired
+    private MonthlyRollupService monthlyRollupService;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionFixtures fixtures;
+
+    private User user;
+    private Budget budget;
+
+    @BeforeEach
+    void setUp() {
+        user = fixtures.user("import@example.com");
+        fixtures.category(user, "Comida");
+        budget = fixtures.budget(user, "1000000");
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Debe importar en lotes y mantener los rollups sincronizados")
+    void shouldImportInBatches() throws Exception {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < 250; i++) {
+            LocalDate date = LocalDate.of(2026, 1 + i % 6, 1 + i % 28);
+            csv.append(date).append(",Gasto ").append(i).append(",1000.00,EXPENSE,comida,\n");
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        ImportResultResponse result =
+                transactionImportService.importCsv(user.getId(), budget.getId(), stream(csv), false);
+
+        assertThat(result.getImported()).isEqualTo(250);
+        assertThat(result.getFailed()).isZero();
+        assertThat(statistics.getEntityInsertCount()).isGreaterThanOrEqualTo(250);
+        // Con lotes JDBC los INSERT reutilizan una sentencia por lote en vez de una por fila
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(100);
+        assertThat(monthlyRollupService.verify(user.getId())).isEmpty();
+        assertThat(fixtures.rollupTotals(budget).spent())
+                .isEqualByComparingTo("250000.00");
+    }
+
+    @Test
+    @DisplayName("Debe reportar errores por fila sin detener la importación ni rechazar categorías desconocidas")
+    void shouldReportRowErrors() throws Exception {
+        String csv = HEADER
+                + "2026-03-01,Salario,4000000.00,INCOME,,\n"
+                + "2026-03-02,Arriendo,900000.00,EXPENSE,Comida,\n"
+                + "03/03/2026,Fecha mala,10.00,EXPENSE,,\n"
+                + "2026-03-04,Monto malo,abc,EXPENSE,,\n"
+                + "2026-03-05,Tipo malo,10.00,GASTO,,\n"
+                + "2026-03-06,Sin categoría,10.00,EXPENSE,Viajes,\n"
+                + "2026-03-07,,10.00,EXPENSE,,\n"
+                + "2026-03-08,Excede,200000.00,EXPENSE,,\n"
+                + "2026-03-09,Aún cabe,99990.00,EXPENSE,,nota\n"
+                + "\n"
+                + "incompleta\n";
+
+        ImportResultResponse result =
+                transactionImportService.importCsv(user.getId(), budget.getId(), stream(csv), false);
+
+        // Las filas con menos de 4 columnas se ignoran sin contar como error
+        assertThat(result.getImported()).isEqualTo(4);
+        assertThat(result.getFailed()).isEqualTo(5);
+        assertThat(result.getErrors())
+                .extracting(ImportResultResponse.RowError::getLine)
+                .containsExactly(4L, 5L, 6L, 8L, 9L);
+        assertThat(result.getErrors().get(4).getMessage()).contains("excede el presupuesto");
+        assertThat(transactionRepository.findAll())
+                .filteredOn(transaction -> transaction.getDescription().equals("Sin categoría"))
+                .singleElement()
+                .satisfies(transaction -> assertThat(transaction.getCategory()).isNull());
+        assertThat(transactionRepository.sumByBudgetIdAndType(budget.getId(), TransactionType.EXPENSE))
+                .isEqualByComparingTo("1000000.00");
+    }
+
+    @Test
+    @DisplayName("Debe omitir las filas que repiten transacciones existentes o del mismo archivo")
+    void shouldSkipDuplicates() throws Exception {
+        String csv = HEADER
+                + "2026-04-01,Mercado,120.50,EXPENSE,Comida,\n"
+                + "2026-04-02,Bus,3.00,EXPENSE,,\n"
+                + "2026-04-02,Bus,3.00,EXPENSE,,\n";
+        ImportResultResponse first =
+                transactionImportService.importCsv(user.getId(), budget.getId(), stream(csv), true);
+        assertThat(first.getImported()).isEqualTo(2);
+        assertThat(first.getDuplicates()).isEqualTo(1);
+
+        ImportResultResponse second = transactionImportService.importCsv(user.getId(), budget.getId(),
+                stream(csv + "2026-04-01,Mercado,120.5,EXPENSE,Comida,otra nota\n2026-04-03,Bus,3.00,EXPENSE,,\n"),
+                true);
+
+        assertThat(second.getImported()).isEqualTo(1);
+        assertThat(second.getDuplicates()).isEqualTo(4);
+        assertThat(second.getFailed()).isZero();
+        assertThat(transactionRepository.countByBudgetIdAndDeletedFalse(budget.getId())).isEqualTo(3);
+    }
+
+    private static ByteArrayInputStream stream(CharSequence csv) {
+        return new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
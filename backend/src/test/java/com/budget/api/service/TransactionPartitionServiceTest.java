@@ -0,0 +1,58 @@
+package com.budget.api.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionPartitionServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionPartitionService transactionPartitionService;
+
+    @BeforeEach
+    void setUp() {
+        transactionPartitionService = new TransactionPartitionService(jdbcTemplate, 2);
+    }
+
+    @Test
+    @DisplayName("Debe crear las particiones que falten del mes actual y los siguientes")
+    void shouldCreateMissingPartitions() {
+        when(jdbcTemplate.execute(ArgumentMatchers.<ConnectionCallback<String>>any())).thenReturn("PostgreSQL");
+        when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class))).thenReturn(true);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT create_transaction_partition"), eq(Boolean.class),
+                any(LocalDate.class))).thenReturn(false, true, true);
+
+        int created = transactionPartitionService.ensurePartitions(LocalDate.of(2026, 11, 20));
+
+        assertThat(created).isEqualTo(2);
+        for (LocalDate month : new LocalDate[]{LocalDate.of(2026, 11, 1), LocalDate.of(2026, 12, 1),
+                LocalDate.of(2027, 1, 1)}) {
+            verify(jdbcTemplate).queryForObject(startsWith("SELECT create_transaction_partition"),
+                    eq(Boolean.class), eq(month));
+        }
+    }
+
+    @Test
+    @DisplayName("No debe hacer nada fuera de PostgreSQL")
+    void shouldSkipOtherDatabases() {
+        when(jdbcTemplate.execute(ArgumentMatchers.<ConnectionCallback<String>>any())).thenReturn("H2");
+
+        assertThat(transactionPartitionService.ensurePartitions(LocalDate.of(2026, 11, 20))).isZero();
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Boolean.class));
+    }
+}
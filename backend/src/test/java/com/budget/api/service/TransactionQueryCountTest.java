@@ -0,0 +1,131 @@
+package com.budget.api.service;
+
+import com.budget.api.dto.request.TransactionFilterRequest;
+import com.budget.api.dto.response.TransactionResponse;
+import com.budget.api.entity.Budget;
+import com.budget.api.entity.Category;
+import com.budget.api.entity.Transaction;
+import com.budget.api.entity.User;
+import com.budget.api.enums.TransactionType;
+import com.budget.api.exception.ResourceNotFoundException;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(TransactionTestConfiguration.class)
+class TransactionQueryCountTest {
+
+    private static final int ROWS = 30;
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionFixtures fixtures;
+
+    private User user;
+    private Budget firstBudget;
+
+    @BeforeEach
+    void setUp() {
+        user = fixtures.user("n-plus-one@example.com");
+        firstBudget = fixtures.budget(user, "10000000");
+        Budget secondBudget = fixtures.budget(user, "10000000");
+
+        // Una categoría distinta por fila: cada carga perezosa sería una consulta aparte
+        for (int i = 0; i < ROWS; i++) {
+            Category category = fixtures.category(user, "Categoría " + i);
+            entityManager.persist(Transaction.builder()
+                    .description("Gasto " + i)
+                    .amount(new BigDecimal("1000.00"))
+                    .type(TransactionType.EXPENSE)
+                    .transactionDate(LocalDate.of(2026, 3, 1).plusDays(i))
+                    .budget(i % 2 == 0 ? firstBudget : secondBudget)
+                    .user(user)
+                    .category(i % 5 == 0 ? null : category)
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 20})
+    @DisplayName("Debe listar transacciones con un número constante de consultas")
+    void shouldListWithConstantStatementCount(int pageSize) {
+        Statistics statistics = statistics();
+
+        Page<TransactionResponse> page = transactionService.findAll(user.getId(), new TransactionFilterRequest(),
+                PageRequest.of(0, pageSize, Sort.by("transactionDate")));
+
+        // Página + COUNT
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(page.getContent()).hasSize(pageSize)
+                .allSatisfy(t -> assertThat(t.getBudgetName()).isNotNull());
+
+        statistics.clear();
+        transactionService.findAllByCursor(user.getId(), null, null, pageSize, false);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Debe exportar en streaming con una sola consulta sin retener entidades")
+    void shouldStreamExportInSingleStatement() throws IOException {
+        Statistics statistics = statistics();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = transactionService.exportCsv(user.getId(), firstBudget.getId(), out);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(exported).isEqualTo(ROWS / 2);
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+        assertThat(lines).hasSize(ROWS / 2 + 1);
+        assertThat(lines.get(0)).contains("Categoría");
+        assertThat(lines.get(1)).contains("2026-03-29", "Gasto 28", "Categoría 28");
+        assertThat(Arrays.stream(entityManager.getEntityManager().unwrap(SessionImplementor.class)
+                .getPersistenceContext().reentrantSafeEntityEntries()))
+                .noneMatch(entry -> entry.getKey() instanceof Transaction);
+    }
+
+    @Test
+    @DisplayName("Debe rechazar la exportación de un presupuesto ajeno")
+    void shouldRejectExportOfForeignBudget() {
+        assertThatThrownBy(() -> transactionService.checkBudgetAccess(user.getId() + 1, firstBudget.getId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,133 @@
+package com.budget.api.service;
+
+import com.budget.api.dto.request.TransactionFilterRequest;
+import com.budget.api.dto.request.TransactionRequest;
+import com.budget.api.dto.response.TransactionResponse;
+import com.budget.api.entity.Budget;
+import com.budget.api.entity.User;
+import com.budget.api.enums.TransactionType;
+import com.budget.api.repository.TransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sin transacción de test: el índice en memoria se actualiza al confirmarse cada escritura
+@DataJpaTest(properties = {
+        "app.transactions.search.in-memory-index=true",
+        "app.transactions.search.max-matches=2",
+        "app.transactions.search.max-users=1"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(TransactionTestConfiguration.class)
+class TransactionSearchTest {
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private TransactionRepository transactionRepository;
+    @Autowired
+    private TransactionFixtures fixtures;
+
+    private User user;
+    private Budget budget;
+
+    @BeforeEach
+    void setUp() {
+        user = fixtures.user("search@example.com");
+        budget = fixtures.budget(user, "10000000");
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Debe buscar por subcadena con el índice en memoria y mantenerlo al escribir")
+    void shouldSearchWithInMemoryIndex() {
+        create("Supermercado Éxito");
+        create("Mercado semanal");
+        TransactionResponse bus = create("Bus al centro");
+        create("Arriendo");
+
+        assertThat(search("MERCADO")).containsExactlyInAnyOrder("Supermercado Éxito", "Mercado semanal");
+        assertThat(search("xyz")).isEmpty();
+
+        transactionService.update(user.getId(), bus.getId(), request("Mercado de pulgas"));
+        transactionService.delete(user.getId(), transactionRepository.findAll().stream()
+                .filter(t -> t.getDescription().equals("Supermercado Éxito")).findFirst().orElseThrow().getId());
+
+        assertThat(search("mercado")).containsExactlyInAnyOrder("Mercado semanal", "Mercado de pulgas");
+        // Más coincidencias que max-matches: se filtra con LIKE y el resultado es el mismo
+        assertThat(search("e")).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Debe ordenar por relevancia: exacta, prefijo y luego el resto")
+    void shouldOrderByRelevance() {
+        create("Supermercado");
+        create("Mercado semanal");
+        create("Mercado");
+
+        TransactionFilterRequest filter = new TransactionFilterRequest();
+        filter.setSearch("mercado");
+        List<String> ordered = transactionService
+                .findAll(user.getId(), filter, PageRequest.of(0, 10, Sort.by("relevance")))
+                .map(TransactionResponse::getDescription)
+                .getContent();
+
+        assertThat(ordered).containsExactly("Mercado", "Mercado semanal", "Supermercado");
+    }
+
+    @Test
+    @DisplayName("Debe recargar el índice de un usuario expulsado de la caché sin perder escrituras")
+    void shouldReloadEvictedIndex() {
+        create("Mercado");
+        assertThat(search("mercado")).containsExactly("Mercado");
+
+        // max-users=1: el índice del otro usuario expulsa al de este
+        User other = fixtures.user("search-other@example.com");
+        Budget otherBudget = fixtures.budget(other, "10000000");
+        transactionService.create(other.getId(), TransactionFixtures.request(otherBudget.getId(), "Mercado",
+                "1000.00", TransactionType.EXPENSE, LocalDate.of(2026, 3, 1), null));
+        assertThat(search(other.getId(), "mercado")).containsExactly("Mercado");
+
+        create("Mercado semanal");
+
+        assertThat(search("mercado")).containsExactlyInAnyOrder("Mercado", "Mercado semanal");
+    }
+
+    private List<String> search(String term) {
+        return search(user.getId(), term);
+    }
+
+    private List<String> search(Long userId, String term) {
+        TransactionFilterRequest filter = new TransactionFilterRequest();
+        filter.setSearch(term);
+        return transactionService.findAll(userId, filter, PageRequest.of(0, 10))
+                .map(TransactionResponse::getDescription)
+                .getContent();
+    }
+
+    private TransactionResponse create(String description) {
+        return transactionService.create(user.getId(), request(description));
+    }
+
+    private TransactionRequest request(String description) {
+        return TransactionFixtures.request(budget.getId(), description, "1000.00", TransactionType.EXPENSE,
+                LocalDate.of(2026, 3, 1), null);
+    }
+}
@@ -0,0 +1,86 @@
+package com.budget.api.service;
+
+import com.budget.api.dto.request.TransactionRequest;
+import com.budget.api.dto.response.SuggestionResponse;
+import com.budget.api.dto.response.TransactionResponse;
+import com.budget.api.entity.Budget;
+import com.budget.api.entity.User;
+import com.budget.api.enums.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+// Sin transacción de test: las sugerencias se actualizan al confirmarse cada escritura
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(TransactionTestConfiguration.class)
+class TransactionSuggestionServiceTest {
+
+    @Autowired
+    private TransactionService transactionService;
+    @Autowired
+    private TransactionSuggestionService transactionSuggestionService;
+    @Autowired
+    private TransactionFixtures fixtures;
+
+    private User user;
+    private Budget budget;
+
+    @BeforeEach
+    void setUp() {
+        user = fixtures.user("suggestions@example.com");
+        budget = fixtures.budget(user, "10000000");
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Debe sugerir desde el historial y seguir las altas, cambios y bajas")
+    void shouldSuggestFromHistory() {
+        create("Mercado semanal", "120000.00");
+        create("Mercado semanal", "120000.00");
+        TransactionResponse pharmacy = create("Medicamentos", "45000.00");
+
+        List<SuggestionResponse> initial = transactionSuggestionService.suggest(user.getId(), "ME", 10);
+        assertThat(initial).extracting(SuggestionResponse::getDescription)
+                .containsExactly("Mercado semanal", "Medicamentos");
+        assertThat(initial.get(0).getOccurrences()).isEqualTo(2);
+        assertThat(initial.get(0).getAmount()).isEqualByComparingTo("120000");
+
+        create("Medicamentos", "30000.00");
+        create("Medicamentos", "30000.00");
+        create("Medicamentos", "30000.00");
+        transactionService.update(user.getId(), pharmacy.getId(), request("Mecánico", "250000.00"));
+
+        assertThat(transactionSuggestionService.suggest(user.getId(), "me", 10))
+                .extracting(SuggestionResponse::getDescription, SuggestionResponse::getOccurrences)
+                .containsExactly(tuple("Medicamentos", 3L), tuple("Mercado semanal", 2L), tuple("Mecánico", 1L));
+
+        transactionService.delete(user.getId(), pharmacy.getId());
+        assertThat(transactionSuggestionService.suggest(user.getId(), "meca", 10)).isEmpty();
+    }
+
+    private TransactionResponse create(String description, String amount) {
+        return transactionService.create(user.getId(), request(description, amount));
+    }
+
+    private TransactionRequest request(String description, String amount) {
+        return TransactionFixtures.request(budget.getId(), description, amount, TransactionType.EXPENSE,
+                LocalDate.of(2026, 3, 1), null);
+    }
+}
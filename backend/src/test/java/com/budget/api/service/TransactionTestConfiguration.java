@@ -0,0 +1,24 @@
+package com.budget.api.service;
+
+import com.budget.api.cache.DashboardCache;
+import com.budget.api.mapper.TransactionMapperImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Servicios de transacciones para los tests con {@code @DataJpaTest}: el alta, el lote, la
+ * importación y el archivado con todo lo que actualizan (rollups, contadores, índices, caché).
+ * Un único conjunto de beans para que un servicio nuevo se añada aquí y no en cada test.
+ */
+@TestConfiguration
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({TransactionService.class, TransactionBatchService.class, TransactionImportService.class,
+        TransactionArchiveService.class, MonthlyRollupService.class, BudgetReservations.class,
+        BudgetCounterService.class, IdempotencyService.class, CsvService.class, TransactionMapperImpl.class,
+        DashboardCache.class, TransactionSearchIndex.class, TransactionSuggestionService.class,
+        SimpleMeterRegistry.class, TransactionFixtures.class})
+class TransactionTestConfiguration {
+}
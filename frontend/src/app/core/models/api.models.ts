@@ -97,6 +97,18 @@ export interface TransactionResponse {
   createdAt: string;
 }
 
+export interface ImportRowError {
+  line: number;
+  message: string;
+}
+
+export interface ImportResult {
+  imported: number;
+  failed: number;
+  errors: ImportRowError[];
+  errorsTruncated: boolean;
+}
+
 export interface TransactionFilter {
   budgetId?: number;
   categoryId?: number;
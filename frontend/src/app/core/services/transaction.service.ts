@@ -4,7 +4,7 @@ import { Observable } from 'rxjs';
 import { environment } from '@env/environment';
 import {
   ApiResponse, TransactionRequest, TransactionResponse,
-  TransactionFilter, PageResponse
+  TransactionFilter, PageResponse, ImportResult
 } from '../models/api.models';
 
 @Injectable({ providedIn: 'root' })
@@ -54,9 +54,9 @@ export class TransactionService {
     return this.http.get(`${this.apiUrl}/export/${budgetId}`, { responseType: 'blob' });
   }
 
-  importCsv(budgetId: number, file: File): Observable<ApiResponse<number>> {
+  importCsv(budgetId: number, file: File): Observable<ApiResponse<ImportResult>> {
     const formData = new FormData();
     formData.append('file', file);
-    return this.http.post<ApiResponse<number>>(`${this.apiUrl}/import/${budgetId}`, formData);
+    return this.http.post<ApiResponse<ImportResult>>(`${this.apiUrl}/import/${budgetId}`, formData);
   }
 }
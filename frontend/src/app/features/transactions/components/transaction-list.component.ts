@@ -339,7 +339,10 @@ export class TransactionListComponent implements OnInit {
     this.transactionService.importCsv(this.selectedBudgetId, input.files[0]).subscribe({
       next: (res) => {
         this.loadTransactions();
-        this.snackBar.open(`${res.data} transacciones importadas`, 'OK', { duration: 3000 });
+        const message = res.data.failed > 0
+          ? `${res.data.imported} transacciones importadas, ${res.data.failed} con errores`
+          : `${res.data.imported} transacciones importadas`;
+        this.snackBar.open(message, 'OK', { duration: 3000 });
       },
       error: () => {
         this.snackBar.open('Error al importar CSV', 'Cerrar', { duration: 4000 });